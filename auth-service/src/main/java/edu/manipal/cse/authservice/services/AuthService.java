@@ -42,8 +42,8 @@ public interface AuthService {
     TokenResponse refresh(RefreshTokenRequest request);
 
     /**
-     * Invalidates both access and refresh tokens for a user session.
-     * Adds the access token to a blacklist and removes the refresh token from storage.
+     * Invalidates the access and refresh tokens of the user, on every device.
+     * Revokes the user's access tokens and removes the refresh tokens from storage.
      *
      * @param token Bearer token from Authorization header (format: "Bearer {token}")
      * @return true if logout was successful
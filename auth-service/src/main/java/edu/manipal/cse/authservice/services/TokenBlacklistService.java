@@ -1,37 +0,0 @@
-package edu.manipal.cse.authservice.services;
-
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Service;
-
-import java.util.concurrent.TimeUnit;
-
-@Service
-@RequiredArgsConstructor
-@Slf4j
-public class TokenBlacklistService {
-    private static final String BLACKLIST_PREFIX = "blacklist:token:";
-    private final RedisTemplate<String, String> redisTemplate;
-
-    public void blacklistToken(String token, long expiryTimeMillis) {
-        try {
-            String key = BLACKLIST_PREFIX + token;
-            redisTemplate.opsForValue().set(key, "blacklisted", expiryTimeMillis, TimeUnit.MILLISECONDS);
-            log.debug("Token blacklisted successfully: {}", token);
-        } catch (Exception e) {
-            log.error("Failed to blacklist token", e);
-            throw new RuntimeException("Failed to blacklist token", e);
-        }
-    }
-
-    public boolean isBlacklisted(String token) {
-        try {
-            String key = BLACKLIST_PREFIX + token;
-            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-        } catch (Exception e) {
-            log.error("Failed to check token blacklist status", e);
-            return false;
-        }
-    }
-}
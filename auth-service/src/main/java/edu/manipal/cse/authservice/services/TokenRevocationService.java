@@ -0,0 +1,35 @@
+package edu.manipal.cse.authservice.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Revokes access tokens per user: the user's revocation epoch is set to now, and the gateway rejects
+ * every token of that user issued before it. The epoch is stored in a Redis hash (read by gateways
+ * on startup) and published on a channel (applied by running gateways right away).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    public static final String EPOCHS_KEY = "auth:revocation:epochs";
+    public static final String EPOCHS_CHANNEL = "auth:revocation";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public void revokeUserTokens(UUID userId) {
+        try {
+            String epoch = String.valueOf(System.currentTimeMillis());
+            redisTemplate.opsForHash().put(EPOCHS_KEY, userId.toString(), epoch);
+            redisTemplate.convertAndSend(EPOCHS_CHANNEL, userId + ":" + epoch);
+            log.debug("Access tokens revoked for user {} (epoch {})", userId, epoch);
+        } catch (Exception e) {
+            log.error("Failed to revoke access tokens for user {}", userId, e);
+            throw new RuntimeException("Failed to revoke access tokens", e);
+        }
+    }
+}
@@ -14,7 +14,7 @@ import edu.manipal.cse.authservice.exceptions.ResourceNotFoundException;
 import edu.manipal.cse.authservice.services.AuthService;
 import edu.manipal.cse.authservice.services.JwtService;
 import edu.manipal.cse.authservice.services.RefreshTokenService;
-import edu.manipal.cse.authservice.services.TokenBlacklistService;
+import edu.manipal.cse.authservice.services.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -36,7 +36,7 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final RefreshTokenService refreshTokenService;
-    private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     @Transactional
@@ -116,9 +116,8 @@ public class AuthServiceImpl implements AuthService {
             String accessToken = token.substring(BEARER_PREFIX.length());
             String userId = jwtService.validateAccessToken(accessToken);
 
-            // Execute token blacklisting and refresh token revocation in parallel
-            long remainingValidityTime = jwtService.getTokenRemainingValidityInMillis(accessToken);
-            tokenBlacklistService.blacklistToken(accessToken, remainingValidityTime);
+            // Every access token of the user issued so far stops working at the gateway
+            tokenRevocationService.revokeUserTokens(UUID.fromString(userId));
             refreshTokenService.revokeAllUserTokens(UUID.fromString(userId));
 
             log.info("Logout successful for user: {}", userId);
@@ -229,4 +229,65 @@ ALTER TABLE lectures
 ALTER COLUMN status TYPE VARCHAR(50);
 
 ALTER TABLE lecture_questions
-    ALTER COLUMN status TYPE VARCHAR(50);
\ No newline at end of file
+    ALTER COLUMN status TYPE VARCHAR(50);
+
+-- One response per student per lecture question (target of ON CONFLICT in batched response ingestion).
+-- Existing duplicates would fail the constraint: keep each student's first response and drop the rest.
+DELETE FROM student_responses duplicate
+    USING student_responses kept
+WHERE duplicate.student_id = kept.student_id
+  AND duplicate.lecture_question_id = kept.lecture_question_id
+  AND (duplicate.created_at, duplicate.response_id) > (kept.created_at, kept.response_id);
+ALTER TABLE student_responses
+    ADD CONSTRAINT uq_student_responses_student_lecture_question UNIQUE (student_id, lecture_question_id);
+
+-- Keyset pagination of lectures: newest first on (created_at, lecture_id), one index per filter combination
+CREATE INDEX idx_lectures_created_at_id ON lectures (created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_faculty_created_at_id ON lectures (faculty_id, created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_chapter_created_at_id ON lectures (chapter_id, created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_status_created_at_id ON lectures (status, created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_faculty_status_created_at_id ON lectures (faculty_id, status, created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_chapter_status_created_at_id ON lectures (chapter_id, status, created_at DESC, lecture_id DESC);
+CREATE INDEX idx_lectures_faculty_chapter_created_at_id ON lectures (faculty_id, chapter_id, created_at DESC, lecture_id DESC);
+
+-- Keyset pagination of student responses on (created_at, response_id): in submission order per lecture
+-- question, newest first per student. They supersede the single-column indexes on the same owner columns.
+CREATE INDEX idx_student_responses_lq_created_at_id ON student_responses (lecture_question_id, created_at, response_id);
+CREATE INDEX idx_student_responses_student_created_at_id ON student_responses (student_id, created_at, response_id);
+DROP INDEX idx_student_responses_lecture_question_id;
+DROP INDEX idx_student_responses_student_id;
+
+-- Timed activations: deadline of an ACTIVE lecture question, closed by whichever instance claims it first
+ALTER TABLE lecture_questions
+    ADD COLUMN closes_at TIMESTAMP WITH TIME ZONE;
+CREATE INDEX idx_lecture_questions_active_closes_at ON lecture_questions (closes_at)
+    WHERE status = 'ACTIVE' AND closes_at IS NOT NULL;
+
+-- Subscription event journal of lectures that have ended, for clients resuming studentResponded or
+-- lectureActivity after an offset. previous_offset is the offset retained before each event (or the
+-- oldest offset the journal may have missed), which tells whether a resume has a gap.
+CREATE TABLE lecture_event_journal
+(
+    lecture_id      UUID         NOT NULL REFERENCES lectures (lecture_id) ON DELETE CASCADE,
+    event_offset    BIGINT       NOT NULL,
+    previous_offset BIGINT       NOT NULL,
+    stream          VARCHAR(50)  NOT NULL,
+    event_key       UUID,
+    payload_type    VARCHAR(100) NOT NULL,
+    payload         JSONB        NOT NULL,
+    PRIMARY KEY (lecture_id, event_offset)
+);
+
+-- Offsets of subscription events, taken by the publishing instance before anyone receives the event,
+-- so every instance journals and resumes it under the same offset
+CREATE SEQUENCE live_event_offsets;
+
+-- Subscription events too large for a NOTIFY payload (8000 bytes); the notification carries the
+-- offset and receivers read the event from here. Rows are cleared after a few minutes.
+CREATE TABLE live_event_payloads
+(
+    event_offset BIGINT PRIMARY KEY,
+    envelope     TEXT                     NOT NULL,
+    created_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+CREATE INDEX idx_live_event_payloads_created_at ON live_event_payloads (created_at);
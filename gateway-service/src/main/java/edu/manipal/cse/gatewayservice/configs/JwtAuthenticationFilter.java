@@ -2,11 +2,14 @@ package edu.manipal.cse.gatewayservice.configs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.manipal.cse.gatewayservice.exceptions.JwtTokenExpiredException;
+import edu.manipal.cse.gatewayservice.services.RevocationEpochService;
+import edu.manipal.cse.gatewayservice.services.VerifiedTokenCache;
 import edu.manipal.cse.gatewayservice.utils.JwtUtil;
-import io.jsonwebtoken.Claims;
+import edu.manipal.cse.gatewayservice.utils.VerifiedToken;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
@@ -21,11 +24,12 @@ import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
 @Slf4j
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
+    // Ahead of ResponseCacheFilter, so cached responses are only served to authenticated requests
+    public static final int ORDER = ResponseCacheFilter.ORDER - 1;
     private static final String BEARER_PREFIX = "Bearer ";
     private static final String USER_ID_HEADER = "X-User-Id";
     private static final String ROLE_HEADER = "X-User-Role";
@@ -33,16 +37,21 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
 
     private final JwtUtil jwtUtil;
     private final PublicPathsConfig publicPathsConfig;
+    private final RevocationEpochService revocationEpochs;
+    private final VerifiedTokenCache tokenCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, PublicPathsConfig publicPathsConfig) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PublicPathsConfig publicPathsConfig,
+                                   RevocationEpochService revocationEpochs, VerifiedTokenCache tokenCache) {
         super(Config.class);
         this.jwtUtil = jwtUtil;
         this.publicPathsConfig = publicPathsConfig;
+        this.revocationEpochs = revocationEpochs;
+        this.tokenCache = tokenCache;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
-        return (exchange, chain) -> {
+        return new OrderedGatewayFilter((exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
             String path = request.getURI().getPath();
 
@@ -63,40 +72,47 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
 
             String token = authHeader.substring(BEARER_PREFIX.length());
 
-            try {
-                if (!jwtUtil.validateToken(token)) {
-                    log.warn("JWT validation failed (invalid/expired) for path {}", path);
-                    return handleError(exchange, HttpStatus.UNAUTHORIZED, "Token is expired or invalid");
+            // Tokens seen before skip parsing and signature verification until they expire
+            VerifiedToken verified = tokenCache.get(token).orElse(null);
+            if (verified == null) {
+                try {
+                    verified = jwtUtil.verify(token);
+                } catch (JwtTokenExpiredException e) {
+                    log.warn("JWT validation failed (expired) for path {}: {}", path, e.getMessage());
+                    return handleError(exchange, HttpStatus.UNAUTHORIZED, "Token has expired");
+                } catch (Exception e) {
+                    log.error("JWT validation error for path {}: {}", path, e.getMessage(), e);
+                    return handleError(exchange, HttpStatus.UNAUTHORIZED, "Invalid token processing error");
                 }
+                tokenCache.put(token, verified);
+            }
 
-                Claims claims = jwtUtil.extractClaims(token);
-                String userId = jwtUtil.extractUserId(claims);
-                String role = jwtUtil.extractRole(claims);
-
-                if (isWebSocketUpgradeRequest(request)) {
-                    log.info("WebSocket upgrade request authenticated for user: {}, role: {}, path: {}", userId, role, path);
-                    ServerHttpRequest downstreamRequest = request.mutate()
-                            .header(USER_ID_HEADER, userId)
-                            .header(ROLE_HEADER, role)
-                            .build();
-                    return chain.filter(exchange.mutate().request(downstreamRequest).build());
-                } else {
-                    log.debug("Forwarding HTTP request with userId: {} and role: {} for path {}", userId, role, path);
-                    ServerHttpRequest modifiedRequest = request.mutate()
-                            .header(USER_ID_HEADER, userId)
-                            .header(ROLE_HEADER, role)
-                            .build();
-                    return chain.filter(exchange.mutate().request(modifiedRequest).build());
-                }
+            // Revocation is checked in memory, so cached tokens are rejected as soon as the epoch arrives
+            if (revocationEpochs.isRevoked(verified)) {
+                tokenCache.invalidate(token);
+                log.warn("JWT validation failed (revoked) for path {}", path);
+                return handleError(exchange, HttpStatus.UNAUTHORIZED, "Token is expired or invalid");
+            }
 
-            } catch (JwtTokenExpiredException e) {
-                log.warn("JWT validation failed (expired) for path {}: {}", path, e.getMessage());
-                return handleError(exchange, HttpStatus.UNAUTHORIZED, "Token has expired");
-            } catch (Exception e) {
-                log.error("JWT validation error for path {}: {}", path, e.getMessage(), e);
-                return handleError(exchange, HttpStatus.UNAUTHORIZED, "Invalid token processing error");
+            String userId = verified.userId();
+            String role = verified.role();
+
+            if (isWebSocketUpgradeRequest(request)) {
+                log.info("WebSocket upgrade request authenticated for user: {}, role: {}, path: {}", userId, role, path);
+                ServerHttpRequest downstreamRequest = request.mutate()
+                        .header(USER_ID_HEADER, userId)
+                        .header(ROLE_HEADER, role)
+                        .build();
+                return chain.filter(exchange.mutate().request(downstreamRequest).build());
+            } else {
+                log.debug("Forwarding HTTP request with userId: {} and role: {} for path {}", userId, role, path);
+                ServerHttpRequest modifiedRequest = request.mutate()
+                        .header(USER_ID_HEADER, userId)
+                        .header(ROLE_HEADER, role)
+                        .build();
+                return chain.filter(exchange.mutate().request(modifiedRequest).build());
             }
-        };
+        }, ORDER);
     }
 
     private boolean isWebSocketUpgradeRequest(ServerHttpRequest request) {
@@ -134,20 +150,11 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
     }
 
     private boolean isPublicPath(String path) {
-        if (publicPathsConfig == null || publicPathsConfig.getPublicPaths() == null) {
-            log.warn("PublicPathsConfig or its path list is null. Treating path '{}' as non-public.", path);
+        if (publicPathsConfig == null) {
+            log.warn("PublicPathsConfig is null. Treating path '{}' as non-public.", path);
             return false;
         }
-        return publicPathsConfig.getPublicPaths().stream()
-                .filter(Objects::nonNull)
-                .anyMatch(publicPath -> {
-                    if (publicPath.endsWith("/**")) {
-                        String prefix = publicPath.substring(0, publicPath.length() - 3);
-                        if (prefix.isEmpty() || prefix.equals("/")) return true;
-                        return path.startsWith(prefix);
-                    }
-                    return path.equals(publicPath);
-                });
+        return publicPathsConfig.isPublicPath(path);
     }
 
     @Data
@@ -1,11 +1,16 @@
 package edu.manipal.cse.gatewayservice.configs;
 
 
+import edu.manipal.cse.gatewayservice.utils.PublicPathMatcher;
+import jakarta.annotation.PostConstruct;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import java.util.List;
 import java.util.ArrayList;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * Configuration properties for managing public paths that don't require authentication
@@ -15,4 +20,21 @@ import lombok.Data;
 @ConfigurationProperties(prefix = "gateway.security")
 public class PublicPathsConfig {
     private List<String> publicPaths = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile PublicPathMatcher matcher = PublicPathMatcher.compile(List.of());
+
+    /**
+     * Compiles the patterns once bound; a config refresh rebinds and re-initializes this bean,
+     * which compiles them again.
+     */
+    @PostConstruct
+    void compile() {
+        matcher = PublicPathMatcher.compile(publicPaths);
+    }
+
+    public boolean isPublicPath(String path) {
+        return matcher.matches(path);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package edu.manipal.cse.gatewayservice.configs;
+
+import edu.manipal.cse.gatewayservice.services.ResponseCacheService;
+import edu.manipal.cse.gatewayservice.services.ResponseCacheService.CachedResponse;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches successful GET responses of read-mostly routes in memory, keyed by path, query and role.
+ * A successful write (any other method) through the filter drops the cached responses under the
+ * route's {@code invalidates} prefixes, everything if it names none, on every gateway instance
+ * before the response reaches the client. A GET response is not cached if an invalidation happened
+ * while it was being fetched, since it may predate the write.
+ * <p>
+ * Responses marked {@code no-store} or {@code private} by the service are not cached, and a
+ * {@code max-age} shorter than the route's TTL shortens it. Requests sent with {@code no-cache} go to
+ * the service and refresh the entry; {@code no-store} requests bypass the cache. Every cacheable
+ * response carries an ETag, and a matching {@code If-None-Match} is answered with 304 from the cache.
+ * <p>
+ * Runs right before {@link NettyWriteResponseFilter}, the only place the response body written by it
+ * can be captured, and after {@link JwtAuthenticationFilter}, whose role header is part of the key.
+ */
+@Slf4j
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private static final String ROLE_HEADER = "X-User-Role";
+    private static final String CACHE_HEADER = "X-Cache";
+    // Clients may keep the response but must revalidate it, which costs them a 304 at most
+    private static final String DEFAULT_CACHE_CONTROL = "private, no-cache";
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final String EVERYTHING = "*";
+
+    private final ResponseCacheService cacheService;
+
+    public ResponseCacheFilter(ResponseCacheService cacheService) {
+        super(Config.class);
+        this.cacheService = cacheService;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return invalidateOnSuccess(exchange, chain, config);
+            }
+            String requestCacheControl = lowerCase(request.getHeaders().getCacheControl());
+            if (requestCacheControl.contains("no-store")) {
+                return chain.filter(exchange);
+            }
+
+            String path = request.getURI().getRawPath();
+            String query = request.getURI().getRawQuery();
+            String key = path + (query != null ? "?" + query : "") + "|" + request.getHeaders().getFirst(ROLE_HEADER);
+
+            if (!requestCacheControl.contains("no-cache")) {
+                CachedResponse cached = cacheService.get(key).orElse(null);
+                if (cached != null) {
+                    log.trace("Response cache hit for {}", key);
+                    return writeCached(exchange, cached);
+                }
+            }
+
+            // A write invalidating while this request is in flight may not be reflected in its response
+            long generation = cacheService.generation();
+            ServerHttpResponse response = exchange.getResponse();
+            ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(response) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    String cacheControl = getHeaders().getCacheControl();
+                    if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value() || !isStorable(cacheControl) || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        String etag = getHeaders().getETag() != null ? getHeaders().getETag() : etagOf(bytes);
+                        String clientCacheControl = cacheControl != null ? cacheControl : DEFAULT_CACHE_CONTROL;
+                        cacheService.put(key, path, bytes, getHeaders().getContentType(), clientCacheControl, etag,
+                                ttlOf(cacheControl, config.getTtl()), generation);
+                        getHeaders().setETag(etag);
+                        getHeaders().setCacheControl(clientCacheControl);
+                        getHeaders().set(CACHE_HEADER, "MISS");
+                        if (request.getHeaders().getIfNoneMatch().contains(etag)) {
+                            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                            setStatusCode(HttpStatus.NOT_MODIFIED);
+                            return setComplete();
+                        }
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+            return chain.filter(exchange.mutate().response(capturing).build());
+        }, ORDER);
+    }
+
+    private Mono<Void> invalidateOnSuccess(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            if (response.getStatusCode() == null || !response.getStatusCode().is2xxSuccessful()) {
+                return Mono.empty();
+            }
+            List<String> prefixes = config.getInvalidates().isEmpty() ? List.of(EVERYTHING) : config.getInvalidates();
+            log.debug("{} {} succeeded, invalidating cached responses under {}",
+                    exchange.getRequest().getMethod(), exchange.getRequest().getURI().getRawPath(), prefixes);
+            return Flux.fromIterable(prefixes)
+                    .concatMap(cacheService::invalidateEverywhere)
+                    .then();
+        });
+        return chain.filter(exchange);
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.setCacheControl(cached.cacheControl());
+        headers.set(CACHE_HEADER, "HIT");
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.setContentType(cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean isStorable(String cacheControl) {
+        String directives = lowerCase(cacheControl);
+        return !directives.contains("no-store") && !directives.contains("no-cache") && !directives.contains("private");
+    }
+
+    private static Duration ttlOf(String cacheControl, Duration routeTtl) {
+        Matcher maxAge = MAX_AGE.matcher(lowerCase(cacheControl));
+        if (maxAge.find()) {
+            Duration serviceTtl = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+            return serviceTtl.compareTo(routeTtl) < 0 ? serviceTtl : routeTtl;
+        }
+        return routeTtl;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    @Data
+    public static class Config {
+        // Upper bound; a shorter max-age from the service wins
+        private Duration ttl = Duration.ofMinutes(5);
+        // Path prefixes dropped after a successful write through the route; empty drops everything
+        private List<String> invalidates = new ArrayList<>();
+    }
+}
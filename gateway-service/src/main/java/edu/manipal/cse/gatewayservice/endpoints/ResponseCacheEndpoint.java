@@ -0,0 +1,37 @@
+package edu.manipal.cse.gatewayservice.endpoints;
+
+import edu.manipal.cse.gatewayservice.services.ResponseCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Admin access to the gateway response cache of this instance: {@code GET /actuator/responsecache}
+ * reports its size, {@code DELETE /actuator/responsecache?prefix=/api/v1/courses} drops the cached
+ * responses under a path (everything without a prefix). To reach every instance, publish the prefix
+ * on the {@code gateway:response-cache:invalidate} Redis channel instead.
+ * <p>
+ * Served on {@code management.server.port} only, which must not be reachable from outside.
+ */
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+
+    private final ResponseCacheService cacheService;
+
+    @ReadOperation
+    public Map<String, Object> size() {
+        return Map.of("entries", cacheService.size());
+    }
+
+    @DeleteOperation
+    public Map<String, Object> invalidate(@Nullable String prefix) {
+        return Map.of("invalidated", cacheService.invalidate(prefix));
+    }
+}
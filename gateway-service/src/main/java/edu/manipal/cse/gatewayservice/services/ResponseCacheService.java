@@ -0,0 +1,189 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory store behind the {@code ResponseCacheFilter} of read-mostly routes. Entries expire after
+ * their TTL; beyond {@code max-entries}, the least recently used response is evicted.
+ * <p>
+ * Entries can be dropped by path prefix through the {@code responsecache} actuator endpoint, or by
+ * publishing the prefix ({@code *} for everything) on the {@code gateway:response-cache:invalidate}
+ * Redis channel, which reaches every gateway instance. {@link #invalidateEverywhere} does both.
+ */
+@Service
+@Slf4j
+public class ResponseCacheService {
+    private static final String INVALIDATE_CHANNEL = "gateway:response-cache:invalidate";
+    private static final String EVERYTHING = "*";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final long maxEntryBytes;
+    // Access order: the eldest entry is the least recently used response
+    private final LinkedHashMap<String, CachedResponse> responses;
+    // Bumped by every invalidation, under the lock of responses
+    private long generation;
+    private final Counter hits;
+    private final Counter misses;
+    private Disposable invalidations;
+
+    public ResponseCacheService(ReactiveRedisTemplate<String, String> redisTemplate,
+                                ReactiveRedisMessageListenerContainer listenerContainer,
+                                MeterRegistry meterRegistry,
+                                @Value("${gateway.response-cache.max-entries:1000}") int maxEntries,
+                                @Value("${gateway.response-cache.max-entry-size:512KB}") DataSize maxEntrySize) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("max-entries must be positive: " + maxEntries);
+        }
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("gateway.response.cache.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("gateway.response.cache.lookups", "result", "miss");
+        Gauge.builder("gateway.response.cache.size", this, ResponseCacheService::size)
+                .description("Responses held in the gateway response cache")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        invalidations = listenerContainer.receive(ChannelTopic.of(INVALIDATE_CHANNEL))
+                .doOnNext(message -> invalidate(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Response cache invalidations interrupted, resubscribing: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    public Optional<CachedResponse> get(String key) {
+        CachedResponse cached;
+        synchronized (responses) {
+            cached = responses.get(key);
+            if (cached != null && cached.isExpired(System.nanoTime())) {
+                responses.remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(cached);
+    }
+
+    /**
+     * Invalidations so far. A response read from the service before an invalidation may predate the
+     * write that caused it, so it is only stored if no invalidation happened since it was requested.
+     */
+    public long generation() {
+        synchronized (responses) {
+            return generation;
+        }
+    }
+
+    /**
+     * @param generation the {@link #generation()} when the response was requested from the service
+     */
+    public void put(String key, String path, byte[] body, MediaType contentType, String cacheControl, String etag,
+                    Duration ttl, long generation) {
+        if (body.length > maxEntryBytes) {
+            log.debug("Response of {} is {} bytes, too large to cache", path, body.length);
+            return;
+        }
+        CachedResponse cached = new CachedResponse(path, body, contentType, cacheControl, etag, System.nanoTime() + ttl.toNanos());
+        synchronized (responses) {
+            if (this.generation != generation) {
+                log.debug("Response of {} was requested before an invalidation, not caching it", path);
+                return;
+            }
+            responses.put(key, cached);
+        }
+    }
+
+    /**
+     * Drops the cached responses whose path starts with the prefix; {@code null}, blank or {@code *}
+     * drops everything.
+     *
+     * @return the number of responses dropped
+     */
+    public int invalidate(String pathPrefix) {
+        int dropped;
+        synchronized (responses) {
+            generation++;
+            int before = responses.size();
+            if (pathPrefix == null || pathPrefix.isBlank() || EVERYTHING.equals(pathPrefix.trim())) {
+                responses.clear();
+            } else {
+                String prefix = pathPrefix.trim();
+                responses.values().removeIf(entry -> entry.path().startsWith(prefix));
+            }
+            dropped = before - responses.size();
+        }
+        log.info("Invalidated {} cached responses for prefix '{}'", dropped, pathPrefix);
+        return dropped;
+    }
+
+    /**
+     * Drops the cached responses under the prefix here right away, and on the other gateway
+     * instances through the invalidation channel. A failed publish is logged, not propagated.
+     */
+    public Mono<Void> invalidateEverywhere(String pathPrefix) {
+        invalidate(pathPrefix);
+        String message = pathPrefix == null || pathPrefix.isBlank() ? EVERYTHING : pathPrefix.trim();
+        return redisTemplate.convertAndSend(INVALIDATE_CHANNEL, message)
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish response cache invalidation for '{}': {}", message, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    public int size() {
+        synchronized (responses) {
+            return responses.size();
+        }
+    }
+
+    public record CachedResponse(String path, byte[] body, MediaType contentType, String cacheControl,
+                                 String etag, long expiresAtNanos) {
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos >= 0;
+        }
+    }
+}
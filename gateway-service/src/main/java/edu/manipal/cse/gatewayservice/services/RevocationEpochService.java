@@ -0,0 +1,186 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import edu.manipal.cse.gatewayservice.utils.JwtUtil;
+import edu.manipal.cse.gatewayservice.utils.VerifiedToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the per-user revocation epochs kept by auth-service: a token issued before its
+ * user's epoch has been revoked (logout, password change). Checking a token costs no network call.
+ * <p>
+ * Epochs are read in full from the {@code auth:revocation:epochs} hash once subscribed to the
+ * {@code auth:revocation} channel, and again after every resubscription, so updates published
+ * while the gateway was down or disconnected are not missed. Epochs only move forward.
+ * <p>
+ * JWT {@code iat} has whole-second precision while epochs are written in milliseconds, so both are
+ * compared in seconds: a token issued in the second of its user's epoch stays valid, which keeps a
+ * user who logs out and straight back in from being locked out by their new token. Once an epoch
+ * is older than the longest token lifetime every token it revokes has expired, so it is dropped
+ * here and from the hash.
+ */
+@Service
+@Slf4j
+public class RevocationEpochService {
+    private static final String EPOCHS_KEY = "auth:revocation:epochs";
+    private static final String EPOCHS_CHANNEL = "auth:revocation";
+    // Left by the per-token blacklist this service replaced; the keys expire with their tokens
+    private static final String BLACKLIST_PATTERN = "blacklist:token:*";
+    private static final int BLACKLIST_PREFIX_LENGTH = BLACKLIST_PATTERN.length() - 1;
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(10);
+    // Drops a user's epoch only if no newer one was written meanwhile
+    private static final RedisScript<Long> DELETE_EPOCH_IF_UNCHANGED = RedisScript.of(
+            "if redis.call('HGET', KEYS[1], ARGV[1]) == ARGV[2] then return redis.call('HDEL', KEYS[1], ARGV[1]) end return 0",
+            Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final JwtUtil jwtUtil;
+    private final Duration maxTokenLifetime;
+    private final Map<String, Long> epochs = new ConcurrentHashMap<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public RevocationEpochService(ReactiveRedisTemplate<String, String> redisTemplate,
+                                  ReactiveRedisMessageListenerContainer listenerContainer,
+                                  JwtUtil jwtUtil,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${gateway.security.max-token-lifetime:24h}") Duration maxTokenLifetime) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.jwtUtil = jwtUtil;
+        this.maxTokenLifetime = maxTokenLifetime;
+        Gauge.builder("gateway.token.revocation.epochs", epochs, Map::size)
+                .description("Users with a token revocation epoch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        subscriptions.add(listenerContainer.receiveLater(ChannelTopic.of(EPOCHS_CHANNEL))
+                // Subscribed first, so nothing published during the resync is lost
+                .flatMapMany(messages -> Flux.merge(
+                        messages.doOnNext(message -> applyMessage(message.getMessage())).then(),
+                        resync()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Revocation epoch updates interrupted, resubscribing: {}",
+                                signal.failure().getMessage())))
+                .subscribe());
+        subscriptions.add(migrateBlacklist().subscribe());
+        subscriptions.add(Flux.interval(PRUNE_INTERVAL, PRUNE_INTERVAL)
+                .concatMap(tick -> prune()
+                        .onErrorResume(e -> {
+                            log.warn("Failed to prune revocation epochs: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe());
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+    }
+
+    /**
+     * Whether the token was issued in a second before its user's revocation epoch.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        Long epoch = epochs.get(token.userId());
+        return epoch != null && token.issuedAt().getEpochSecond() < Math.floorDiv(epoch, 1000L);
+    }
+
+    /**
+     * Drops the epochs older than the longest token lifetime, here and from the hash.
+     */
+    Mono<Void> prune() {
+        long cutoff = System.currentTimeMillis() - maxTokenLifetime.toMillis();
+        return Flux.fromIterable(epochs.entrySet())
+                .filter(entry -> entry.getValue() < cutoff)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .concatMap(entry -> {
+                    epochs.remove(entry.getKey(), entry.getValue());
+                    return redisTemplate.execute(DELETE_EPOCH_IF_UNCHANGED, List.of(EPOCHS_KEY),
+                            List.of(entry.getKey(), String.valueOf(entry.getValue())));
+                })
+                .reduce(0L, Long::sum)
+                .doOnNext(deleted -> log.debug("Pruned {} expired revocation epochs", deleted))
+                .then();
+    }
+
+    /**
+     * Tokens logged out under the old per-token blacklist stay revoked: each one still in the
+     * blacklist becomes an epoch just after it was issued. This revokes that user's other tokens
+     * issued in the same second or earlier as well, as a logout now does. The blacklist keys expire
+     * with their tokens, so after one token lifetime this finds nothing.
+     */
+    private Mono<Void> migrateBlacklist() {
+        return redisTemplate.scan(ScanOptions.scanOptions().match(BLACKLIST_PATTERN).count(500).build())
+                .concatMap(key -> {
+                    try {
+                        VerifiedToken token = jwtUtil.verify(key.substring(BLACKLIST_PREFIX_LENGTH));
+                        long epoch = (token.issuedAt().getEpochSecond() + 1) * 1000L;
+                        apply(token.userId(), String.valueOf(epoch));
+                        return Mono.just(token);
+                    } catch (RuntimeException e) {
+                        // Expired or unreadable: nothing left to revoke
+                        return Mono.empty();
+                    }
+                })
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        log.info("Revoked {} blacklisted tokens through revocation epochs", count);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Failed to read the token blacklist: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Void> resync() {
+        return redisTemplate.<String, String>opsForHash().entries(EPOCHS_KEY)
+                .doOnNext(entry -> apply(entry.getKey(), entry.getValue()))
+                .count()
+                .doOnNext(count -> log.info("Loaded {} token revocation epochs", count))
+                .then();
+    }
+
+    private void applyMessage(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator < 0) {
+            log.warn("Ignoring malformed revocation epoch update: {}", message);
+            return;
+        }
+        apply(message.substring(0, separator), message.substring(separator + 1));
+    }
+
+    private void apply(String userId, String epoch) {
+        try {
+            epochs.merge(userId, Long.parseLong(epoch), Math::max);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring revocation epoch '{}' of user {}", epoch, userId);
+        }
+    }
+}
@@ -1,24 +0,0 @@
-package edu.manipal.cse.gatewayservice.services;
-
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.stereotype.Service;
-
-@Service
-@RequiredArgsConstructor
-@Slf4j
-public class TokenBlacklistService {
-    private static final String BLACKLIST_PREFIX = "blacklist:token:";
-    private final RedisTemplate<String, String> redisTemplate;
-
-    public boolean isBlacklisted(String token) {
-        try {
-            String key = BLACKLIST_PREFIX + token;
-            return redisTemplate.hasKey(key);
-        } catch (Exception e) {
-            log.error("Failed to check token blacklist status", e);
-            return false;
-        }
-    }
-}
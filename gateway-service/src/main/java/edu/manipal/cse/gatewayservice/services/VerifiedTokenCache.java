@@ -0,0 +1,101 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import edu.manipal.cse.gatewayservice.utils.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Verified tokens by SHA-256 of the token, so the repeat requests of a page load skip parsing and
+ * signature verification. An entry is never served past the token's {@code exp} and is dropped
+ * when found expired or revoked; beyond {@code maxEntries}, the least recently used token is
+ * evicted and simply verified again on its next request.
+ */
+@Service
+public class VerifiedTokenCache {
+
+    // Access order: the eldest entry is the least recently used token
+    private final LinkedHashMap<String, VerifiedToken> tokens;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${gateway.security.token-cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.tokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = meterRegistry.counter("gateway.token.cache.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("gateway.token.cache.lookups", "result", "miss");
+        Gauge.builder("gateway.token.cache.size", this, VerifiedTokenCache::size)
+                .description("Verified tokens held in the cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<VerifiedToken> get(String token) {
+        String key = keyOf(token);
+        VerifiedToken verified;
+        synchronized (tokens) {
+            verified = tokens.get(key);
+            if (verified != null && verified.isExpired(Instant.now())) {
+                tokens.remove(key);
+                verified = null;
+            }
+        }
+        if (verified == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(verified);
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (verified.isExpired(Instant.now())) {
+            return;
+        }
+        String key = keyOf(token);
+        synchronized (tokens) {
+            tokens.put(key, verified);
+        }
+    }
+
+    public void invalidate(String token) {
+        String key = keyOf(token);
+        synchronized (tokens) {
+            tokens.remove(key);
+        }
+    }
+
+    public int size() {
+        synchronized (tokens) {
+            return tokens.size();
+        }
+    }
+
+    private static String keyOf(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -2,9 +2,9 @@ package edu.manipal.cse.gatewayservice.utils;
 
 import edu.manipal.cse.gatewayservice.exceptions.InvalidTokenException;
 import edu.manipal.cse.gatewayservice.exceptions.JwtTokenExpiredException;
-import edu.manipal.cse.gatewayservice.services.TokenBlacklistService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -18,21 +18,19 @@ import java.util.Date;
 @Slf4j
 @Component
 public class JwtUtil {
-    private final Key key;
-    private final TokenBlacklistService blacklistService;
+    private final JwtParser parser;
 
-    public JwtUtil(@Value("${jwt.access.secret}") String secret, TokenBlacklistService blacklistService) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        this.blacklistService = blacklistService;
+    public JwtUtil(@Value("${jwt.access.secret}") String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        // Parsers are immutable and thread-safe, so one is shared by all requests
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public Claims extractClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
             throw new JwtTokenExpiredException("JWT token has expired");
@@ -42,15 +40,27 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Parses and verifies the token once, keeping only what the gateway forwards.
+     *
+     * @throws JwtTokenExpiredException if the token has expired
+     * @throws InvalidTokenException if the token cannot be verified
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractClaims(token);
+        if (claims.getIssuedAt() == null || claims.getExpiration() == null) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        return new VerifiedToken(extractUserId(claims), extractRole(claims),
+                claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+    }
+
+    /**
+     * Verifies the JWT signature and expiration. Revocation is checked separately, in memory,
+     * by {@link edu.manipal.cse.gatewayservice.services.RevocationEpochService}.
+     */
     public boolean validateToken(String token) {
         try {
-            // First check if token is blacklisted
-            if (blacklistService.isBlacklisted(token)) {
-                log.debug("Token is blacklisted");
-                return false;
-            }
-
-            // Then verify the JWT signature and expiration
             Claims claims = extractClaims(token);
             return !claims.getExpiration().before(new Date());
         } catch (Exception e) {
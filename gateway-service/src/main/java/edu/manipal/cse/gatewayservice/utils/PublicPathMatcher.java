@@ -0,0 +1,121 @@
+package edu.manipal.cse.gatewayservice.utils;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Public-path patterns compiled into a character trie, so a request path is checked in one pass over
+ * its characters, without allocating, however many patterns are configured.
+ * <p>
+ * Exact paths ({@code /api/v1/auth/refresh}) and trailing-wildcard prefixes ({@code /swagger-ui/**},
+ * which matches {@code /swagger-ui} and everything below it) live in the trie. Any other pattern,
+ * e.g. with {@code *} or {@code {id}} segments, is compiled to a {@link PathPattern} and checked
+ * after the trie.
+ */
+public final class PublicPathMatcher {
+
+    private static final String ANY_BELOW = "/**";
+
+    private final Node root = new Node();
+    private final List<PathPattern> patterns = new ArrayList<>();
+    private boolean matchesAll;
+
+    private PublicPathMatcher() {
+    }
+
+    public static PublicPathMatcher compile(List<String> publicPaths) {
+        PublicPathMatcher matcher = new PublicPathMatcher();
+        if (publicPaths != null) {
+            publicPaths.stream().filter(Objects::nonNull).forEach(matcher::add);
+        }
+        return matcher;
+    }
+
+    public boolean matches(String path) {
+        if (matchesAll) {
+            return true;
+        }
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            // A prefix matches at a segment boundary, never halfway through a segment
+            if (node.prefix && path.charAt(i) == '/') {
+                return true;
+            }
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return matchesPattern(path);
+            }
+        }
+        return node.exact || node.prefix || matchesPattern(path);
+    }
+
+    private boolean matchesPattern(String path) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(String publicPath) {
+        boolean prefix = publicPath.endsWith(ANY_BELOW);
+        String literal = prefix ? publicPath.substring(0, publicPath.length() - ANY_BELOW.length()) : publicPath;
+        if (prefix && (literal.isEmpty() || literal.equals("/"))) {
+            matchesAll = true;
+            return;
+        }
+        if (PathPatternParser.defaultInstance.parse(literal).hasPatternSyntax()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(publicPath));
+            return;
+        }
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            node = node.childOrCreate(literal.charAt(i));
+        }
+        if (prefix) {
+            node.prefix = true;
+        } else {
+            node.exact = true;
+        }
+    }
+
+    private static final class Node {
+        // Few children per node, so a linear scan beats hashing and boxes nothing
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean exact;
+        private boolean prefix;
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
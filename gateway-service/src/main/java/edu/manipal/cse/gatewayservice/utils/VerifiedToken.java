@@ -0,0 +1,13 @@
+package edu.manipal.cse.gatewayservice.utils;
+
+import java.time.Instant;
+
+/**
+ * What the gateway needs from an access token once its signature has been verified.
+ */
+public record VerifiedToken(String userId, String role, Instant issuedAt, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
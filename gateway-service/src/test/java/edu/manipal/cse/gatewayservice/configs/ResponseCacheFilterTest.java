@@ -0,0 +1,100 @@
+package edu.manipal.cse.gatewayservice.configs;
+
+import edu.manipal.cse.gatewayservice.services.ResponseCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCacheService cacheService = mock(ResponseCacheService.class);
+    private final ResponseCacheFilter filterFactory = new ResponseCacheFilter(cacheService);
+
+    @Test
+    void successfulWriteInvalidatesTheRoutePrefixes() {
+        when(cacheService.invalidateEverywhere(anyString())).thenReturn(Mono.empty());
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setInvalidates(List.of("/api/v1/chapters/course"));
+
+        write(filterFactory.apply(config), HttpStatus.CREATED);
+
+        verify(cacheService).invalidateEverywhere("/api/v1/chapters/course");
+    }
+
+    @Test
+    void successfulWriteWithoutPrefixesInvalidatesEverything() {
+        when(cacheService.invalidateEverywhere(anyString())).thenReturn(Mono.empty());
+
+        write(filterFactory.apply(new ResponseCacheFilter.Config()), HttpStatus.NO_CONTENT);
+
+        verify(cacheService).invalidateEverywhere("*");
+    }
+
+    @Test
+    void readOverlappingAnInvalidatingWriteIsNotCached() {
+        ResponseCacheService cache = cacheService();
+        GatewayFilter filter = new ResponseCacheFilter(cache).apply(new ResponseCacheFilter.Config());
+
+        // The service answers the read only after the write went through and invalidated
+        read(filter, () -> write(filter, HttpStatus.NO_CONTENT));
+        assertThat(cache.size()).isZero();
+
+        read(filter, () -> {});
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void failedWriteInvalidatesNothing() {
+        write(filterFactory.apply(new ResponseCacheFilter.Config()), HttpStatus.BAD_REQUEST);
+
+        verify(cacheService, never()).invalidateEverywhere(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseCacheService cacheService() {
+        ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(Mono.just(1L));
+        return new ResponseCacheService(redisTemplate, mock(ReactiveRedisMessageListenerContainer.class),
+                new SimpleMeterRegistry(), 16, DataSize.ofKilobytes(1));
+    }
+
+    private static void read(GatewayFilter filter, Runnable whileFetching) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/chapters/course/1"));
+        GatewayFilterChain chain = filtered -> {
+            whileFetching.run();
+            filtered.getResponse().setStatusCode(HttpStatus.OK);
+            DataBuffer body = filtered.getResponse().bufferFactory().wrap("[]".getBytes(StandardCharsets.UTF_8));
+            return filtered.getResponse().writeWith(Mono.just(body));
+        };
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+    }
+
+    private static void write(GatewayFilter filter, HttpStatus status) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/chapters"));
+        GatewayFilterChain chain = filtered -> {
+            filtered.getResponse().setStatusCode(status);
+            return filtered.getResponse().setComplete();
+        };
+        StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+    }
+}
@@ -0,0 +1,55 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCacheServiceTest {
+
+    @SuppressWarnings("unchecked")
+    private final ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+    private final ResponseCacheService cacheService = new ResponseCacheService(redisTemplate,
+            mock(ReactiveRedisMessageListenerContainer.class), new SimpleMeterRegistry(), 2, DataSize.ofKilobytes(1));
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedResponse() {
+        put("/api/v1/courses/1");
+        put("/api/v1/courses/2");
+        cacheService.get("/api/v1/courses/1");
+        put("/api/v1/courses/3");
+
+        assertThat(cacheService.size()).isEqualTo(2);
+        assertThat(cacheService.get("/api/v1/courses/1")).isPresent();
+        assertThat(cacheService.get("/api/v1/courses/2")).isEmpty();
+        assertThat(cacheService.get("/api/v1/courses/3")).isPresent();
+    }
+
+    @Test
+    void invalidatingEverywhereDropsLocallyEvenIfThePublishFails() {
+        when(redisTemplate.convertAndSend("gateway:response-cache:invalidate", "/api/v1/courses"))
+                .thenReturn(Mono.error(new IllegalStateException("connection refused")));
+        put("/api/v1/courses/1");
+        put("/api/v1/schools/1");
+
+        StepVerifier.create(cacheService.invalidateEverywhere("/api/v1/courses")).verifyComplete();
+
+        assertThat(cacheService.get("/api/v1/courses/1")).isEmpty();
+        assertThat(cacheService.get("/api/v1/schools/1")).isPresent();
+    }
+
+    private void put(String path) {
+        cacheService.put(path, path, new byte[16], MediaType.APPLICATION_JSON, "private, no-cache", "\"etag\"",
+                Duration.ofMinutes(10), cacheService.generation());
+    }
+}
@@ -0,0 +1,109 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import edu.manipal.cse.gatewayservice.utils.JwtUtil;
+import edu.manipal.cse.gatewayservice.utils.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevocationEpochServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    @SuppressWarnings("unchecked")
+    private final ReactiveRedisTemplate<String, String> redisTemplate = mock(ReactiveRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveHashOperations<String, String, String> hashOperations = mock(ReactiveHashOperations.class);
+    private final ReactiveRedisMessageListenerContainer listenerContainer = mock(ReactiveRedisMessageListenerContainer.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+
+    private RevocationEpochService revocationEpochs;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(Mono.just(Flux.never())).when(listenerContainer).receiveLater(any(ChannelTopic.class));
+        doReturn(hashOperations).when(redisTemplate).opsForHash();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.empty());
+        revocationEpochs = new RevocationEpochService(redisTemplate, listenerContainer, jwtUtil,
+                new SimpleMeterRegistry(), Duration.ofHours(24));
+    }
+
+    @AfterEach
+    void tearDown() {
+        revocationEpochs.stop();
+    }
+
+    @Test
+    void tokensAreComparedToTheEpochInWholeSeconds() {
+        startWithEpoch(10_500);
+
+        assertThat(revocationEpochs.isRevoked(issuedAt(USER_ID, Instant.ofEpochSecond(9)))).isTrue();
+        // Logged back in within the second of the logout: iat has no milliseconds to tell them apart
+        assertThat(revocationEpochs.isRevoked(issuedAt(USER_ID, Instant.ofEpochSecond(10)))).isFalse();
+        assertThat(revocationEpochs.isRevoked(issuedAt(USER_ID, Instant.ofEpochSecond(11)))).isFalse();
+        assertThat(revocationEpochs.isRevoked(issuedAt("user-2", Instant.ofEpochSecond(9)))).isFalse();
+    }
+
+    @Test
+    void blacklistedTokensStayRevoked() {
+        VerifiedToken blacklisted = issuedAt(USER_ID, Instant.ofEpochSecond(100));
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(Flux.just("blacklist:token:old-token"));
+        when(jwtUtil.verify("old-token")).thenReturn(blacklisted);
+        when(hashOperations.entries("auth:revocation:epochs")).thenReturn(Flux.empty());
+
+        revocationEpochs.start();
+
+        assertThat(revocationEpochs.isRevoked(blacklisted)).isTrue();
+        assertThat(revocationEpochs.isRevoked(issuedAt(USER_ID, Instant.ofEpochSecond(101)))).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void epochsOlderThanTheLongestTokenLifetimeArePruned() {
+        long epoch = Instant.now().minus(Duration.ofHours(25)).toEpochMilli();
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.just(1L));
+        startWithEpoch(epoch);
+        VerifiedToken before = issuedAt(USER_ID, Instant.ofEpochMilli(epoch).minusSeconds(10));
+        assertThat(revocationEpochs.isRevoked(before)).isTrue();
+
+        StepVerifier.create(revocationEpochs.prune()).verifyComplete();
+
+        assertThat(revocationEpochs.isRevoked(before)).isFalse();
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("auth:revocation:epochs")),
+                eq(List.of(USER_ID, String.valueOf(epoch))));
+    }
+
+    private void startWithEpoch(long epoch) {
+        when(hashOperations.entries("auth:revocation:epochs"))
+                .thenReturn(Flux.just(Map.entry(USER_ID, String.valueOf(epoch))));
+        revocationEpochs.start();
+    }
+
+    private static VerifiedToken issuedAt(String userId, Instant issuedAt) {
+        return new VerifiedToken(userId, "ROLE_STUDENT", issuedAt, issuedAt.plus(Duration.ofDays(365 * 100)));
+    }
+}
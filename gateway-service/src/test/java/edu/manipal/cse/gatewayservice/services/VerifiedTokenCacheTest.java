@@ -0,0 +1,50 @@
+package edu.manipal.cse.gatewayservice.services;
+
+import edu.manipal.cse.gatewayservice.utils.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 2);
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedToken() {
+        cache.put("first", valid());
+        cache.put("second", valid());
+        cache.get("first");
+        cache.put("third", valid());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("first")).isPresent();
+        assertThat(cache.get("second")).isEmpty();
+        assertThat(cache.get("third")).isPresent();
+    }
+
+    @Test
+    void expiredTokensAreNeitherServedNorCached() {
+        Instant now = Instant.now();
+        cache.put("expiring", new VerifiedToken("user", "ROLE_STUDENT", now.minusSeconds(60), now.plusMillis(50)));
+        cache.put("expired", new VerifiedToken("user", "ROLE_STUDENT", now.minusSeconds(60), now.minusSeconds(1)));
+
+        assertThat(cache.size()).isEqualTo(1);
+        await(Instant.now().plusMillis(100));
+        assertThat(cache.get("expiring")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static VerifiedToken valid() {
+        Instant now = Instant.now();
+        return new VerifiedToken("user", "ROLE_STUDENT", now, now.plusSeconds(900));
+    }
+
+    private static void await(Instant deadline) {
+        while (Instant.now().isBefore(deadline)) {
+            Thread.onSpinWait();
+        }
+    }
+}
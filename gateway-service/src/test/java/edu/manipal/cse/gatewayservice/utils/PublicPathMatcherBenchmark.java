@@ -0,0 +1,95 @@
+package edu.manipal.cse.gatewayservice.utils;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time per public-path check of {@link PublicPathMatcher} against the per-request stream over the
+ * configured patterns it replaced, and against {@link AntPathMatcher}, for the default public paths
+ * and a mix of public and protected request paths.
+ * <p>
+ * Not part of the regular build; run it with:
+ * <pre>
+ * mvn test -Dtest=PublicPathMatcherBenchmark -Dbenchmark=true
+ * </pre>
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PublicPathMatcherBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final int CHECKS_PER_ROUND = 2_000_000;
+    private static final List<String> PATHS = List.of(
+            "/api/v1/auth/student/login",
+            "/swagger-ui/index.html",
+            "/swagger-uiX",
+            "/api/v1/questions/3f2a9c1e-5b7d-4e8a-9c0b-1d2e3f4a5b6c",
+            "/lectures/graphql");
+
+    private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    @Test
+    void timePerCheck() {
+        List<String> publicPaths = PublicPathMatcherTest.DEFAULT_PUBLIC_PATHS;
+        PublicPathMatcher trie = PublicPathMatcher.compile(publicPaths);
+        Predicate<String> ant = path -> publicPaths.stream().anyMatch(pattern -> ANT_PATH_MATCHER.match(pattern, path));
+
+        for (String path : PATHS) {
+            assertThat(trie.matches(path)).as(path).isEqualTo(ant.test(path));
+        }
+        System.out.printf("stream over patterns: %6.1f ns/check%n", nanosPerCheck(path -> streamMatch(publicPaths, path)));
+        System.out.printf("AntPathMatcher:       %6.1f ns/check%n", nanosPerCheck(ant));
+        System.out.printf("PublicPathMatcher:    %6.1f ns/check%n", nanosPerCheck(trie::matches));
+    }
+
+    /**
+     * The check JwtAuthenticationFilter ran on every request before PublicPathMatcher.
+     */
+    private static boolean streamMatch(List<String> publicPaths, String path) {
+        return publicPaths.stream()
+                .filter(Objects::nonNull)
+                .anyMatch(publicPath -> {
+                    if (publicPath.endsWith("/**")) {
+                        String prefix = publicPath.substring(0, publicPath.length() - 3);
+                        if (prefix.isEmpty() || prefix.equals("/")) return true;
+                        return path.startsWith(prefix);
+                    }
+                    return path.equals(publicPath);
+                });
+    }
+
+    private static double nanosPerCheck(Predicate<String> matcher) {
+        int matched = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            matched += round(matcher);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            matched += round(matcher);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        // Keeps the JIT from dropping the checks as dead code
+        assertThat(matched).isPositive();
+        return (double) best / CHECKS_PER_ROUND;
+    }
+
+    private static int round(Predicate<String> matcher) {
+        int matched = 0;
+        for (int i = 0; i < CHECKS_PER_ROUND; i++) {
+            if (matcher.test(PATHS.get(i % PATHS.size()))) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
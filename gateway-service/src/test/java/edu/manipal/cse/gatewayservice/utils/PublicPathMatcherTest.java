@@ -0,0 +1,89 @@
+package edu.manipal.cse.gatewayservice.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicPathMatcherTest {
+
+    // As in application.yml
+    static final List<String> DEFAULT_PUBLIC_PATHS = List.of(
+            "/api/v1/auth/faculty/login",
+            "/api/v1/auth/student/login",
+            "/api/v1/auth/refresh",
+            "/api/v1/auth/logout",
+            "/v3/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html");
+    // Plus patterns that need PathPattern
+    private static final List<String> PUBLIC_PATHS = Stream.concat(DEFAULT_PUBLIC_PATHS.stream(),
+            Stream.of("/api/v1/courses/*/syllabus", "/api/v1/chapters/{chapterId}/preview/**")).toList();
+
+    private static final AntPathMatcher ANT_PATH_MATCHER = new AntPathMatcher();
+
+    private final PublicPathMatcher matcher = PublicPathMatcher.compile(PUBLIC_PATHS);
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            // Exact
+            "/api/v1/auth/refresh,                  true",
+            "/api/v1/auth/student/login,            true",
+            "/swagger-ui.html,                      true",
+            "/api/v1/auth,                          false",
+            "/api/v1/auth/refreshed,                false",
+            "/api/v1/auth/refres,                   false",
+            // Trailing wildcard
+            "/swagger-ui,                           true",
+            "/swagger-ui/index.html,                true",
+            "/swagger-ui/a/b/c.js,                  true",
+            "/v3/api-docs,                          true",
+            "/v3/api-docs/swagger-config,           true",
+            "/swagger-uiX,                          false",
+            "/swagger-ui.js,                        false",
+            "/v3/api-docsX/x,                       false",
+            // Trailing slash
+            "/swagger-ui/,                          true",
+            "/v3/api-docs/,                         true",
+            "/api/v1/auth/refresh/,                 false",
+            "/api/v1/auth/logout/,                  false",
+            // Pattern segments
+            "/api/v1/courses/42/syllabus,           true",
+            "/api/v1/courses/42/syllabus/x,         false",
+            "/api/v1/courses/syllabus,              false",
+            "/api/v1/chapters/7/preview,            true",
+            "/api/v1/chapters/7/preview/page/2,     true",
+            "/api/v1/chapters/7/review,             false",
+            // Non-matching
+            "/,                                     false",
+            "/api/v1/faculty/me,                    false",
+            "/api/v1/questions/1,                   false",
+            "/lectures/graphql,                     false",
+            "/API/V1/AUTH/REFRESH,                  false"
+    })
+    void matchesLikeTheAntPathPatterns(String path, boolean expected) {
+        assertThat(matcher.matches(path)).isEqualTo(expected);
+        assertThat(PUBLIC_PATHS.stream().anyMatch(pattern -> ANT_PATH_MATCHER.match(pattern, path)))
+                .as("AntPathMatcher on %s", path)
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void rootWildcardMatchesEverything() {
+        PublicPathMatcher all = PublicPathMatcher.compile(List.of("/**"));
+
+        assertThat(all.matches("/")).isTrue();
+        assertThat(all.matches("/lectures/graphql")).isTrue();
+    }
+
+    @Test
+    void noPatternsMatchNothing() {
+        assertThat(PublicPathMatcher.compile(null).matches("/api/v1/auth/refresh")).isFalse();
+        assertThat(PublicPathMatcher.compile(List.of()).matches("/")).isFalse();
+    }
+}
@@ -1,13 +1,17 @@
 package edu.manipal.cse.lectureservicereactive.clients;
 
+import edu.manipal.cse.lectureservicereactive.dto.client.questions.AnswerResponse;
+import edu.manipal.cse.lectureservicereactive.dto.response.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.UUID;
 
 @Component
@@ -39,4 +43,21 @@ public class AnswerServiceClient {
                     return Mono.just(false);
                 });
     }
+
+    public Mono<List<AnswerResponse>> getAnswersForQuestion(UUID questionId) {
+        log.debug("Fetching answers for question ID: {}", questionId);
+        ParameterizedTypeReference<ApiResponse<List<AnswerResponse>>> responseType =
+                new ParameterizedTypeReference<>() {};
+
+        return this.webClient
+                .get()
+                .uri("/answers/{questionId}", questionId)
+                .retrieve()
+                .bodyToMono(responseType)
+                .map(apiResponse -> apiResponse.getData() != null ? apiResponse.getData() : List.<AnswerResponse>of())
+                .onErrorResume(WebClientResponseException.class, ex ->
+                        ex.getStatusCode() == HttpStatus.NOT_FOUND ? Mono.just(List.of()) : Mono.error(ex)
+                )
+                .doOnError(e -> log.error("Failed to fetch answers for question ID {}: {}", questionId, e.getMessage()));
+    }
 }
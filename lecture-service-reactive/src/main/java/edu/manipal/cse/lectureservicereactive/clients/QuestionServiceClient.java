@@ -68,6 +68,15 @@ public class QuestionServiceClient {
                 });
     }
 
+    /**
+     * Fetches the questions, with their answers, in one call. Unknown IDs are simply missing from the result.
+     */
+    public Mono<List<QuestionResponse>> getQuestions(List<UUID> uuids) {
+        log.debug("Fetching {} questions from question-service", uuids.size());
+        return validateAllQuestions(uuids)
+                .map(apiResponse -> apiResponse.getData() != null ? apiResponse.getData() : List.<QuestionResponse>of());
+    }
+
     private String buildErrorMessageFromApiResponse(ApiResponse<?> apiResponse) {
         StringBuilder messageBuilder = new StringBuilder("Error from question service: ");
         if (apiResponse.getMessage() != null && !apiResponse.getMessage().isBlank()) {
@@ -0,0 +1,70 @@
+package edu.manipal.cse.lectureservicereactive.configs;
+
+import graphql.GraphQLContext;
+import graphql.execution.CoercedVariables;
+import graphql.language.IntValue;
+import graphql.language.StringValue;
+import graphql.language.Value;
+import graphql.schema.Coercing;
+import graphql.schema.CoercingParseLiteralException;
+import graphql.schema.CoercingParseValueException;
+import graphql.schema.CoercingSerializeException;
+import graphql.schema.GraphQLScalarType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+
+import java.util.Locale;
+
+/**
+ * Custom scalars of the GraphQL schema.
+ */
+@Configuration
+public class GraphQlScalarConfig {
+
+    /**
+     * 64-bit integer, e.g. subscription sequence numbers. Accepts numbers and numeric strings.
+     */
+    public static final GraphQLScalarType LONG = GraphQLScalarType.newScalar()
+            .name("Long")
+            .description("64-bit signed integer")
+            .coercing(new Coercing<Long, Long>() {
+                @Override
+                public Long serialize(Object dataFetcherResult, GraphQLContext context, Locale locale) {
+                    if (dataFetcherResult instanceof Number number) {
+                        return number.longValue();
+                    }
+                    throw new CoercingSerializeException("Expected a number but was " + dataFetcherResult);
+                }
+
+                @Override
+                public Long parseValue(Object input, GraphQLContext context, Locale locale) {
+                    try {
+                        return input instanceof Number number ? number.longValue() : Long.parseLong(String.valueOf(input));
+                    } catch (NumberFormatException e) {
+                        throw new CoercingParseValueException("Not a Long: " + input);
+                    }
+                }
+
+                @Override
+                public Long parseLiteral(Value<?> input, CoercedVariables variables, GraphQLContext context, Locale locale) {
+                    try {
+                        if (input instanceof IntValue intValue) {
+                            return intValue.getValue().longValueExact();
+                        }
+                        if (input instanceof StringValue stringValue) {
+                            return Long.parseLong(stringValue.getValue());
+                        }
+                    } catch (ArithmeticException | NumberFormatException e) {
+                        throw new CoercingParseLiteralException("Not a Long: " + input);
+                    }
+                    throw new CoercingParseLiteralException("Expected an integer literal but was " + input);
+                }
+            })
+            .build();
+
+    @Bean
+    public RuntimeWiringConfigurer scalarWiringConfigurer() {
+        return wiring -> wiring.scalar(LONG);
+    }
+}
@@ -0,0 +1,36 @@
+package edu.manipal.cse.lectureservicereactive.configs;
+
+import edu.manipal.cse.lectureservicereactive.utils.DeliveryPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Per-subscriber delivery settings for GraphQL subscriptions
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "lecture.live.subscriptions.delivery")
+public class SubscriptionDeliveryConfig {
+
+    /** Events buffered per subscriber of an event stream before the oldest are dropped */
+    private int bufferSize = 256;
+
+    /** How long a subscriber may receive nothing while its buffer overflows before it is disconnected */
+    private Duration slowConsumerTimeout = Duration.ofSeconds(30);
+
+    /** Streams carrying state rather than events: subscribers only ever get the latest value */
+    private Set<String> latestValueStreams = new HashSet<>(Set.of(
+            "lectureUpdated", "studentResponseCountUpdated", "lectureQuestionStatusChanged", "answerDistributionUpdated"));
+
+    public DeliveryPolicy policyFor(String stream, MeterRegistry meterRegistry) {
+        return latestValueStreams.contains(stream)
+                ? DeliveryPolicy.latest(stream, slowConsumerTimeout, meterRegistry)
+                : DeliveryPolicy.buffered(stream, bufferSize, slowConsumerTimeout, meterRegistry);
+    }
+}
@@ -1,33 +1,32 @@
 package edu.manipal.cse.lectureservicereactive.controllers;
 
-import edu.manipal.cse.lectureservicereactive.dto.inputs.PaginationInput;
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lecture.*;
-import edu.manipal.cse.lectureservicereactive.dto.outputs.LecturePage;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.LectureConnection;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.CreateLecturePayload;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.PayloadHelper;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.UpdateLecturePayload;
+import edu.manipal.cse.lectureservicereactive.interceptors.UserContextInterceptor;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.services.LectureQuestionService;
 import edu.manipal.cse.lectureservicereactive.services.LectureService;
-import graphql.kickstart.servlet.context.GraphQLServletContext;
-import graphql.schema.DataFetchingEnvironment;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Controller
@@ -35,6 +34,9 @@ import java.util.UUID;
 @Slf4j
 public class LectureController {
 
+    private static final String ROLE_FACULTY = "ROLE_FACULTY";
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final LectureService lectureService;
     private final LectureQuestionService lectureQuestionService;
 
@@ -45,43 +47,39 @@ public class LectureController {
     }
 
     @QueryMapping
-    public Mono<LecturePage> getLectures(@Argument LectureFilterInput filter, @Argument PaginationInput pagination, DataFetchingEnvironment environment) {
-        log.info("GraphQL query: getLectures(filter: {}, pagination: {})", filter, pagination);
+    public Mono<LectureConnection> getLectures(@Argument LectureFilterInput filter, @Argument Integer first, @Argument String after) {
+        log.info("GraphQL query: getLectures(filter: {}, first: {}, after: {})", filter, first, after);
+        return lectureService.findLectureConnection(filter, pageSize(first), after);
+    }
 
-        GraphQLServletContext context = environment.getContext();
-        HttpServletRequest servletRequest = (HttpServletRequest) context.getHttpServletRequest();
-        String userId = null;
-//        HttpServletRequest servletRequest = null;
-        if (servletRequest != null) {
-            userId = servletRequest.getHeader("X-User-Id");
-            log.debug("User ID from request header: {}", userId);
-        } else {
-            log.warn("No HTTP request found in GraphQL context");
-            // Handle missing user ID case - perhaps return an error or use a default
+    @QueryMapping
+    public Mono<LectureConnection> getMyLectures(@Argument LectureFilterInput filter, @Argument Integer first, @Argument String after,
+                                                 @ContextValue(name = UserContextInterceptor.USER_ID, required = false) String userId,
+                                                 @ContextValue(name = UserContextInterceptor.USER_ROLE, required = false) String role) {
+        log.info("GraphQL query: getMyLectures(userId: {}, filter: {}, first: {}, after: {})", userId, filter, first, after);
+        if (userId == null) {
+            return Mono.error(new IllegalArgumentException("Missing user context"));
         }
+        // Lectures are owned by faculty; students are linked to them only through master data
+        if (!ROLE_FACULTY.equals(role)) {
+            return Mono.error(new IllegalArgumentException("getMyLectures is only available to faculty"));
+        }
+        UUID facultyId = UUID.fromString(userId);
+        LectureFilterInput ownFilter = filter == null
+                ? new LectureFilterInput(facultyId, null, null)
+                : new LectureFilterInput(facultyId, filter.chapterId(), filter.status());
+        return lectureService.findLectureConnection(ownFilter, pageSize(first), after);
+    }
 
-        final PaginationInput effectivePagination = (pagination == null)
-                ? new PaginationInput() // Uses default constructor (page=0, size=10)
-                : pagination;
-
-        Pageable pageable = PageRequest.of(effectivePagination.page(), effectivePagination.size());
-
-        Mono<List<Lecture>> pageContentMono = lectureService.findLectures(filter, pageable)
-                .collectList();
-
-        Mono<Long> totalCountMono = lectureService.countLectures(filter);
-
-        return Mono.zip(pageContentMono, totalCountMono)
-                .map(tuple -> {
-                    List<Lecture> content = tuple.getT1();
-                    long totalElements = tuple.getT2();
-                    int pageSize = pageable.getPageSize();
-                    int totalPages = pageSize > 0 ? (int) Math.ceil((double) totalElements / pageSize) : 0;
-
-                    return new LecturePage(content, totalPages, totalElements, pageable.getPageNumber(), pageSize);
-                });
+    // An explicit null for first means the schema default
+    private static int pageSize(Integer first) {
+        return first != null ? first : DEFAULT_PAGE_SIZE;
     }
 
+    @SchemaMapping(typeName = "LectureConnection", field = "totalCount")
+    public Mono<Long> getTotalCount(LectureConnection connection) {
+        return lectureService.estimateLectureCount(connection.filter());
+    }
 
     @MutationMapping
     public Mono<CreateLecturePayload> createLecture(@Argument @Valid CreateLectureInput input) {
@@ -123,9 +121,20 @@ public class LectureController {
                 );
     }
 
-    @SchemaMapping(typeName = "Lecture", field = "lectureQuestions")
-    public Flux<LectureQuestion> getLectureQuestions(Lecture lecture) {
-        log.debug("Resolving lectureQuestions for lectureId: {}", lecture.getLectureId());
-        return lectureQuestionService.findQuestionsForLecture(lecture.getLectureId());
+    @BatchMapping(typeName = "Lecture", field = "lectureQuestions")
+    public Mono<Map<Lecture, List<LectureQuestion>>> getLectureQuestions(List<Lecture> lectures) {
+        log.debug("Batch resolving lectureQuestions for {} lectures", lectures.size());
+        List<UUID> lectureIds = lectures.stream()
+                .map(Lecture::getLectureId)
+                .distinct()
+                .toList();
+        return lectureQuestionService.findQuestionsForLectures(lectureIds)
+                .collectMultimap(LectureQuestion::getLectureId)
+                .map(questionsByLectureId -> {
+                    Map<Lecture, List<LectureQuestion>> result = new HashMap<>();
+                    lectures.forEach(lecture -> result.put(lecture,
+                            new ArrayList<>(questionsByLectureId.getOrDefault(lecture.getLectureId(), List.of()))));
+                    return result;
+                });
     }
-}
\ No newline at end of file
+}
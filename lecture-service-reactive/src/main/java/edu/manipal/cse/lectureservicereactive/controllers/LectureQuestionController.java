@@ -2,6 +2,7 @@ package edu.manipal.cse.lectureservicereactive.controllers;
 
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lectureQuestion.LectureQuestionFilterInput;
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lectureQuestion.UpdateLectureQuestionStatusInput;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.QuestionContent;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.PayloadHelper;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.UpdateLectureQuestionPayload;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
@@ -9,6 +10,7 @@ import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureRepository;
 import edu.manipal.cse.lectureservicereactive.services.LectureQuestionService;
 import edu.manipal.cse.lectureservicereactive.services.LectureService;
+import edu.manipal.cse.lectureservicereactive.services.QuestionContentService;
 import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +21,10 @@ import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -32,6 +37,7 @@ public class LectureQuestionController {
     private final LectureQuestionService lectureQuestionService;
     private final LectureService lectureService;
     private final StudentResponseService studentResponseService;
+    private final QuestionContentService questionContentService;
     private final LectureRepository lectureRepository;
 
     @QueryMapping
@@ -62,6 +68,16 @@ public class LectureQuestionController {
         return Mono.fromFuture(dataLoader.load(lectureQuestion.getLectureId()));
     }
 
+    @SchemaMapping(typeName = "LectureQuestion", field = "remainingSeconds")
+    public Integer getRemainingSeconds(LectureQuestion lectureQuestion) {
+        if (lectureQuestion.getStatus() != LectureQuestion.LectureQuestionStatus.ACTIVE || lectureQuestion.getClosesAt() == null) {
+            return null;
+        }
+        long remainingMillis = Duration.between(Instant.now(), lectureQuestion.getClosesAt()).toMillis();
+        // Rounded up, so a question still open never reports 0
+        return (int) Math.max(0, (remainingMillis + 999) / 1000);
+    }
+
     @BatchMapping
     public Mono<Map<UUID, Lecture>> loadLecturesForQuestions(List<UUID> lectureIds) {
         log.debug("Batch loading Lectures for IDs: {}", lectureIds);
@@ -69,9 +85,37 @@ public class LectureQuestionController {
                 .collectMap(Lecture::getLectureId);
     }
 
-    @SchemaMapping(typeName = "LectureQuestion", field = "studentResponseCount")
-    public Mono<Integer> getStudentResponseCount(LectureQuestion lectureQuestion) {
-        log.debug("Resolving studentResponseCount for lectureQuestionId: {}", lectureQuestion.getLectureQuestionId());
-        return studentResponseService.countResponsesForLectureQuestion(lectureQuestion.getLectureQuestionId());
+    /**
+     * Content of every question in the selection, fetched with one question-service call for the cache misses.
+     */
+    @BatchMapping(typeName = "LectureQuestion", field = "question")
+    public Mono<Map<LectureQuestion, QuestionContent>> getQuestionContents(List<LectureQuestion> lectureQuestions) {
+        log.debug("Batch resolving question content for {} lecture questions", lectureQuestions.size());
+        return questionContentService.findQuestions(lectureQuestions)
+                .map(contents -> {
+                    Map<LectureQuestion, QuestionContent> result = new HashMap<>();
+                    lectureQuestions.forEach(lq -> {
+                        QuestionContent content = contents.get(lq.getQuestionId());
+                        if (content != null) {
+                            result.put(lq, content);
+                        }
+                    });
+                    return result;
+                });
+    }
+
+    @BatchMapping(typeName = "LectureQuestion", field = "studentResponseCount")
+    public Mono<Map<LectureQuestion, Integer>> getStudentResponseCounts(List<LectureQuestion> lectureQuestions) {
+        log.debug("Batch resolving studentResponseCount for {} lecture questions", lectureQuestions.size());
+        List<UUID> lectureQuestionIds = lectureQuestions.stream()
+                .map(LectureQuestion::getLectureQuestionId)
+                .distinct()
+                .toList();
+        return studentResponseService.countResponsesForLectureQuestions(lectureQuestionIds)
+                .map(counts -> {
+                    Map<LectureQuestion, Integer> result = new HashMap<>();
+                    lectureQuestions.forEach(lq -> result.put(lq, counts.getOrDefault(lq.getLectureQuestionId(), 0)));
+                    return result;
+                });
     }
 }
@@ -1,11 +1,16 @@
 package edu.manipal.cse.lectureservicereactive.controllers;
 
 import edu.manipal.cse.lectureservicereactive.dto.inputs.studentResponse.CreateStudentResponseInput;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.StudentResponseConnection;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.CreateStudentResponsePayload;
 import edu.manipal.cse.lectureservicereactive.dto.payloads.PayloadHelper;
+import edu.manipal.cse.lectureservicereactive.dto.payloads.SubmitResponsesPayload;
+import edu.manipal.cse.lectureservicereactive.interceptors.UserContextInterceptor;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerDistributionService;
 import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -26,7 +31,12 @@ import java.util.UUID;
 @Slf4j
 public class StudentResponseController {
 
+    private static final String ROLE_STUDENT = "ROLE_STUDENT";
+    private static final String ROLE_FACULTY = "ROLE_FACULTY";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
     private final StudentResponseService studentResponseService;
+    private final AnswerDistributionService answerDistributionService;
     private final LectureQuestionRepository lectureQuestionRepository;
 
     @QueryMapping
@@ -35,7 +45,41 @@ public class StudentResponseController {
         return studentResponseService.findResponsesForLectureQuestion(lectureQuestionId);
     }
 
-    // TODO: @QueryMapping getResponsesByStudent - requires security context
+    @QueryMapping
+    public Mono<StudentResponseConnection> getLectureQuestionResponses(@Argument UUID lectureQuestionId, @Argument Integer first, @Argument String after) {
+        log.info("GraphQL query: getLectureQuestionResponses(id: {}, first: {}, after: {})", lectureQuestionId, first, after);
+        return studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, pageSize(first), after);
+    }
+
+    @QueryMapping
+    public Mono<AnswerDistribution> getAnswerDistribution(@Argument UUID lectureQuestionId,
+                                                         @ContextValue(name = UserContextInterceptor.USER_ROLE, required = false) String role) {
+        log.info("GraphQL query: getAnswerDistribution(lectureQuestionId: {})", lectureQuestionId);
+        // Per-answer counts and correctCount would reveal the answer key while the question is open
+        if (!ROLE_FACULTY.equals(role)) {
+            return Mono.error(new IllegalArgumentException("getAnswerDistribution is only available to faculty"));
+        }
+        return answerDistributionService.getDistribution(lectureQuestionId);
+    }
+
+    @QueryMapping
+    public Mono<StudentResponseConnection> getMyResponses(@Argument Integer first, @Argument String after,
+                                                         @ContextValue(name = UserContextInterceptor.USER_ID, required = false) String userId,
+                                                         @ContextValue(name = UserContextInterceptor.USER_ROLE, required = false) String role) {
+        log.info("GraphQL query: getMyResponses(userId: {}, first: {}, after: {})", userId, first, after);
+        if (userId == null) {
+            return Mono.error(new IllegalArgumentException("Missing user context"));
+        }
+        if (!ROLE_STUDENT.equals(role)) {
+            return Mono.error(new IllegalArgumentException("getMyResponses is only available to students"));
+        }
+        return studentResponseService.findResponseConnectionByStudent(UUID.fromString(userId), pageSize(first), after);
+    }
+
+    // An explicit null for first means the schema default
+    private static int pageSize(Integer first) {
+        return first != null ? first : DEFAULT_PAGE_SIZE;
+    }
 
     @MutationMapping
     public Mono<CreateStudentResponsePayload> createStudentResponse(@Argument @Valid CreateStudentResponseInput input) {
@@ -53,6 +97,32 @@ public class StudentResponseController {
                 );
     }
 
+    @MutationMapping
+    public Mono<SubmitResponsesPayload> submitResponses(@Argument List<@Valid CreateStudentResponseInput> input,
+                                                        @ContextValue(name = UserContextInterceptor.USER_ID, required = false) String userId,
+                                                        @ContextValue(name = UserContextInterceptor.USER_ROLE, required = false) String role) {
+        log.info("GraphQL mutation: submitResponses(userId: {}, count: {})", userId, input.size());
+        Mono<List<StudentResponseService.Submission>> submitted;
+        if (userId == null) {
+            submitted = Mono.error(new IllegalArgumentException(StudentResponseService.MISSING_USER_CONTEXT));
+        } else if (!ROLE_STUDENT.equals(role)) {
+            submitted = Mono.error(new IllegalArgumentException(StudentResponseService.SUBMISSION_STUDENTS_ONLY));
+        } else {
+            submitted = studentResponseService.submitStudentResponses(input, UUID.fromString(userId));
+        }
+        return submitted
+                .map(results -> new SubmitResponsesPayload(
+                        results.stream()
+                                .map(result -> result.error() == null
+                                        ? new CreateStudentResponsePayload(result.response(), Collections.emptyList())
+                                        : new CreateStudentResponsePayload(null, PayloadHelper.mapSubmissionErrorToUserErrors(result.error())))
+                                .toList(),
+                        Collections.emptyList()))
+                .onErrorResume(Exception.class, e ->
+                        Mono.just(new SubmitResponsesPayload(Collections.emptyList(), PayloadHelper.mapSubmissionErrorToUserErrors(e)))
+                );
+    }
+
     @SchemaMapping(typeName = "StudentResponse", field = "lectureQuestion")
     public Mono<LectureQuestion> getLectureQuestionForResponse(StudentResponse response, DataLoader<UUID, LectureQuestion> dataLoader) {
         log.debug("Resolving lectureQuestion for responseId: {} using DataLoader", response.getResponseId());
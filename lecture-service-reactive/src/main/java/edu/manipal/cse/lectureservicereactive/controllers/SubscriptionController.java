@@ -1,17 +1,34 @@
 package edu.manipal.cse.lectureservicereactive.controllers;
 
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureCreatedEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureDeletedEvent;
 import edu.manipal.cse.lectureservicereactive.dto.events.LectureEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureUpdatedEvent;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
 import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
+import edu.manipal.cse.lectureservicereactive.interceptors.UserContextInterceptor;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.services.AnswerDistributionService;
+import edu.manipal.cse.lectureservicereactive.services.LectureQuestionService;
+import edu.manipal.cse.lectureservicereactive.services.LectureService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
+import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
 import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
+import graphql.GraphQLContext;
+import graphql.execution.DataFetcherResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
+import org.springframework.graphql.data.method.annotation.LocalContextValue;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -20,35 +37,146 @@ import java.util.UUID;
 @Slf4j
 public class SubscriptionController {
 
+    private static final String ROLE_FACULTY = "ROLE_FACULTY";
+
     private final SubscriptionService subscriptionService;
+    private final ResponseCounterService responseCounterService;
+    private final AnswerDistributionService answerDistributionService;
+    private final LectureService lectureService;
+    private final LectureQuestionService lectureQuestionService;
+    private final StudentResponseService studentResponseService;
+
+    @SubscriptionMapping
+    public Flux<DataFetcherResult<LectureEvent>> lectureActivity(@Argument UUID lectureId, @Argument Long afterOffset) {
+        log.info("GraphQL subscription request: lectureActivity(lectureId: {}, afterOffset: {})", lectureId, afterOffset);
+        return subscriptionService.lectureActivityStream(lectureId, afterOffset)
+                .map(SubscriptionController::withSequence);
+    }
 
     @SubscriptionMapping
-    public Flux<LectureEvent> lectureActivity() {
-        log.info("GraphQL subscription request: lectureActivity");
-        return subscriptionService.lectureActivityStream();
+    public Flux<DataFetcherResult<Lecture>> lectureUpdated(@Argument UUID lectureId,
+                                                           @Argument Boolean snapshot,
+                                                           @Argument Long afterSequence) {
+        log.info("GraphQL subscription request: lectureUpdated(lectureId: {}, snapshot: {}, afterSequence: {})", lectureId, snapshot, afterSequence);
+        return subscriptionService.lectureUpdateStream(lectureId, Boolean.TRUE.equals(snapshot), afterSequence,
+                        Mono.defer(() -> lectureService.findLectureById(lectureId)))
+                .map(SubscriptionController::withSequence);
     }
 
     @SubscriptionMapping
-    public Flux<Lecture> lectureUpdated(@Argument UUID lectureId) {
-        log.info("GraphQL subscription request: lectureUpdated(lectureId: {})", lectureId);
-        return subscriptionService.lectureUpdateStream(lectureId);
+    public Flux<DataFetcherResult<ResponseCount>> studentResponseCountUpdated(@Argument UUID lectureQuestionId,
+                                                                              @Argument Boolean snapshot,
+                                                                              @Argument Long afterSequence) {
+        log.info("GraphQL subscription request: studentResponseCountUpdated(lectureQuestionId: {}, snapshot: {}, afterSequence: {})",
+                lectureQuestionId, snapshot, afterSequence);
+        // The question may have been activated on another instance; count it here too
+        Mono<DataFetcherResult<ResponseCount>> counterActivation = responseCounterService.activateIfLive(lectureQuestionId)
+                .onErrorResume(e -> {
+                    log.warn("Could not activate response counter for lecture question {}: {}", lectureQuestionId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.empty());
+        Mono<ResponseCount> currentCount = Mono.defer(() -> studentResponseService.countResponsesForLectureQuestion(lectureQuestionId))
+                .map(count -> new ResponseCount(lectureQuestionId, count));
+        return subscriptionService.responseCountStream(lectureQuestionId, Boolean.TRUE.equals(snapshot), afterSequence, currentCount)
+                .map(SubscriptionController::withSequence)
+                .mergeWith(counterActivation);
     }
 
     @SubscriptionMapping
-    public Flux<ResponseCount> studentResponseCountUpdated(@Argument UUID lectureQuestionId) {
-        log.info("GraphQL subscription request: studentResponseCountUpdated(lectureQuestionId: {})", lectureQuestionId);
-        return subscriptionService.responseCountStream(lectureQuestionId);
+    public Flux<DataFetcherResult<LectureQuestion>> lectureQuestionStatusChanged(@Argument UUID lectureQuestionId,
+                                                                                 @Argument Boolean snapshot,
+                                                                                 @Argument Long afterSequence) {
+        log.info("GraphQL subscription request: lectureQuestionStatusChanged(lectureQuestionId: {}, snapshot: {}, afterSequence: {})",
+                lectureQuestionId, snapshot, afterSequence);
+        return subscriptionService.lectureQuestionUpdateStream(lectureQuestionId, Boolean.TRUE.equals(snapshot), afterSequence,
+                        Mono.defer(() -> lectureQuestionService.findLectureQuestionById(lectureQuestionId)))
+                .map(SubscriptionController::withSequence);
     }
 
     @SubscriptionMapping
-    public Flux<LectureQuestion> lectureQuestionStatusChanged(@Argument UUID lectureQuestionId) {
-        log.info("GraphQL subscription request: lectureQuestionStatusChanged(lectureQuestionId: {})", lectureQuestionId);
-        return subscriptionService.lectureQuestionUpdateStream(lectureQuestionId);
+    public Flux<DataFetcherResult<StudentResponse>> studentResponded(@Argument UUID lectureQuestionId, @Argument Long afterOffset) {
+        log.info("GraphQL subscription request: studentResponded(lectureQuestionId: {}, afterOffset: {})", lectureQuestionId, afterOffset);
+        if (afterOffset == null) {
+            return subscriptionService.studentResponseStream(lectureQuestionId, null, null)
+                    .map(SubscriptionController::withSequence);
+        }
+        // The journal is kept per lecture
+        return lectureQuestionService.findLectureQuestionById(lectureQuestionId)
+                .flatMapMany(lq -> subscriptionService.studentResponseStream(lectureQuestionId, lq.getLectureId(), afterOffset))
+                .map(SubscriptionController::withSequence);
     }
 
     @SubscriptionMapping
-    public Flux<StudentResponse> studentResponded(@Argument UUID lectureQuestionId) {
-        log.info("GraphQL subscription request: studentResponded(lectureQuestionId: {})", lectureQuestionId);
-        return subscriptionService.studentResponseStream(lectureQuestionId);
+    public Flux<AnswerDistribution> answerDistributionUpdated(@Argument UUID lectureQuestionId,
+                                                              @ContextValue(name = UserContextInterceptor.USER_ROLE, required = false) String role) {
+        log.info("GraphQL subscription request: answerDistributionUpdated(lectureQuestionId: {})", lectureQuestionId);
+        // Per-answer counts and correctCount would reveal the answer key while the question is open
+        if (!ROLE_FACULTY.equals(role)) {
+            return Flux.error(new IllegalArgumentException("answerDistributionUpdated is only available to faculty"));
+        }
+        Mono<AnswerDistribution> tallyActivation = answerDistributionService.activateIfLive(lectureQuestionId)
+                .onErrorResume(e -> {
+                    log.warn("Could not activate answer distribution for lecture question {}: {}", lectureQuestionId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.empty());
+        return subscriptionService.answerDistributionStream(lectureQuestionId)
+                .mergeWith(tallyActivation);
+    }
+
+    @SchemaMapping(typeName = "Lecture", field = "sequence")
+    public Long lectureSequence(Lecture lecture, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(lecture, sequencedEvent);
+    }
+
+    @SchemaMapping(typeName = "LectureQuestion", field = "sequence")
+    public Long lectureQuestionSequence(LectureQuestion lectureQuestion, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(lectureQuestion, sequencedEvent);
+    }
+
+    @SchemaMapping(typeName = "ResponseCount", field = "sequence")
+    public Long responseCountSequence(ResponseCount responseCount, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(responseCount, sequencedEvent);
+    }
+
+    @SchemaMapping(typeName = "StudentResponse", field = "offset")
+    public Long studentResponseOffset(StudentResponse studentResponse, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(studentResponse, sequencedEvent);
     }
+
+    @SchemaMapping(typeName = "LectureCreatedEvent", field = "offset")
+    public Long lectureCreatedOffset(LectureCreatedEvent event, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(event, sequencedEvent);
+    }
+
+    @SchemaMapping(typeName = "LectureUpdatedEvent", field = "offset")
+    public Long lectureUpdatedOffset(LectureUpdatedEvent event, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(event, sequencedEvent);
+    }
+
+    @SchemaMapping(typeName = "LectureDeletedEvent", field = "offset")
+    public Long lectureDeletedOffset(LectureDeletedEvent event, @LocalContextValue(required = false) SequencedEvent sequencedEvent) {
+        return sequenceOf(event, sequencedEvent);
+    }
+
+    /**
+     * Carries the sequence (or journal offset) of a subscription event to its {@code sequence} field through the local context.
+     * An unsequenced event has none, so the client re-fetches instead of resuming after it.
+     */
+    private static <T> DataFetcherResult<T> withSequence(Sequenced<T> element) {
+        return DataFetcherResult.<T>newResult()
+                .data(element.value())
+                .localContext(GraphQLContext.newContext()
+                        .of("sequencedEvent", new SequencedEvent(element.value(), element.isSequenced() ? element.sequence() : null))
+                        .build())
+                .build();
+    }
+
+    // The local context is inherited by nested objects; only the event itself has a sequence
+    private static Long sequenceOf(Object source, SequencedEvent sequencedEvent) {
+        return sequencedEvent != null && sequencedEvent.value() == source ? sequencedEvent.sequence() : null;
+    }
+
+    private record SequencedEvent(Object value, Long sequence) {}
 }
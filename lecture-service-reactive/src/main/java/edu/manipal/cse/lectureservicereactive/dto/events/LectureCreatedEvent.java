@@ -2,4 +2,12 @@ package edu.manipal.cse.lectureservicereactive.dto.events;
 
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
 
-public record LectureCreatedEvent(Lecture lecture) implements LectureEvent {}
+import java.util.UUID;
+
+public record LectureCreatedEvent(Lecture lecture) implements LectureEvent {
+
+    @Override
+    public UUID lectureId() {
+        return lecture.getLectureId();
+    }
+}
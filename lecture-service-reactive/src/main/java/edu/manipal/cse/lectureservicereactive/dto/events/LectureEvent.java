@@ -1,3 +1,8 @@
 package edu.manipal.cse.lectureservicereactive.dto.events;
 
-public interface LectureEvent {}
+import java.util.UUID;
+
+public interface LectureEvent {
+
+    UUID lectureId();
+}
@@ -1,11 +1,15 @@
 package edu.manipal.cse.lectureservicereactive.dto.inputs.lectureQuestion;
 
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 
 import java.util.UUID;
 
 public record UpdateLectureQuestionStatusInput(
         @NotNull UUID lectureQuestionId,
-        @NotNull LectureQuestion.LectureQuestionStatus status
+        @NotNull LectureQuestion.LectureQuestionStatus status,
+        // Only when activating: closes the question automatically after this many seconds
+        @Positive @Max(86400) Integer durationSeconds
 ) {}
\ No newline at end of file
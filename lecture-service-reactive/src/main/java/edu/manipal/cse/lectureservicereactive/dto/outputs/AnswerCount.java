@@ -0,0 +1,8 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import java.util.UUID;
+
+public record AnswerCount(
+        UUID answerId,
+        int count
+) {}
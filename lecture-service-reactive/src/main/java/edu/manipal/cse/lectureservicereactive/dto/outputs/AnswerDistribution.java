@@ -0,0 +1,11 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import java.util.List;
+import java.util.UUID;
+
+public record AnswerDistribution(
+        UUID lectureQuestionId,
+        List<AnswerCount> answers,
+        int total,
+        int correctCount
+) {}
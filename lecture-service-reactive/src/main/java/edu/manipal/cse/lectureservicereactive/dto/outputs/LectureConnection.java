@@ -0,0 +1,15 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import edu.manipal.cse.lectureservicereactive.dto.inputs.lecture.LectureFilterInput;
+
+import java.util.List;
+
+/**
+ * Relay connection over lectures. {@code filter} is not exposed in the schema; it is kept so that
+ * {@code totalCount} can be resolved lazily, only when a client selects it.
+ */
+public record LectureConnection(
+        List<LectureEdge> edges,
+        PageInfo pageInfo,
+        LectureFilterInput filter
+) {}
@@ -0,0 +1,8 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+
+public record LectureEdge(
+        String cursor,
+        Lecture node
+) {}
@@ -0,0 +1,8 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+public record PageInfo(
+        boolean hasNextPage,
+        boolean hasPreviousPage,
+        String startCursor,
+        String endCursor
+) {}
@@ -0,0 +1,17 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import edu.manipal.cse.lectureservicereactive.dto.response.QuestionResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A question as shown to lecture participants: its answer options carry no correctness or explanation.
+ */
+public record QuestionContent(
+        UUID questionId,
+        String title,
+        String text,
+        QuestionResponse.QuestionType type,
+        List<AnswerOption> answers
+) {}
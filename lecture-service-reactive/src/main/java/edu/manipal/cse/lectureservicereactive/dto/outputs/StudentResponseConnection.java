@@ -0,0 +1,11 @@
+package edu.manipal.cse.lectureservicereactive.dto.outputs;
+
+import java.util.List;
+
+/**
+ * Relay connection over student responses, paged by keyset on {@code (created_at, response_id)}.
+ */
+public record StudentResponseConnection(
+        List<StudentResponseEdge> edges,
+        PageInfo pageInfo
+) {}
@@ -1,13 +1,25 @@
 package edu.manipal.cse.lectureservicereactive.dto.payloads;
 
+import edu.manipal.cse.lectureservicereactive.exceptions.DuplicateResourceException;
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
 import edu.manipal.cse.lectureservicereactive.exceptions.ResourceNotFoundException;
+import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
 import jakarta.validation.ConstraintViolationException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class PayloadHelper {
 
+    private static final String UNEXPECTED_ERROR = "Operation failed due to an unexpected error.";
+    private static final Set<String> SUBMISSION_MESSAGES = Set.of(
+            StudentResponseService.INVALID_SUBMISSION_SIZE,
+            StudentResponseService.NOT_ACCEPTING_RESPONSES,
+            StudentResponseService.ANSWER_NOT_VALIDATED,
+            StudentResponseService.MISSING_USER_CONTEXT,
+            StudentResponseService.SUBMISSION_STUDENTS_ONLY);
+
     public static List<UserError> mapExceptionToUserErrors(Throwable e) {
         if (e instanceof ResourceNotFoundException rnfe) {
             String field = rnfe.getExtensions() != null ? rnfe.getExtensions().getOrDefault("resourceId", "id").toString() : "id";
@@ -18,7 +30,22 @@ public class PayloadHelper {
                     .collect(Collectors.toList());
         }
         // TODO: Add specific mappings for your other custom exceptions
-        return List.of(new UserError("general", "Operation failed due to an unexpected error."));
+        return List.of(new UserError("general", UNEXPECTED_ERROR));
+    }
+
+    /**
+     * Like {@link #mapExceptionToUserErrors}, but also tells a student why a submitted response was
+     * rejected. Only the fixed submission messages are passed on; anything else, such as a failed
+     * downstream call, stays a generic error.
+     */
+    public static List<UserError> mapSubmissionErrorToUserErrors(Throwable e) {
+        if (e instanceof DuplicateResourceException) {
+            return List.of(new UserError("general", StudentResponseService.ALREADY_RESPONDED));
+        } else if ((e instanceof OperationFailedException || e instanceof IllegalArgumentException)
+                && SUBMISSION_MESSAGES.contains(e.getMessage())) {
+            return List.of(new UserError("general", e.getMessage()));
+        }
+        return mapExceptionToUserErrors(e);
     }
 
     public static List<UserError> emptyUserErrors() {
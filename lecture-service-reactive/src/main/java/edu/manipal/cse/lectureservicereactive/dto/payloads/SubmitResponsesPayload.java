@@ -0,0 +1,5 @@
+package edu.manipal.cse.lectureservicereactive.dto.payloads;
+
+import java.util.List;
+
+public record SubmitResponsesPayload(List<CreateStudentResponsePayload> results, List<UserError> userErrors) {}
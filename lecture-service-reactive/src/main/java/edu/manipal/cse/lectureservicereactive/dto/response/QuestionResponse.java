@@ -2,6 +2,7 @@ package edu.manipal.cse.lectureservicereactive.dto.response;
 
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import edu.manipal.cse.lectureservicereactive.dto.client.questions.AnswerResponse;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -26,6 +28,7 @@ public class QuestionResponse implements Serializable {
     private String title;
     private String text;
     private QuestionType questionType;
+    private List<AnswerResponse> answers;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
@@ -0,0 +1,202 @@
+package edu.manipal.cse.lectureservicereactive.interceptors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import edu.manipal.cse.lectureservicereactive.configs.SubscriptionDeliveryConfig;
+import edu.manipal.cse.lectureservicereactive.utils.DeliveryPolicy;
+import graphql.ExecutionResult;
+import graphql.GraphQLError;
+import graphql.language.Argument;
+import graphql.language.BooleanValue;
+import graphql.language.Field;
+import graphql.language.OperationDefinition;
+import graphql.language.VariableReference;
+import graphql.parser.Parser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one execution per distinct subscription (document, operation name and variables).
+ * <p>
+ * Without this, every subscriber resolves the selection set of each event on its own, including
+ * nested fields that hit the database. Here the first subscriber's execution is multicast to all
+ * subscribers with the same request, and each event's {@code data} is serialized to JSON once and
+ * embedded as a raw value, so every WebSocket session writes the same pre-rendered payload.
+ * <p>
+ * Each subscriber reads the shared execution through its own buffer, following the delivery policy
+ * of the subscribed field, so a slow client never stalls the execution for the others.
+ * <p>
+ * Executions that were asked for a {@code snapshot} replay their latest event to joining subscribers,
+ * who would otherwise never see the snapshot emitted when the execution started. Subscriptions
+ * resuming {@code afterOffset} are never shared: each one replays its own gap from the journal.
+ * <p>
+ * Executions are only shared between callers with the same role, and also the same user unless the
+ * subscribed field is listed as user-independent (resolved without reading the caller's user ID), so
+ * one caller's authorization outcome or user-specific data never reaches another.
+ */
+@Component
+@ConditionalOnProperty(prefix = "lecture.live.subscriptions", name = "shared-execution", havingValue = "true")
+@Slf4j
+public class SharedSubscriptionInterceptor implements WebGraphQlInterceptor {
+
+    private final ObjectMapper objectMapper;
+    private final SubscriptionDeliveryConfig deliveryConfig;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> userIndependentFields;
+    private final Map<SubscriptionKey, SharedExecution> executions = new ConcurrentHashMap<>();
+
+    public SharedSubscriptionInterceptor(ObjectMapper objectMapper,
+                                         SubscriptionDeliveryConfig deliveryConfig,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${lecture.live.subscriptions.user-independent-fields:}") Set<String> userIndependentFields) {
+        this.objectMapper = objectMapper;
+        this.deliveryConfig = deliveryConfig;
+        this.meterRegistry = meterRegistry;
+        this.userIndependentFields = userIndependentFields;
+        Gauge.builder("lecture.subscriptions.shared.executions", executions, Map::size)
+                .description("Distinct subscription executions shared between subscribers")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        return chain.next(request).map(response -> {
+            if (!(response.getData() instanceof Publisher<?> publisher)) {
+                return response;
+            }
+            // The publisher of a subscriber joining an existing execution is simply never subscribed
+            String role = request.getHeaders().getFirst(UserContextInterceptor.ROLE_HEADER);
+            SubscriptionKey key = new SubscriptionKey(request.getDocument(), request.getOperationName(), request.getVariables(), role, null);
+            // Joiners of a running user-independent execution skip the parse; resuming requests never have one
+            Optional<Field> field = null;
+            if (!executions.containsKey(key)) {
+                field = subscribedField(key);
+                if (field.filter(SharedSubscriptionInterceptor::resumes).isPresent()) {
+                    return response;
+                }
+                if (field.map(Field::getName).filter(userIndependentFields::contains).isEmpty()) {
+                    key = new SubscriptionKey(key.document(), key.operationName(), key.variables(), role,
+                            request.getHeaders().getFirst(UserContextInterceptor.USER_ID_HEADER));
+                }
+            }
+            // Only unparsed if the execution found above ended in the meantime
+            Optional<Field> parsed = field;
+            SharedExecution shared = executions.computeIfAbsent(key,
+                    k -> share(k, parsed != null ? parsed : subscribedField(k), (Publisher<ExecutionResult>) publisher));
+            return response.transform(builder -> builder.data(shared.policy().apply(shared.results())));
+        });
+    }
+
+    /**
+     * @param field root field of the subscription, as parsed from the key's document
+     */
+    private SharedExecution share(SubscriptionKey key, Optional<Field> field, Publisher<ExecutionResult> source) {
+        log.debug("Starting shared subscription execution for operation '{}'", key.operationName());
+        SharedExecution[] self = new SharedExecution[1];
+        Flux<ExecutionResult> results = Flux.from(source)
+                .map(this::serializeOnce)
+                .doFinally(signal -> {
+                    executions.remove(key, self[0]);
+                    log.debug("Shared subscription execution for operation '{}' ended ({})", key.operationName(), signal);
+                });
+        // Snapshot streams carry full state, so the latest event is the snapshot a joiner needs
+        results = field.filter(f -> requestsSnapshot(f, key.variables())).isPresent()
+                ? results.replay(1).refCount()
+                : results.publish().refCount();
+        String fieldName = field.map(Field::getName).orElse("unknown");
+        self[0] = new SharedExecution(results, deliveryConfig.policyFor(fieldName, meterRegistry));
+        return self[0];
+    }
+
+    /**
+     * Root field of the subscription operation, e.g. {@code studentResponded}.
+     */
+    private static Optional<Field> subscribedField(SubscriptionKey key) {
+        return Parser.parse(key.document()).getDefinitionsOfType(OperationDefinition.class).stream()
+                .filter(operation -> key.operationName() == null || key.operationName().equals(operation.getName()))
+                .findFirst()
+                .flatMap(operation -> operation.getSelectionSet().getSelectionsOfType(Field.class).stream().findFirst());
+    }
+
+    private static boolean resumes(Field field) {
+        return field.getArguments().stream().anyMatch(argument -> argument.getName().equals("afterOffset"));
+    }
+
+    private static boolean requestsSnapshot(Field field, Map<String, Object> variables) {
+        return field.getArguments().stream()
+                .filter(argument -> argument.getName().equals("snapshot"))
+                .map(Argument::getValue)
+                .anyMatch(value -> value instanceof BooleanValue literal ? literal.isValue()
+                        : value instanceof VariableReference variable && Boolean.TRUE.equals(variables.get(variable.getName())));
+    }
+
+    private ExecutionResult serializeOnce(ExecutionResult result) {
+        Map<String, Object> specification = new LinkedHashMap<>(result.toSpecification());
+        if (specification.get("data") != null) {
+            try {
+                specification.put("data", new RawValue(objectMapper.writeValueAsString(specification.get("data"))));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not pre-serialize subscription payload, falling back to per-session encoding: {}", e.getMessage());
+                return result;
+            }
+        }
+        return new SerializedExecutionResult(result, Collections.unmodifiableMap(specification));
+    }
+
+    private record SubscriptionKey(String document, String operationName, Map<String, Object> variables,
+                                   String role, String userId) {}
+
+    private record SharedExecution(Flux<ExecutionResult> results, DeliveryPolicy policy) {}
+
+    /**
+     * Execution result whose specification map (what the transports encode) is computed once per event.
+     */
+    private record SerializedExecutionResult(ExecutionResult delegate,
+                                             Map<String, Object> specification) implements ExecutionResult {
+
+        @Override
+        public List<GraphQLError> getErrors() {
+            return delegate.getErrors();
+        }
+
+        @Override
+        public <T> T getData() {
+            return delegate.getData();
+        }
+
+        @Override
+        public boolean isDataPresent() {
+            return delegate.isDataPresent();
+        }
+
+        @Override
+        public Map<Object, Object> getExtensions() {
+            return delegate.getExtensions();
+        }
+
+        @Override
+        public Map<String, Object> toSpecification() {
+            return specification;
+        }
+    }
+}
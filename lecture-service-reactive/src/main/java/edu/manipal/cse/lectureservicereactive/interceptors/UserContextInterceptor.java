@@ -0,0 +1,41 @@
+package edu.manipal.cse.lectureservicereactive.interceptors;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copies the user headers set by the gateway's JWT filter into the GraphQL context so controllers
+ * can read them with {@code @ContextValue}.
+ */
+@Component
+public class UserContextInterceptor implements WebGraphQlInterceptor {
+
+    public static final String USER_ID = "userId";
+    public static final String USER_ROLE = "userRole";
+
+    static final String USER_ID_HEADER = "X-User-Id";
+    static final String ROLE_HEADER = "X-User-Role";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String userId = request.getHeaders().getFirst(USER_ID_HEADER);
+        String role = request.getHeaders().getFirst(ROLE_HEADER);
+        if (userId != null || role != null) {
+            Map<String, Object> values = new HashMap<>();
+            if (userId != null) {
+                values.put(USER_ID, userId);
+            }
+            if (role != null) {
+                values.put(USER_ROLE, role);
+            }
+            request.configureExecutionInput((input, builder) -> builder.graphQLContext(values).build());
+        }
+        return chain.next(request);
+    }
+}
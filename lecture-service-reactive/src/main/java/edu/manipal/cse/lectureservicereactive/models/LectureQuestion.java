@@ -7,6 +7,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -29,6 +30,10 @@ public class LectureQuestion {
     @Column("status")
     private LectureQuestionStatus status = LectureQuestionStatus.PENDING;
 
+    // Deadline of a timed activation, null while the question is closed manually; an instant, as closes_at is TIMESTAMPTZ
+    @Column("closes_at")
+    private Instant closesAt;
+
     @CreatedDate
     @Column("created_at")
     private LocalDateTime createdAt;
@@ -1,10 +1,14 @@
 package edu.manipal.cse.lectureservicereactive.repositories;
 
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerCount;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface StudentResponseRepository extends R2dbcRepository<StudentResponse, UUID> {
@@ -14,5 +18,22 @@ public interface StudentResponseRepository extends R2dbcRepository<StudentRespon
 
      Mono<Boolean> existsByStudentIdAndLectureQuestionId(UUID studentId, UUID lectureQuestionId);
 
+     Mono<Boolean> existsByResponseIdAndLectureQuestionId(UUID responseId, UUID lectureQuestionId);
+
+     Mono<Boolean> existsByResponseIdAndStudentId(UUID responseId, UUID studentId);
+
+     Flux<StudentResponse> findByStudentIdAndLectureQuestionIdIn(UUID studentId, Collection<UUID> lectureQuestionIds);
+
      Mono<Long> countByLectureQuestionId(UUID lectureQuestionId);
+
+     @Query("SELECT response_id FROM student_responses WHERE lecture_question_id = :lectureQuestionId")
+     Flux<UUID> findResponseIdsByLectureQuestionId(UUID lectureQuestionId);
+
+     @Query("SELECT lecture_question_id, CAST(COUNT(*) AS INTEGER) AS count FROM student_responses " +
+             "WHERE lecture_question_id IN (:lectureQuestionIds) GROUP BY lecture_question_id")
+     Flux<ResponseCount> countGroupedByLectureQuestionIdIn(Collection<UUID> lectureQuestionIds);
+
+     @Query("SELECT answer_id, CAST(COUNT(*) AS INTEGER) AS count FROM student_responses " +
+             "WHERE lecture_question_id = :lectureQuestionId GROUP BY answer_id")
+     Flux<AnswerCount> countGroupedByAnswerId(UUID lectureQuestionId);
 }
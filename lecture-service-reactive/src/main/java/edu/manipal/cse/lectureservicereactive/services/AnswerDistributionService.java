@@ -0,0 +1,33 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Live per-answer tallies of lecture questions. Like response counters, tallies follow the
+ * {@code studentResponded} stream and publish throttled snapshots to local subscribers.
+ */
+public interface AnswerDistributionService {
+
+    /**
+     * Starts tallying a lecture question, seeding the tally once from the database.
+     */
+    Mono<Void> activate(UUID lectureQuestionId);
+
+    /**
+     * Activates the tally if the lecture question is currently {@code ACTIVE}.
+     */
+    Mono<Void> activateIfLive(UUID lectureQuestionId);
+
+    /**
+     * Stops tallying a lecture question, publishing any pending snapshot first.
+     */
+    void deactivate(UUID lectureQuestionId);
+
+    /**
+     * Current distribution: the live tally when tracked, otherwise computed from the database.
+     */
+    Mono<AnswerDistribution> getDistribution(UUID lectureQuestionId);
+}
@@ -0,0 +1,53 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Local cache of the valid answers (and their correctness) per question, used to validate
+ * submissions during a live lecture without calling question-service. The cache is bounded, and a
+ * key stays cached while any live lecture using its question holds it. Questions without answers
+ * are never cached, so a transient miss is retried on the next lookup.
+ */
+public interface AnswerKeyService {
+
+    /**
+     * Loads the answer keys of every question attached to the lecture and holds them for it.
+     */
+    Mono<Void> preloadForLecture(UUID lectureId);
+
+    /**
+     * Loads the answer key of a single question if it is not cached yet.
+     */
+    Mono<AnswerKey> preloadForQuestion(UUID questionId);
+
+    /**
+     * Checks that the answer belongs to the question, hitting question-service only on a cache miss.
+     * Without a usable answer key, falls back to checking that the answer exists.
+     */
+    Mono<Boolean> isValidAnswer(UUID questionId, UUID answerId);
+
+    Optional<AnswerKey> getCached(UUID questionId);
+
+    /**
+     * Releases the lecture's answer keys, dropping those no other live lecture holds.
+     */
+    Mono<Void> evictForLecture(UUID lectureId);
+
+    /**
+     * Answer IDs of a question mapped to whether the answer is correct.
+     */
+    record AnswerKey(UUID questionId, Map<UUID, Boolean> answers) {
+
+        public boolean contains(UUID answerId) {
+            return answers.containsKey(answerId);
+        }
+
+        public boolean isCorrect(UUID answerId) {
+            return Boolean.TRUE.equals(answers.get(answerId));
+        }
+    }
+}
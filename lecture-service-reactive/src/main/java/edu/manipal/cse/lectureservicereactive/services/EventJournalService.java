@@ -0,0 +1,32 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import edu.manipal.cse.lectureservicereactive.transport.LiveEvent;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+/**
+ * Per-lecture journal of the subscription events delivered to this instance, so a client that lost
+ * its connection can resume after the last offset it saw and receive only what it missed.
+ * <p>
+ * The events of {@code IN_PROGRESS} lectures are kept in a bounded in-memory ring per lecture. When
+ * a lecture ends on this instance, its ring is written to the {@code lecture_event_journal} table
+ * and dropped from memory. Offsets are the ones the {@link edu.manipal.cse.lectureservicereactive.transport.EventTransport}
+ * assigned, so every instance journals an event under the same offset.
+ */
+public interface EventJournalService {
+
+    /**
+     * Journals a delivered event if it belongs to a live lecture.
+     */
+    void append(LiveEvent event);
+
+    /**
+     * Journaled events of a lecture after an offset, oldest first. Fails with
+     * {@link edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException} if some of
+     * them are no longer retained, or the offset is not one the journal can answer for; the client
+     * then has to re-fetch its state instead.
+     */
+    Flux<Sequenced<LiveEvent>> replay(UUID lectureId, long afterOffset);
+}
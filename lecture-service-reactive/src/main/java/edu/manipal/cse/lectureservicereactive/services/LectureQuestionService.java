@@ -6,6 +6,7 @@ import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface LectureQuestionService {
@@ -14,5 +15,7 @@ public interface LectureQuestionService {
 
     Flux<LectureQuestion> findQuestionsForLecture(UUID lectureId);
 
+    Flux<LectureQuestion> findQuestionsForLectures(Collection<UUID> lectureIds);
+
     Mono<LectureQuestion> updateStatus(UpdateLectureQuestionStatusInput input);
 }
\ No newline at end of file
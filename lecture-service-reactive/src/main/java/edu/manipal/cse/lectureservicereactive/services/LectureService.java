@@ -2,8 +2,8 @@ package edu.manipal.cse.lectureservicereactive.services;
 
 
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lecture.*;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.LectureConnection;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
-import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -25,5 +25,17 @@ public interface LectureService {
 
     Mono<Long> countLectures(LectureFilterInput filter);
 
-    Flux<Lecture> findLectures(LectureFilterInput filter, Pageable pageable);
-}
\ No newline at end of file
+    /**
+     * Same as {@link #countLectures} but served from a short-lived cache, for UI page counters.
+     */
+    Mono<Long> estimateLectureCount(LectureFilterInput filter);
+
+    /**
+     * Keyset page of lectures, newest first, ordered by {@code (created_at, lecture_id)}.
+     *
+     * @param first number of lectures to return
+     * @param after cursor of the last lecture of the previous page, or {@code null} for the first page; a cursor
+     *              whose lecture no longer exists fails with an {@code IllegalArgumentException}
+     */
+    Mono<LectureConnection> findLectureConnection(LectureFilterInput filter, int first, String after);
+}
@@ -0,0 +1,61 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Authoritative in-memory state of the lectures that are {@code IN_PROGRESS}: the lecture, its
+ * questions with their statuses and the currently active question.
+ * <p>
+ * Reads and transitions of a live lecture never touch the database. Transitions are applied in
+ * memory and written behind, in order, by a single writer; a lecture leaving {@code IN_PROGRESS}
+ * is evicted once all of its writes have landed. Each instance holds its own copy and applies the
+ * transitions published by the other instances.
+ */
+public interface LiveLectureService {
+
+    /**
+     * Loads (or reloads) a lecture from the database if it is {@code IN_PROGRESS}. State already
+     * held is merged, keeping whichever copy of a question was updated last.
+     */
+    Mono<Void> load(UUID lectureId);
+
+    boolean isLive(UUID lectureId);
+
+    Optional<Lecture> findLecture(UUID lectureId);
+
+    Optional<LectureQuestion> findLectureQuestion(UUID lectureQuestionId);
+
+    /**
+     * Questions of a live lecture in creation order.
+     */
+    Optional<List<LectureQuestion>> findQuestions(UUID lectureId);
+
+    /**
+     * The most recently activated question of a live lecture, while it is still {@code ACTIVE}.
+     */
+    Optional<UUID> findActiveQuestionId(UUID lectureId);
+
+    /**
+     * Transitions a question of a live lecture in memory, following {@link edu.manipal.cse.lectureservicereactive.utils.StatusTransitions},
+     * and queues the write.
+     *
+     * @param closesAt deadline of an activation, {@code null} for an untimed one; other transitions keep the current deadline
+     * @return the updated question, or empty if the question does not belong to a live lecture
+     */
+    Mono<LectureQuestion> transitionQuestion(UUID lectureQuestionId, LectureQuestion.LectureQuestionStatus status, Instant closesAt);
+
+    /**
+     * Transitions a live lecture. A lecture leaving {@code IN_PROGRESS} completes only after its
+     * state has been written and evicted.
+     *
+     * @return the updated lecture, or empty if the lecture is not live
+     */
+    Mono<Lecture> transitionLecture(UUID lectureId, Lecture.LectureStatus status);
+}
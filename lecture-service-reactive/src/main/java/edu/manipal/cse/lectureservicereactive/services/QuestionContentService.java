@@ -0,0 +1,30 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.QuestionContent;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Local cache of the content of lecture questions (title, text, type and answer options), so a
+ * lecture's questions cost one question-service call instead of one per question and client.
+ * The cache is bounded; a question stays cached until the last lecture it was looked up for ends,
+ * unless room is needed, and is fetched again if it was evicted.
+ */
+public interface QuestionContentService {
+
+    /**
+     * Content of the questions of the given lecture questions by question ID, fetching all cache
+     * misses in one call. Requests arriving while a question is being fetched wait for that fetch.
+     * Unknown questions are missing from the result.
+     */
+    Mono<Map<UUID, QuestionContent>> findQuestions(Collection<LectureQuestion> lectureQuestions);
+
+    /**
+     * Releases the lecture's hold on the content of its questions, dropping what no other lecture holds.
+     */
+    Mono<Void> evictForLecture(UUID lectureId);
+}
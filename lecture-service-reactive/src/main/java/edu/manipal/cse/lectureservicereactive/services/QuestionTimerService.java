@@ -0,0 +1,21 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Deadlines of timed lecture questions. All deadlines share one hashed timing wheel, so thousands
+ * of open questions cost one timer thread and one small entry each.
+ */
+public interface QuestionTimerService {
+
+    /**
+     * Schedules (or reschedules) the deadline of a lecture question; {@code onExpiry} runs on the
+     * timer thread and must not block. Deadlines already in the past expire on the next tick.
+     */
+    void schedule(UUID lectureQuestionId, Instant closesAt, Runnable onExpiry);
+
+    void cancel(UUID lectureQuestionId);
+
+    int pendingCount();
+}
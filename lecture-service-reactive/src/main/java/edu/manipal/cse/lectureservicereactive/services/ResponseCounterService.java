@@ -0,0 +1,44 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory response counters for live lecture questions. Count updates are coalesced and
+ * published at most once per question per configured window.
+ * <p>
+ * Counters follow the {@code studentResponded} stream, so each instance counts the responses
+ * stored by every instance and publishes counts to its own subscribers only. Responses are counted
+ * by id, so one seen both in the seed and on the stream is counted once.
+ */
+public interface ResponseCounterService {
+
+    /**
+     * Starts tracking a lecture question, seeding its counter once from the database.
+     */
+    Mono<Integer> activate(UUID lectureQuestionId);
+
+    /**
+     * Activates the counter if the lecture question is currently {@code ACTIVE}, e.g. for a
+     * subscriber on an instance where the question was not activated.
+     */
+    Mono<Void> activateIfLive(UUID lectureQuestionId);
+
+    /**
+     * Stops tracking a lecture question, publishing any pending count first.
+     */
+    void deactivate(UUID lectureQuestionId);
+
+    /**
+     * Makes sure a successfully stored response is counted: tracked questions count it from the
+     * published event, untracked questions are activated and include it in their seed.
+     */
+    Mono<Void> recordResponse(UUID lectureQuestionId);
+
+    /**
+     * Returns the live count if the question is currently tracked.
+     */
+    Optional<Integer> currentCount(UUID lectureQuestionId);
+}
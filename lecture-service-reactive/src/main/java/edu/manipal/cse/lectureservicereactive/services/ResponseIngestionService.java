@@ -0,0 +1,26 @@
+package edu.manipal.cse.lectureservicereactive.services;
+
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Buffers student responses and writes them to the database in multi-row batches.
+ */
+public interface ResponseIngestionService {
+
+    /**
+     * Queues a response for the next batch. Completes with the stored response once its batch
+     * is committed, with a {@code DuplicateResourceException} if the student already answered
+     * the question, or with an {@code OperationFailedException} if the buffer is full.
+     */
+    Mono<StudentResponse> submit(StudentResponse response);
+
+    /**
+     * Writes the responses right away in one multi-row statement, bypassing the buffer. Completes
+     * once they are written, with one result per response in the same order, each completing as
+     * {@link #submit} would.
+     */
+    Mono<List<Mono<StudentResponse>>> writeAll(List<StudentResponse> responses);
+}
@@ -1,21 +1,76 @@
 package edu.manipal.cse.lectureservicereactive.services;
 
 import edu.manipal.cse.lectureservicereactive.dto.inputs.studentResponse.CreateStudentResponseInput;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.StudentResponseConnection;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface StudentResponseService {
 
+    // A quiz is 10-20 questions; the bound keeps one submission to a single short statement
+    int MAX_SUBMISSION_SIZE = 50;
+
+    /*
+     * Messages of rejected submissions that are shown to clients as they are; any other failure of
+     * submitStudentResponses is reported as a generic error.
+     */
+    String INVALID_SUBMISSION_SIZE = "Between 1 and " + MAX_SUBMISSION_SIZE + " responses can be submitted at once";
+    String NOT_ACCEPTING_RESPONSES = "Lecture question is not accepting responses";
+    String ANSWER_NOT_VALIDATED = "Could not validate the answer. Please retry.";
+    String ALREADY_RESPONDED = "Student has already submitted a response for this question.";
+    String MISSING_USER_CONTEXT = "Missing user context";
+    String SUBMISSION_STUDENTS_ONLY = "submitResponses is only available to students";
+
     Mono<StudentResponse> findResponseById(UUID responseId);
 
     Flux<StudentResponse> findResponsesForLectureQuestion(UUID lectureQuestionId);
 
     Flux<StudentResponse> findResponsesByStudent(UUID studentId);
 
+    /**
+     * One page of a lecture question's responses, in submission order, starting after the response
+     * the cursor points to. A cursor that is not one of the question's responses fails with an
+     * {@code IllegalArgumentException}.
+     */
+    Mono<StudentResponseConnection> findResponseConnectionForLectureQuestion(UUID lectureQuestionId, int first, String after);
+
+    /**
+     * One page of a student's responses, newest first, starting after the response the cursor points to.
+     * A cursor that is not one of the student's responses fails with an {@code IllegalArgumentException}.
+     */
+    Mono<StudentResponseConnection> findResponseConnectionByStudent(UUID studentId, int first, String after);
+
     Mono<StudentResponse> createStudentResponse(CreateStudentResponseInput input, UUID studentId);
 
+    /**
+     * Submits several responses of one student at once, e.g. a quiz. All lecture questions, answers
+     * and earlier responses are checked in one pass and the accepted responses are written in one
+     * statement. Completes with one result per input, in input order. Rejections use the client-safe
+     * messages above.
+     */
+    Mono<List<Submission>> submitStudentResponses(List<CreateStudentResponseInput> inputs, UUID studentId);
+
     Mono<Integer> countResponsesForLectureQuestion(UUID lectureQuestionId);
-}
\ No newline at end of file
+
+    Mono<Map<UUID, Integer>> countResponsesForLectureQuestions(Collection<UUID> lectureQuestionIds);
+
+    /**
+     * Outcome of one submitted response: the stored response, or why it was rejected.
+     */
+    record Submission(StudentResponse response, Throwable error) {
+
+        public static Submission accepted(StudentResponse response) {
+            return new Submission(response, null);
+        }
+
+        public static Submission rejected(Throwable error) {
+            return new Submission(null, error);
+        }
+    }
+}
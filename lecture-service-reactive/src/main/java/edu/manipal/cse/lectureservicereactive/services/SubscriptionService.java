@@ -1,11 +1,14 @@
 package edu.manipal.cse.lectureservicereactive.services;
 
 import edu.manipal.cse.lectureservicereactive.dto.events.LectureEvent;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
 import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.UUID;
 
@@ -16,10 +19,27 @@ public interface SubscriptionService {
     void publishLectureQuestionUpdate(LectureQuestion lectureQuestion);
     void publishResponseCountUpdate(ResponseCount responseCount);
     void publishStudentResponseCreated(StudentResponse response);
+    void publishAnswerDistributionUpdate(AnswerDistribution distribution);
 
     Flux<LectureEvent> lectureActivityStream();
     Flux<Lecture> lectureUpdateStream(UUID lectureId);
     Flux<LectureQuestion> lectureQuestionUpdateStream(UUID lectureQuestionId);
     Flux<ResponseCount> responseCountStream(UUID lectureQuestionId);
     Flux<StudentResponse> studentResponseStream(UUID lectureQuestionId);
+    Flux<AnswerDistribution> answerDistributionStream(UUID lectureQuestionId);
+
+    // Every lecture question status change published on any instance, for state kept in-process.
+    // Not for clients: it bypasses delivery policies and subscriber metrics, and never drops or conflates.
+    Flux<LectureQuestion> lectureQuestionTransitions();
+
+    // Sequenced variants for subscribers that start from the current state or resume after a sequence;
+    // current loads the state when none has been emitted while the key had subscribers
+    Flux<Sequenced<Lecture>> lectureUpdateStream(UUID lectureId, boolean snapshot, Long afterSequence, Mono<Lecture> current);
+    Flux<Sequenced<ResponseCount>> responseCountStream(UUID lectureQuestionId, boolean snapshot, Long afterSequence, Mono<ResponseCount> current);
+    Flux<Sequenced<LectureQuestion>> lectureQuestionUpdateStream(UUID lectureQuestionId, boolean snapshot, Long afterSequence, Mono<LectureQuestion> current);
+
+    // Journaled event streams with offsets; afterOffset replays the events missed since that offset first.
+    // lectureId narrows lecture activity to one lecture and is required to resume it.
+    Flux<Sequenced<LectureEvent>> lectureActivityStream(UUID lectureId, Long afterOffset);
+    Flux<Sequenced<StudentResponse>> studentResponseStream(UUID lectureQuestionId, UUID lectureId, Long afterOffset);
 }
@@ -0,0 +1,246 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerCount;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
+import edu.manipal.cse.lectureservicereactive.exceptions.ResourceNotFoundException;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerDistributionService;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+@Service
+@Slf4j
+public class AnswerDistributionServiceImpl implements AnswerDistributionService {
+
+    private final LectureQuestionRepository lectureQuestionRepository;
+    private final LiveLectureService liveLectureService;
+    private final StudentResponseRepository studentResponseRepository;
+    private final AnswerKeyService answerKeyService;
+    private final SubscriptionService subscriptionService;
+    private final Duration publishWindow;
+
+    private final Map<UUID, Tally> tallies = new ConcurrentHashMap<>();
+    private Disposable publisher;
+
+    public AnswerDistributionServiceImpl(LectureQuestionRepository lectureQuestionRepository,
+                                         LiveLectureService liveLectureService,
+                                         StudentResponseRepository studentResponseRepository,
+                                         AnswerKeyService answerKeyService,
+                                         SubscriptionService subscriptionService,
+                                         @Value("${lecture.live.answer-distribution-window:500ms}") Duration publishWindow) {
+        this.lectureQuestionRepository = lectureQuestionRepository;
+        this.liveLectureService = liveLectureService;
+        this.studentResponseRepository = studentResponseRepository;
+        this.answerKeyService = answerKeyService;
+        this.subscriptionService = subscriptionService;
+        this.publishWindow = publishWindow;
+    }
+
+    @PostConstruct
+    void startPublisher() {
+        publisher = Flux.interval(publishWindow)
+                .onBackpressureDrop()
+                .subscribe(tick -> publishPending());
+        log.info("Answer distribution publisher started with window {}", publishWindow);
+    }
+
+    @PreDestroy
+    void stopPublisher() {
+        if (publisher != null) {
+            publisher.dispose();
+        }
+        tallies.values().forEach(tally -> tally.events.dispose());
+    }
+
+    @Override
+    public Mono<Void> activate(UUID lectureQuestionId) {
+        if (tallies.containsKey(lectureQuestionId)) {
+            return Mono.empty();
+        }
+        return loadAnswerKey(lectureQuestionId)
+                .flatMap(answerKey -> {
+                    Tally tally = new Tally(lectureQuestionId, answerKey);
+                    if (tallies.putIfAbsent(lectureQuestionId, tally) != null) {
+                        return Mono.empty();
+                    }
+                    // Subscribe before seeding so no response falls between the seed query and the stream;
+                    // a response both seeded and streamed is recognized by its id and counted once
+                    tally.events.add(subscriptionService.studentResponseStream(lectureQuestionId)
+                            .subscribe(tally::record));
+                    tally.events.add(subscriptionService.lectureQuestionTransitions()
+                            .filter(lq -> lectureQuestionId.equals(lq.getLectureQuestionId()))
+                            .filter(lq -> lq.getStatus() == LectureQuestion.LectureQuestionStatus.COMPLETED)
+                            .subscribe(lq -> deactivate(lectureQuestionId)));
+
+                    log.debug("Seeding answer distribution for lecture question {}", lectureQuestionId);
+                    return studentResponseRepository.findByLectureQuestionId(lectureQuestionId)
+                            .doOnNext(tally::record)
+                            .then(Mono.fromRunnable(() -> tally.dirty.set(true)))
+                            .doOnError(e -> {
+                                log.error("Failed to seed answer distribution for lecture question {}", lectureQuestionId, e);
+                                if (tallies.remove(lectureQuestionId, tally)) {
+                                    tally.events.dispose();
+                                }
+                            })
+                            .then();
+                });
+    }
+
+    @Override
+    public Mono<Void> activateIfLive(UUID lectureQuestionId) {
+        if (tallies.containsKey(lectureQuestionId)) {
+            return Mono.empty();
+        }
+        return findLectureQuestion(lectureQuestionId)
+                .filter(lq -> lq.getStatus() == LectureQuestion.LectureQuestionStatus.ACTIVE)
+                .flatMap(lq -> activate(lectureQuestionId));
+    }
+
+    private Mono<LectureQuestion> findLectureQuestion(UUID lectureQuestionId) {
+        return liveLectureService.findLectureQuestion(lectureQuestionId)
+                .map(Mono::just)
+                .orElseGet(() -> lectureQuestionRepository.findById(lectureQuestionId));
+    }
+
+    @Override
+    public void deactivate(UUID lectureQuestionId) {
+        Tally tally = tallies.remove(lectureQuestionId);
+        if (tally != null) {
+            tally.events.dispose();
+            if (tally.dirty.getAndSet(false)) {
+                subscriptionService.publishAnswerDistributionUpdate(tally.snapshot());
+            }
+        }
+        log.debug("Stopped tallying answers for lecture question {}", lectureQuestionId);
+    }
+
+    @Override
+    public Mono<AnswerDistribution> getDistribution(UUID lectureQuestionId) {
+        Tally live = tallies.get(lectureQuestionId);
+        if (live != null) {
+            return Mono.just(live.snapshot());
+        }
+        return loadAnswerKey(lectureQuestionId)
+                .flatMap(answerKey -> {
+                    Tally tally = new Tally(lectureQuestionId, answerKey);
+                    // Not live: nothing races the query, so grouped counts suffice
+                    return studentResponseRepository.countGroupedByAnswerId(lectureQuestionId)
+                            .doOnNext(tally::add)
+                            .then(Mono.fromSupplier(tally::snapshot));
+                });
+    }
+
+    private Mono<AnswerKeyService.AnswerKey> loadAnswerKey(UUID lectureQuestionId) {
+        return findLectureQuestion(lectureQuestionId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("LectureQuestion", lectureQuestionId)))
+                .flatMap(lq -> answerKeyService.preloadForQuestion(lq.getQuestionId()));
+    }
+
+    private void publishPending() {
+        tallies.values().forEach(tally -> {
+            if (tally.dirty.getAndSet(false)) {
+                subscriptionService.publishAnswerDistributionUpdate(tally.snapshot());
+            }
+        });
+    }
+
+    /**
+     * Counts per answer in a primitive array indexed by the answer's position in the answer key.
+     */
+    private static final class Tally {
+        private final UUID lectureQuestionId;
+        private final UUID[] answerIds;
+        private final boolean[] correct;
+        private final Map<UUID, Integer> indexes;
+        private final AtomicIntegerArray counts;
+        // Responses whose answer is not (or no longer) in the answer key still count towards the total
+        private final AtomicInteger unknown = new AtomicInteger();
+        // Ids of the live responses counted so far; a question holds at most one response per student
+        private final Set<UUID> counted = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final Disposable.Composite events = Disposables.composite();
+
+        private Tally(UUID lectureQuestionId, AnswerKeyService.AnswerKey answerKey) {
+            this.lectureQuestionId = lectureQuestionId;
+            int size = answerKey.answers().size();
+            this.answerIds = new UUID[size];
+            this.correct = new boolean[size];
+            this.indexes = new HashMap<>(size * 2);
+            int i = 0;
+            for (Map.Entry<UUID, Boolean> answer : answerKey.answers().entrySet()) {
+                answerIds[i] = answer.getKey();
+                correct[i] = Boolean.TRUE.equals(answer.getValue());
+                indexes.put(answer.getKey(), i);
+                i++;
+            }
+            this.counts = new AtomicIntegerArray(size);
+        }
+
+        /**
+         * Counts a seeded or streamed response, once per response id.
+         */
+        private void record(StudentResponse response) {
+            if (!counted.add(response.getResponseId())) {
+                return;
+            }
+            count(response.getAnswerId(), 1);
+            dirty.set(true);
+        }
+
+        /**
+         * Adds grouped counts, for a tally that is not fed by the stream.
+         */
+        private void add(AnswerCount answerCount) {
+            count(answerCount.answerId(), answerCount.count());
+        }
+
+        private void count(UUID answerId, int delta) {
+            Integer index = indexes.get(answerId);
+            if (index != null) {
+                counts.addAndGet(index, delta);
+            } else {
+                unknown.addAndGet(delta);
+            }
+        }
+
+        private AnswerDistribution snapshot() {
+            List<AnswerCount> answers = new ArrayList<>(answerIds.length);
+            int total = unknown.get();
+            int correctCount = 0;
+            for (int i = 0; i < answerIds.length; i++) {
+                int count = counts.get(i);
+                answers.add(new AnswerCount(answerIds[i], count));
+                total += count;
+                if (correct[i]) {
+                    correctCount += count;
+                }
+            }
+            return new AnswerDistribution(lectureQuestionId, answers, total, correctCount);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.clients.AnswerServiceClient;
+import edu.manipal.cse.lectureservicereactive.dto.client.questions.AnswerResponse;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.utils.QuestionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class AnswerKeyServiceImpl implements AnswerKeyService {
+
+    private static final int PRELOAD_CONCURRENCY = 8;
+
+    private final AnswerServiceClient answerServiceClient;
+    private final LectureQuestionRepository lectureQuestionRepository;
+
+    private final QuestionCache<AnswerKey> answerKeys;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AnswerKeyServiceImpl(AnswerServiceClient answerServiceClient,
+                                LectureQuestionRepository lectureQuestionRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${lecture.answer-keys.cache.max-entries:10000}") int maxEntries) {
+        this.answerServiceClient = answerServiceClient;
+        this.lectureQuestionRepository = lectureQuestionRepository;
+        this.answerKeys = new QuestionCache<>(maxEntries);
+        this.hits = meterRegistry.counter("lecture.answer-keys.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("lecture.answer-keys.lookups", "result", "miss");
+        Gauge.builder("lecture.answer-keys.cached", answerKeys, QuestionCache::size)
+                .description("Questions whose answer key is cached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> preloadForLecture(UUID lectureId) {
+        log.debug("Preloading answer keys for lecture ID: {}", lectureId);
+        return lectureQuestionRepository.findByLectureId(lectureId)
+                .map(LectureQuestion::getQuestionId)
+                .distinct()
+                .flatMap(questionId -> load(questionId, lectureId), PRELOAD_CONCURRENCY)
+                .doOnComplete(() -> log.info("Answer keys cached for lecture ID: {}", lectureId))
+                .then();
+    }
+
+    @Override
+    public Mono<AnswerKey> preloadForQuestion(UUID questionId) {
+        return load(questionId, null);
+    }
+
+    private Mono<AnswerKey> load(UUID questionId, UUID lectureId) {
+        Optional<AnswerKey> cached = answerKeys.get(questionId);
+        if (cached.isPresent()) {
+            if (lectureId != null) {
+                answerKeys.hold(questionId, lectureId);
+            }
+            return Mono.just(cached.get());
+        }
+        return answerServiceClient.getAnswersForQuestion(questionId)
+                .map(answers -> {
+                    Map<UUID, Boolean> byId = new HashMap<>();
+                    for (AnswerResponse answer : answers) {
+                        byId.put(answer.getAnswerId(), Boolean.TRUE.equals(answer.getIsCorrect()));
+                    }
+                    AnswerKey answerKey = new AnswerKey(questionId, Collections.unmodifiableMap(byId));
+                    // A question without answers (or a transient 404) is not worth pinning for the whole lecture
+                    if (byId.isEmpty()) {
+                        log.debug("No answers found for question ID: {}, not caching its answer key", questionId);
+                    } else {
+                        answerKeys.put(questionId, answerKey, lectureId);
+                        log.debug("Cached {} answers for question ID: {}", byId.size(), questionId);
+                    }
+                    return answerKey;
+                });
+    }
+
+    @Override
+    public Mono<Boolean> isValidAnswer(UUID questionId, UUID answerId) {
+        if (questionId == null || answerId == null) {
+            return Mono.just(false);
+        }
+        Optional<AnswerKey> cached = answerKeys.get(questionId);
+        if (cached.isPresent()) {
+            hits.increment();
+            return Mono.just(cached.get().contains(answerId));
+        }
+        misses.increment();
+        return preloadForQuestion(questionId)
+                .flatMap(answerKey -> answerKey.answers().isEmpty()
+                        ? answerServiceClient.answerExists(answerId)
+                        : Mono.just(answerKey.contains(answerId)))
+                .onErrorResume(e -> {
+                    log.warn("Could not load answer key for question {}, checking answer {} directly", questionId, answerId);
+                    return answerServiceClient.answerExists(answerId);
+                });
+    }
+
+    @Override
+    public Optional<AnswerKey> getCached(UUID questionId) {
+        return answerKeys.get(questionId);
+    }
+
+    @Override
+    public Mono<Void> evictForLecture(UUID lectureId) {
+        return lectureQuestionRepository.findByLectureId(lectureId)
+                .map(LectureQuestion::getQuestionId)
+                .collectList()
+                .doOnNext(questionIds -> {
+                    int dropped = answerKeys.release(lectureId, questionIds);
+                    log.debug("Evicted {} answer keys for lecture ID: {}", dropped, lectureId);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,362 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureDeletedEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureUpdatedEvent;
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.services.EventJournalService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.transport.LiveEvent;
+import edu.manipal.cse.lectureservicereactive.transport.LiveStream;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.codec.Json;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class EventJournalServiceImpl implements EventJournalService {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO lecture_event_journal" +
+            " (lecture_id, event_offset, previous_offset, stream, event_key, payload_type, payload) VALUES ";
+    private static final String INSERT_SUFFIX = " ON CONFLICT (lecture_id, event_offset) DO NOTHING";
+    // No row at all when nothing of the lecture was written
+    private static final String SELECT_BOUNDS =
+            "SELECT min(previous_offset) AS floor, max(event_offset) AS last_offset FROM lecture_event_journal" +
+            " WHERE lecture_id = :lectureId HAVING count(*) > 0";
+    private static final String SELECT_AFTER =
+            "SELECT event_offset, previous_offset, stream, event_key, payload_type, payload FROM lecture_event_journal" +
+            " WHERE lecture_id = :lectureId AND event_offset > :afterOffset ORDER BY event_offset";
+    private static final int SPILL_BATCH_SIZE = 200;
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    // Looked up lazily: the live lecture state subscribes to the very events journaled here
+    private final ObjectProvider<LiveLectureService> liveLectureService;
+    private final int capacity;
+
+    private final Map<UUID, Journal> journals = new ConcurrentHashMap<>();
+    private final Counter overwritten;
+    private final Counter gaps;
+    private final Counter spillFailures;
+
+    public EventJournalServiceImpl(DatabaseClient databaseClient,
+                                   ObjectMapper objectMapper,
+                                   ObjectProvider<LiveLectureService> liveLectureService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${lecture.live.journal.capacity:4096}") int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("lecture.live.journal.capacity must be positive");
+        }
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.liveLectureService = liveLectureService;
+        this.capacity = capacity;
+        this.overwritten = Counter.builder("lecture.events.journal.overwritten")
+                .description("Journaled events dropped from the in-memory ring of a lecture to make room")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("lecture.events.journal.gaps")
+                .description("Subscription resumes rejected because the events after their offset are no longer retained")
+                .register(meterRegistry);
+        this.spillFailures = Counter.builder("lecture.events.journal.spill.failures")
+                .description("Journals of ended lectures that could not be written to the database")
+                .register(meterRegistry);
+        Gauge.builder("lecture.events.journal.lectures", journals, Map::size)
+                .description("Lectures with an in-memory event journal")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void append(LiveEvent event) {
+        UUID lectureId = lectureIdOf(event);
+        if (lectureId == null) {
+            return;
+        }
+        Journal journal = journals.get(lectureId);
+        if (event.offset() == LiveEvent.UNASSIGNED) {
+            // Delivered without an offset: no resume can tell whether it was seen. Without a journal
+            // the lecture cannot be resumed yet anyway
+            if (journal != null) {
+                journal.markUnsequenced();
+                if (closes(event)) {
+                    close(lectureId, journal, event);
+                }
+            }
+            return;
+        }
+        if (journal == null) {
+            if (!opens(event, lectureId)) {
+                return;
+            }
+            // Whatever was published before this event was not journaled here
+            journal = journals.computeIfAbsent(lectureId, id -> new Journal(event.offset() - 1));
+        }
+        journal.append(event);
+        if (closes(event)) {
+            close(lectureId, journal, event);
+        }
+    }
+
+    @Override
+    public Flux<Sequenced<LiveEvent>> replay(UUID lectureId, long afterOffset) {
+        return Flux.defer(() -> {
+            Journal journal = journals.get(lectureId);
+            if (journal == null && isLive(lectureId)) {
+                // Live, but nothing delivered here yet (e.g. since a restart): anything may be missing
+                return Flux.error(gap(lectureId, afterOffset));
+            }
+            if (journal == null) {
+                return replayStored(lectureId, afterOffset);
+            }
+            List<StoredEvent> missed = journal.after(afterOffset);
+            if (missed == null) {
+                return Flux.error(gap(lectureId, afterOffset));
+            }
+            return Flux.fromIterable(missed).map(StoredEvent::sequenced);
+        });
+    }
+
+    /**
+     * Events of an ended lecture from its written journal. An offset the journal cannot answer for,
+     * older than what it retained or newer than its last event, or a journal that was never written,
+     * is a gap.
+     */
+    private Flux<Sequenced<LiveEvent>> replayStored(UUID lectureId, long afterOffset) {
+        return databaseClient.sql(SELECT_BOUNDS)
+                .bind("lectureId", lectureId)
+                .map((row, metadata) -> new long[]{row.get("floor", Long.class), row.get("last_offset", Long.class)})
+                .one()
+                .filter(bounds -> afterOffset >= bounds[0] && afterOffset <= bounds[1])
+                .switchIfEmpty(Mono.error(() -> gap(lectureId, afterOffset)))
+                .flatMapMany(bounds -> databaseClient.sql(SELECT_AFTER)
+                        .bind("lectureId", lectureId)
+                        .bind("afterOffset", afterOffset)
+                        .map((row, metadata) -> decode(row))
+                        .all())
+                .map(StoredEvent::sequenced);
+    }
+
+    private void close(UUID lectureId, Journal journal, LiveEvent event) {
+        List<StoredEvent> entries = journal.close();
+        // Only the instance that ended the lecture writes its journal; the others drop their copy
+        if (event.remote() || event.payload() instanceof LectureDeletedEvent || entries.isEmpty()) {
+            journals.remove(lectureId, journal);
+            log.debug("Journal of lecture {} dropped with {} events", lectureId, entries.size());
+            return;
+        }
+        // Kept in memory until written, so resumes in the meantime still find the events
+        Flux.fromIterable(entries)
+                .buffer(SPILL_BATCH_SIZE)
+                .concatMap(batch -> insert(lectureId, batch))
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> journals.remove(lectureId, journal))
+                .subscribe(
+                        written -> log.info("Journal of lecture {} written with {} events", lectureId, written),
+                        e -> {
+                            spillFailures.increment();
+                            log.error("Failed to write the journal of lecture {}: {}", lectureId, e.getMessage());
+                        });
+    }
+
+    private Mono<Long> insert(UUID lectureId, List<StoredEvent> batch) {
+        return Mono.defer(() -> {
+            StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+            for (int i = 0; i < batch.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(:lectureId, :o").append(i).append(", :p").append(i).append(", :s").append(i)
+                        .append(", :k").append(i).append(", :t").append(i).append(", :d").append(i).append(')');
+            }
+            sql.append(INSERT_SUFFIX);
+
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("lectureId", lectureId);
+            for (int i = 0; i < batch.size(); i++) {
+                StoredEvent stored = batch.get(i);
+                LiveEvent event = stored.event();
+                spec = spec.bind("o" + i, stored.offset())
+                        .bind("p" + i, stored.previousOffset())
+                        .bind("s" + i, event.stream().name())
+                        .bind("t" + i, event.payload().getClass().getSimpleName())
+                        .bind("d" + i, Json.of(encode(event.payload())));
+                spec = event.key() != null ? spec.bind("k" + i, event.key()) : spec.bindNull("k" + i, UUID.class);
+            }
+            return spec.fetch().rowsUpdated();
+        });
+    }
+
+    private String encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new OperationFailedException("Could not encode journaled event", e);
+        }
+    }
+
+    private StoredEvent decode(Readable row) {
+        String type = row.get("payload_type", String.class);
+        Class<?> payloadType = LiveEvent.payloadType(type);
+        if (payloadType == null) {
+            throw new OperationFailedException("Journaled event of unknown type '" + type + "'");
+        }
+        long offset = row.get("event_offset", Long.class);
+        try {
+            Object payload = objectMapper.readValue(row.get("payload", Json.class).asString(), payloadType);
+            // The publish time is not journaled; it only serves delivery latency
+            LiveEvent event = new LiveEvent(LiveStream.valueOf(row.get("stream", String.class)),
+                    row.get("event_key", UUID.class), payload, 0, offset, true);
+            return new StoredEvent(offset, row.get("previous_offset", Long.class), event);
+        } catch (JsonProcessingException e) {
+            throw new OperationFailedException("Could not decode journaled event", e);
+        }
+    }
+
+    private OperationFailedException gap(UUID lectureId, long afterOffset) {
+        gaps.increment();
+        log.info("Events of lecture {} after offset {} are no longer retained", lectureId, afterOffset);
+        return new OperationFailedException("Events after offset " + afterOffset + " of lecture " + lectureId
+                + " are no longer retained; re-fetch and subscribe without an offset");
+    }
+
+    private UUID lectureIdOf(LiveEvent event) {
+        return switch (event.stream()) {
+            case LECTURE_ACTIVITY -> ((LectureEvent) event.payload()).lectureId();
+            case LECTURE_UPDATED -> event.key();
+            case LECTURE_QUESTION_STATUS_CHANGED -> ((LectureQuestion) event.payload()).getLectureId();
+            // Only the questions of live lectures are journaled, and those are all held in memory
+            case STUDENT_RESPONDED -> liveLectureService.getObject().findLectureQuestion(event.key())
+                    .map(LectureQuestion::getLectureId)
+                    .orElse(null);
+        };
+    }
+
+    private boolean opens(LiveEvent event, UUID lectureId) {
+        return event.payload() instanceof LectureUpdatedEvent updated
+                && updated.lecture().getStatus() == Lecture.LectureStatus.IN_PROGRESS
+                || isLive(lectureId);
+    }
+
+    private static boolean closes(LiveEvent event) {
+        return event.payload() instanceof LectureDeletedEvent
+                || event.payload() instanceof LectureUpdatedEvent updated
+                && updated.lecture().getStatus() != Lecture.LectureStatus.IN_PROGRESS;
+    }
+
+    private boolean isLive(UUID lectureId) {
+        return liveLectureService.getObject().isLive(lectureId);
+    }
+
+    /**
+     * @param previousOffset offset retained before this one, or the journal's floor for its first event
+     */
+    private record StoredEvent(long offset, long previousOffset, LiveEvent event) {
+
+        private Sequenced<LiveEvent> sequenced() {
+            return new Sequenced<>(offset, event);
+        }
+    }
+
+    /**
+     * Ring of the latest events of one lecture in offset order. Events of different instances may
+     * arrive slightly out of order and are sorted in from the end. Appends are rare enough per lecture
+     * that a monitor is cheap.
+     */
+    private final class Journal {
+        private final LiveEvent[] ring = new LiveEvent[capacity];
+        private int start;
+        private int size;
+        // Events at or before this offset may be missing
+        private long floor;
+        private long lastOffset;
+        // Resumes after this offset or before it would miss an event delivered without one
+        private long unsequencedUpTo = Long.MIN_VALUE;
+        private boolean closed;
+
+        private Journal(long floor) {
+            this.floor = floor;
+            this.lastOffset = floor;
+        }
+
+        private synchronized void append(LiveEvent event) {
+            long offset = event.offset();
+            if (closed || offset <= floor) {
+                return;
+            }
+            if (size == ring.length) {
+                floor = ring[start].offset();
+                ring[start] = null;
+                start = (start + 1) % ring.length;
+                size--;
+                overwritten.increment();
+                if (offset <= floor) {
+                    return;
+                }
+            }
+            int i = size;
+            while (i > 0 && at(i - 1).offset() > offset) {
+                ring[(start + i) % ring.length] = at(i - 1);
+                i--;
+            }
+            ring[(start + i) % ring.length] = event;
+            size++;
+            lastOffset = Math.max(lastOffset, offset);
+        }
+
+        /**
+         * @return the events after the offset, or {@code null} if some of them were not retained or
+         *         the offset is not one this journal knows
+         */
+        private synchronized List<StoredEvent> after(long afterOffset) {
+            if (afterOffset < floor || afterOffset <= unsequencedUpTo || afterOffset > lastOffset) {
+                return null;
+            }
+            List<StoredEvent> missed = new ArrayList<>();
+            long previous = floor;
+            for (int i = 0; i < size; i++) {
+                LiveEvent event = at(i);
+                if (event.offset() > afterOffset) {
+                    missed.add(new StoredEvent(event.offset(), previous, event));
+                }
+                previous = event.offset();
+            }
+            return missed;
+        }
+
+        private synchronized void markUnsequenced() {
+            unsequencedUpTo = lastOffset;
+        }
+
+        /**
+         * Stops journaling and returns everything retained, or nothing if an event was delivered
+         * unsequenced: the written journal could not tell which resumes miss it.
+         */
+        private synchronized List<StoredEvent> close() {
+            closed = true;
+            return unsequencedUpTo == Long.MIN_VALUE ? after(floor) : List.of();
+        }
+
+        private LiveEvent at(int index) {
+            return ring[(start + index) % ring.length];
+        }
+    }
+}
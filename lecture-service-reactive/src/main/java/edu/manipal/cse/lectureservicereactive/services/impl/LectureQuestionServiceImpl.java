@@ -6,15 +6,34 @@ import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedExceptio
 import edu.manipal.cse.lectureservicereactive.exceptions.ResourceNotFoundException;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerDistributionService;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
 import edu.manipal.cse.lectureservicereactive.services.LectureQuestionService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.QuestionTimerService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
 import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.StatusTransitions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -22,13 +41,40 @@ import java.util.UUID;
 @Slf4j
 public class LectureQuestionServiceImpl implements LectureQuestionService {
 
+    // An activation sets (or clears) the deadline; other transitions keep it as a record of when the question was due
+    private static final String UPDATE_STATUS =
+            "UPDATE lecture_questions SET status = :next, updated_at = :updatedAt," +
+            " closes_at = CASE WHEN :next = 'ACTIVE' THEN :closesAt ELSE closes_at END" +
+            " WHERE lecture_question_id = :id AND status IN (:allowedFrom) RETURNING *";
+    // Claims expired questions: of all instances closing a question concurrently, only one gets the row back
+    private static final String CLOSE_EXPIRED =
+            "UPDATE lecture_questions SET status = 'COMPLETED', updated_at = :updatedAt" +
+            " WHERE status = 'ACTIVE' AND closes_at <= :now RETURNING *";
+    private static final String CLOSE_EXPIRED_QUESTION =
+            "UPDATE lecture_questions SET status = 'COMPLETED', updated_at = :updatedAt" +
+            " WHERE lecture_question_id = :id AND status = 'ACTIVE' AND closes_at <= :now RETURNING *";
+
     private final LectureQuestionRepository lectureQuestionRepository;
     private final SubscriptionService subscriptionService;
-    private final TransactionalOperator transactionalOperator;
+    private final ResponseCounterService responseCounterService;
+    private final AnswerKeyService answerKeyService;
+    private final AnswerDistributionService answerDistributionService;
+    private final LiveLectureService liveLectureService;
+    private final QuestionTimerService questionTimerService;
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Value("${lecture.live.question-timer.sweep-interval:1s}")
+    private Duration sweepInterval;
+    private Disposable sweeper;
 
     @Override
     public Mono<LectureQuestion> findLectureQuestionById(UUID lectureQuestionId) {
         log.debug("Finding lecture question by ID: {}", lectureQuestionId);
+        Optional<LectureQuestion> live = liveLectureService.findLectureQuestion(lectureQuestionId);
+        if (live.isPresent()) {
+            return Mono.just(live.get());
+        }
         return lectureQuestionRepository.findById(lectureQuestionId)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("LectureQuestion", lectureQuestionId)));
     }
@@ -36,38 +82,169 @@ public class LectureQuestionServiceImpl implements LectureQuestionService {
     @Override
     public Flux<LectureQuestion> findQuestionsForLecture(UUID lectureId) {
         log.debug("Finding lecture questions for lecture ID: {}", lectureId);
-        return lectureQuestionRepository.findByLectureId(lectureId);
+        return liveLectureService.findQuestions(lectureId)
+                .map(Flux::fromIterable)
+                .orElseGet(() -> lectureQuestionRepository.findByLectureId(lectureId));
+    }
+
+    @Override
+    public Flux<LectureQuestion> findQuestionsForLectures(Collection<UUID> lectureIds) {
+        log.debug("Finding lecture questions for {} lectures", lectureIds.size());
+        // Live lectures are answered from memory; one query covers all the others
+        List<LectureQuestion> live = new ArrayList<>();
+        List<UUID> stored = new ArrayList<>();
+        for (UUID lectureId : lectureIds) {
+            liveLectureService.findQuestions(lectureId)
+                    .ifPresentOrElse(live::addAll, () -> stored.add(lectureId));
+        }
+        return stored.isEmpty() ? Flux.fromIterable(live)
+                : Flux.fromIterable(live).concatWith(lectureQuestionRepository.findByLectureIdIn(stored));
     }
 
     @Override
     public Mono<LectureQuestion> updateStatus(UpdateLectureQuestionStatusInput input) {
         log.info("Updating status for lecture question ID: {} to {}", input.lectureQuestionId(), input.status());
-        return lectureQuestionRepository.findById(input.lectureQuestionId())
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("LectureQuestion", input.lectureQuestionId())))
-                .flatMap(lq -> {
-                    if (!isValidStatusTransition(lq.getStatus(), input.status())) {
-                        log.warn("Invalid status transition from {} to {} for lecture question {}", lq.getStatus(), input.status(), input.lectureQuestionId());
-                        return Mono.error(new InvalidStatusTransitionException(
-                                "Cannot transition lecture question from " + lq.getStatus() + " to " + input.status()));
-                    }
-                    log.debug("Updating lecture question {} status from {} to {}", lq.getLectureQuestionId(), lq.getStatus(), input.status());
-                    lq.setStatus(input.status());
-                    return lectureQuestionRepository.save(lq);
-                })
-                .as(transactionalOperator::transactional)
-                .doOnSuccess(updatedLq -> {
-                    log.info("Successfully updated lecture question status for ID: {}. Publishing event.", updatedLq.getLectureQuestionId());
-                    subscriptionService.publishLectureQuestionUpdate(updatedLq);
-                })
+        if (input.durationSeconds() != null && input.status() != LectureQuestion.LectureQuestionStatus.ACTIVE) {
+            return Mono.error(new IllegalArgumentException("durationSeconds can only be set when activating a lecture question"));
+        }
+        // Millisecond precision survives the round-trip through the database, so deadlines compare equal
+        Instant closesAt = input.durationSeconds() == null ? null
+                : Instant.now().plusSeconds(input.durationSeconds()).truncatedTo(ChronoUnit.MILLIS);
+        // Questions of IN_PROGRESS lectures transition in memory; the database is written behind
+        return liveLectureService.transitionQuestion(input.lectureQuestionId(), input.status(), closesAt)
+                .switchIfEmpty(Mono.defer(() -> updateStoredStatus(input, closesAt)))
+                .flatMap(this::applyTransition)
                 .doOnError(error -> log.error("Error updating lecture question status: {}", error.getMessage(), error))
                 .onErrorMap(e -> !(e instanceof ResourceNotFoundException || e instanceof InvalidStatusTransitionException),
                         e -> new OperationFailedException("Failed to update lecture question status", e));
     }
 
-    private boolean isValidStatusTransition(LectureQuestion.LectureQuestionStatus current, LectureQuestion.LectureQuestionStatus next) {
-        // Example: Allow PENDING -> ACTIVE -> COMPLETED, but not backwards
-        if (current == LectureQuestion.LectureQuestionStatus.COMPLETED && next != LectureQuestion.LectureQuestionStatus.COMPLETED) return false;
-        if (current == LectureQuestion.LectureQuestionStatus.ACTIVE && next == LectureQuestion.LectureQuestionStatus.PENDING) return false;
-        return true;
+    /**
+     * One round-trip: the row is only updated if its current status may move to the requested one,
+     * so of two conflicting concurrent transitions exactly the first one applies.
+     */
+    private Mono<LectureQuestion> updateStoredStatus(UpdateLectureQuestionStatusInput input, Instant closesAt) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPDATE_STATUS)
+                .bind("next", input.status().name())
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("id", input.lectureQuestionId())
+                .bind("allowedFrom", StatusTransitions.allowedFrom(input.status()));
+        spec = closesAt != null ? spec.bind("closesAt", closesAt) : spec.bindNull("closesAt", Instant.class);
+        return spec
+                .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(LectureQuestion.class, row, metadata))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> rejectTransition(input)))
+                .doOnNext(lq -> log.debug("Updated lecture question {} status to {}", lq.getLectureQuestionId(), lq.getStatus()));
+    }
+
+    /**
+     * Side effects of a transition that took place, ending with its event.
+     */
+    private Mono<LectureQuestion> applyTransition(LectureQuestion lq) {
+        return Mono.just(lq)
+                .doOnNext(this::syncDeadline)
+                .delayUntil(this::syncResponseCounter)
+                .delayUntil(this::preloadAnswerKey)
+                .delayUntil(this::syncAnswerDistribution)
+                .doOnNext(updatedLq -> {
+                    log.info("Successfully updated lecture question status for ID: {}. Publishing event.", updatedLq.getLectureQuestionId());
+                    subscriptionService.publishLectureQuestionUpdate(updatedLq);
+                });
+    }
+
+    private Mono<LectureQuestion> rejectTransition(UpdateLectureQuestionStatusInput input) {
+        return lectureQuestionRepository.findById(input.lectureQuestionId())
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("LectureQuestion", input.lectureQuestionId())))
+                .flatMap(lq -> {
+                    log.warn("Invalid status transition from {} to {} for lecture question {}", lq.getStatus(), input.status(), input.lectureQuestionId());
+                    return Mono.error(new InvalidStatusTransitionException(
+                            "Cannot transition lecture question from " + lq.getStatus() + " to " + input.status()));
+                });
+    }
+
+    private void syncDeadline(LectureQuestion lq) {
+        if (lq.getStatus() == LectureQuestion.LectureQuestionStatus.ACTIVE && lq.getClosesAt() != null) {
+            scheduleExpiry(lq);
+        } else {
+            questionTimerService.cancel(lq.getLectureQuestionId());
+        }
+    }
+
+    private void scheduleExpiry(LectureQuestion lq) {
+        UUID lectureQuestionId = lq.getLectureQuestionId();
+        Instant closesAt = lq.getClosesAt();
+        // Closes on time on the activating instance; the sweep covers deadlines whose instance went away
+        questionTimerService.schedule(lectureQuestionId, closesAt, () -> closeExpired(databaseClient.sql(CLOSE_EXPIRED_QUESTION)
+                        .bind("id", lectureQuestionId))
+                .subscribe(
+                        closed -> log.info("Lecture question {} closed at its deadline {}", lectureQuestionId, closesAt),
+                        e -> log.error("Failed to close lecture question {} at its deadline: {}", lectureQuestionId, e.getMessage())));
+    }
+
+    @PostConstruct
+    void startExpirySweep() {
+        // Every instance sweeps; the conditional UPDATE lets exactly one of them close and announce each question
+        sweeper = Flux.interval(sweepInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> closeExpired(databaseClient.sql(CLOSE_EXPIRED))
+                        .onErrorResume(e -> {
+                            log.error("Failed to close expired lecture questions: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe(closed -> log.info("Lecture question {} closed after its deadline {}",
+                        closed.getLectureQuestionId(), closed.getClosesAt()));
+        log.info("Lecture question expiry sweep started with interval {}", sweepInterval);
+    }
+
+    @PreDestroy
+    void stopExpirySweep() {
+        if (sweeper != null) {
+            sweeper.dispose();
+        }
+    }
+
+    /**
+     * Completes the expired questions the statement claims and publishes only those, so a question
+     * closed by several instances at once is announced once. Questions of live lectures pick up the
+     * change in memory from the published event.
+     */
+    private Flux<LectureQuestion> closeExpired(DatabaseClient.GenericExecuteSpec claim) {
+        return claim
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("now", Instant.now())
+                .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(LectureQuestion.class, row, metadata))
+                .all()
+                .concatMap(this::applyTransition);
+    }
+
+    private Mono<Void> syncResponseCounter(LectureQuestion lq) {
+        return switch (lq.getStatus()) {
+            case ACTIVE -> responseCounterService.activate(lq.getLectureQuestionId())
+                    .doOnError(e -> log.warn("Could not seed response counter for lecture question {}: {}", lq.getLectureQuestionId(), e.getMessage()))
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+            case COMPLETED -> Mono.fromRunnable(() -> responseCounterService.deactivate(lq.getLectureQuestionId()));
+            default -> Mono.empty();
+        };
+    }
+
+    private Mono<Void> preloadAnswerKey(LectureQuestion lq) {
+        if (lq.getStatus() != LectureQuestion.LectureQuestionStatus.ACTIVE) {
+            return Mono.empty();
+        }
+        return answerKeyService.preloadForQuestion(lq.getQuestionId())
+                .doOnError(e -> log.warn("Could not preload answer key for question {}: {}", lq.getQuestionId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Void> syncAnswerDistribution(LectureQuestion lq) {
+        return switch (lq.getStatus()) {
+            case ACTIVE -> answerDistributionService.activate(lq.getLectureQuestionId())
+                    .doOnError(e -> log.warn("Could not seed answer distribution for lecture question {}: {}", lq.getLectureQuestionId(), e.getMessage()))
+                    .onErrorResume(e -> Mono.empty());
+            case COMPLETED -> Mono.fromRunnable(() -> answerDistributionService.deactivate(lq.getLectureQuestionId()));
+            default -> Mono.empty();
+        };
     }
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import edu.manipal.cse.lectureservicereactive.dto.events.LectureCreatedEvent;
 import edu.manipal.cse.lectureservicereactive.dto.events.LectureUpdatedEvent;
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lecture.*;
 import edu.manipal.cse.lectureservicereactive.dto.inputs.lectureQuestion.CreateLectureQuestionInput;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.LectureConnection;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.LectureEdge;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.PageInfo;
 import edu.manipal.cse.lectureservicereactive.exceptions.DuplicateResourceException;
 import edu.manipal.cse.lectureservicereactive.exceptions.InvalidStatusTransitionException;
 import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
@@ -15,23 +18,38 @@ import edu.manipal.cse.lectureservicereactive.models.Lecture;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
 import edu.manipal.cse.lectureservicereactive.services.LectureService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.QuestionContentService;
 import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.CursorCodec;
+import edu.manipal.cse.lectureservicereactive.utils.StatusTransitions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,16 +58,41 @@ import java.util.stream.Collectors;
 public class LectureServiceImpl implements LectureService {
 
     private final SubscriptionService subscriptionService;
+    private final AnswerKeyService answerKeyService;
+    private final QuestionContentService questionContentService;
+    private final LiveLectureService liveLectureService;
     private final LectureRepository lectureRepository;
     private final QuestionServiceClient questionServiceClient;
     private final ChapterServiceClient chapterServiceClient;
     private final LectureQuestionRepository lectureQuestionRepository;
     private final TransactionalOperator transactionalOperator;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final DatabaseClient databaseClient;
+    private final MeterRegistry meterRegistry;
+
+    private static final String UPDATE_STATUS =
+            "UPDATE lectures SET status = :next, updated_at = :updatedAt" +
+            " WHERE lecture_id = :id AND status IN (:allowedFrom) RETURNING *";
+    private static final String INSERT_QUESTIONS_PREFIX =
+            "INSERT INTO lecture_questions (lecture_id, question_id, status, created_at, updated_at) VALUES ";
+    // Two parameters per row, far below the 65535 Postgres allows per statement
+    private static final int QUESTION_INSERT_BATCH_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CACHED_COUNTS = 1024;
+    private static final LectureFilterInput NO_FILTER = new LectureFilterInput(null, null, null);
+
+    private final Map<LectureFilterInput, CachedCount> lectureCounts = new ConcurrentHashMap<>();
+
+    @Value("${lecture.pagination.count-cache-ttl:30s}")
+    private Duration countCacheTtl;
 
     @Override
     public Mono<Lecture> findLectureById(UUID lectureId) {
         log.debug("Finding lecture by ID: {}", lectureId);
+        Optional<Lecture> live = liveLectureService.findLecture(lectureId);
+        if (live.isPresent()) {
+            return Mono.just(live.get());
+        }
         return lectureRepository.findById(lectureId)
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Lecture", lectureId)));
     }
@@ -118,18 +161,8 @@ public class LectureServiceImpl implements LectureService {
                                 .flatMap(savedLecture -> {
                                     log.info("Saved lecture with ID: {}", savedLecture.getLectureId());
                                     if (!questionIds.isEmpty()) {
-                                        List<LectureQuestion> questionsToSave = questionIds.stream()
-                                                .map(qId -> {
-                                                    LectureQuestion lq = new LectureQuestion();
-                                                    lq.setLectureId(savedLecture.getLectureId());
-                                                    lq.setQuestionId(qId);
-                                                    return lq;
-                                                })
-                                                .collect(Collectors.toList());
-
-                                        log.debug("Saving {} lecture questions for lecture ID: {}", questionsToSave.size(), savedLecture.getLectureId());
-                                        return lectureQuestionRepository.saveAll(questionsToSave)
-                                                .collectList()
+                                        log.debug("Saving {} lecture questions for lecture ID: {}", questionIds.size(), savedLecture.getLectureId());
+                                        return insertLectureQuestions(savedLecture.getLectureId(), questionIds)
                                                 .thenReturn(savedLecture);
                                     } else {
                                         return Mono.just(savedLecture);
@@ -150,19 +183,12 @@ public class LectureServiceImpl implements LectureService {
     @Override
     public Mono<Lecture> updateLectureStatus(UpdateLectureStatusInput input) {
         log.info("Updating status for lecture ID: {} to {}", input.lectureId(), input.status());
-        return lectureRepository.findById(input.lectureId())
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Lecture", input.lectureId())))
-                .flatMap(lecture -> {
-                    if (!isValidStatusTransition(lecture.getStatus(), input.status())) {
-                        log.warn("Invalid status transition from {} to {} for lecture {}", lecture.getStatus(), input.status(), input.lectureId());
-                        return Mono.error(new InvalidStatusTransitionException(
-                                "Cannot transition lecture from " + lecture.getStatus() + " to " + input.status()));
-                    }
-                    log.debug("Updating lecture {} status from {} to {}", lecture.getLectureId(), lecture.getStatus(), input.status());
-                    lecture.setStatus(input.status());
-                    return lectureRepository.save(lecture);
-                })
-                .as(transactionalOperator::transactional)
+        // A live lecture transitions in memory and is evicted once it has been written
+        return liveLectureService.transitionLecture(input.lectureId(), input.status())
+                .switchIfEmpty(Mono.defer(() -> updateStoredStatus(input)))
+                .delayUntil(this::syncLiveState)
+                .delayUntil(this::syncAnswerKeys)
+                .delayUntil(this::syncQuestionContent)
                 .doOnSuccess(updatedLecture -> {
                     log.info("Publishing update events for lecture ID: {}", updatedLecture.getLectureId());
                     subscriptionService.publishLectureEvent(new LectureUpdatedEvent(updatedLecture));
@@ -179,21 +205,16 @@ public class LectureServiceImpl implements LectureService {
         return lectureRepository.findById(input.lectureId())
                 .switchIfEmpty(Mono.error(new ResourceNotFoundException("Lecture", input.lectureId())))
                 .flatMap(lecture -> {
-                    List<LectureQuestion> questionsToSave = input.questions().stream()
-                            .map(qInput -> {
-                                LectureQuestion lq = new LectureQuestion();
-                                lq.setLectureId(lecture.getLectureId()); // Set FK
-                                lq.setQuestionId(qInput.questionId());
-                                return lq;
-                            })
-                            .collect(Collectors.toList());
-
-                    log.debug("Adding {} new lecture questions for lecture ID: {}", questionsToSave.size(), lecture.getLectureId());
-                    return lectureQuestionRepository.saveAll(questionsToSave)
-                            .collectList()
+                    List<UUID> questionIds = input.questions().stream()
+                            .map(CreateLectureQuestionInput::questionId)
+                            .toList();
+
+                    log.debug("Adding {} new lecture questions for lecture ID: {}", questionIds.size(), lecture.getLectureId());
+                    return insertLectureQuestions(lecture.getLectureId(), questionIds)
                             .thenReturn(lecture);
                 })
                 .as(transactionalOperator::transactional)
+                .delayUntil(this::syncLiveState)
                 .doOnSuccess(updatedLecture -> {
                     log.info("Publishing update event after adding questions to lecture ID: {}", updatedLecture.getLectureId());
                     subscriptionService.publishLectureEvent(new LectureUpdatedEvent(updatedLecture));
@@ -204,6 +225,62 @@ public class LectureServiceImpl implements LectureService {
                         e -> new OperationFailedException("Failed to add questions to lecture", e));
     }
 
+    /**
+     * Inserts the questions of a lecture with one multi-row {@code INSERT ... RETURNING} per batch
+     * instead of one statement per question. Creation times step by a microsecond, so the questions
+     * keep their input order (live lectures order their questions by creation time).
+     */
+    private Mono<List<LectureQuestion>> insertLectureQuestions(UUID lectureId, List<UUID> questionIds) {
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int batches = (questionIds.size() + QUESTION_INSERT_BATCH_SIZE - 1) / QUESTION_INSERT_BATCH_SIZE;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Flux.range(0, batches)
+                .concatMap(batch -> {
+                    int from = batch * QUESTION_INSERT_BATCH_SIZE;
+                    int to = Math.min(from + QUESTION_INSERT_BATCH_SIZE, questionIds.size());
+                    return insertLectureQuestionBatch(lectureId, questionIds.subList(from, to), createdAt, from);
+                })
+                .collectList()
+                .doOnSuccess(inserted -> sample.stop(Timer.builder("lecture.questions.insert")
+                        .description("Latency of inserting the questions of one lecture")
+                        .tag("questions", sizeBucket(questionIds.size()))
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry)));
+    }
+
+    private Flux<LectureQuestion> insertLectureQuestionBatch(UUID lectureId, List<UUID> questionIds,
+                                                             LocalDateTime createdAt, int firstIndex) {
+        StringBuilder sql = new StringBuilder(INSERT_QUESTIONS_PREFIX);
+        for (int i = 0; i < questionIds.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:lectureId, :q").append(i).append(", :status, :c").append(i).append(", :updatedAt)");
+        }
+        sql.append(" RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("lectureId", lectureId)
+                .bind("status", LectureQuestion.LectureQuestionStatus.PENDING.name())
+                .bind("updatedAt", createdAt);
+        for (int i = 0; i < questionIds.size(); i++) {
+            spec = spec.bind("q" + i, questionIds.get(i))
+                    .bind("c" + i, createdAt.plus(firstIndex + i, ChronoUnit.MICROS));
+        }
+        return spec.map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(LectureQuestion.class, row, metadata))
+                .all();
+    }
+
+    private static String sizeBucket(int questions) {
+        if (questions <= 1) {
+            return "1";
+        }
+        if (questions <= 10) {
+            return "2-10";
+        }
+        return questions <= 100 ? "11-100" : "101+";
+    }
+
     @Override
     public Mono<Lecture> removeQuestionsFromLecture(RemoveQuestionsFromLectureInput input) {
         log.info("Removing {} questions from lecture ID: {}", input.lectureQuestionIds().size(), input.lectureId());
@@ -219,6 +296,7 @@ public class LectureServiceImpl implements LectureService {
                     subscriptionService.publishLectureUpdate(updatedLecture);
                 })
                 .as(transactionalOperator::transactional)
+                .delayUntil(this::syncLiveState)
                 .doOnError(error -> log.error("Error removing questions from lecture: {}", error.getMessage(), error))
                 .onErrorMap(e -> !(e instanceof ResourceNotFoundException),
                         e -> new OperationFailedException("Failed to remove questions from lecture", e));
@@ -227,36 +305,92 @@ public class LectureServiceImpl implements LectureService {
     @Override
     public Mono<Long> countLectures(LectureFilterInput filter) {
         log.debug("Counting lectures with filter: {}", filter);
+        Query query = Query.query(buildCriteriaFromFilter(filter));
+        return r2dbcEntityTemplate.count(query, Lecture.class);
+    }
 
-        Criteria criteria = Criteria.empty();
+    @Override
+    public Mono<Long> estimateLectureCount(LectureFilterInput filter) {
+        LectureFilterInput key = filter != null ? filter : NO_FILTER;
+        CachedCount cached = lectureCounts.get(key);
+        if (cached != null && cached.isFresh(countCacheTtl)) {
+            return Mono.just(cached.value());
+        }
+        return countLectures(filter)
+                .doOnNext(count -> {
+                    if (lectureCounts.size() >= MAX_CACHED_COUNTS) {
+                        lectureCounts.values().removeIf(entry -> !entry.isFresh(countCacheTtl));
+                    }
+                    lectureCounts.put(key, new CachedCount(count, System.nanoTime()));
+                });
+    }
 
-        if (filter != null) {
-            List<Criteria> criteriaList = new ArrayList<>();
-            if (filter.facultyId() != null) {
-                criteriaList.add(Criteria.where("faculty_id").is(filter.facultyId()));
+    @Override
+    public Mono<LectureConnection> findLectureConnection(LectureFilterInput filter, int first, String after) {
+        return Mono.defer(() -> {
+            if (first < 1 || first > MAX_PAGE_SIZE) {
+                return Mono.error(new IllegalArgumentException("'first' must be between 1 and " + MAX_PAGE_SIZE));
             }
-            if (filter.chapterId() != null) {
-                criteriaList.add(Criteria.where("chapter_id").is(filter.chapterId()));
+            log.debug("Finding lectures with filter: {}, first: {}, after: {}", filter, first, after);
+
+            List<String> conditions = new ArrayList<>();
+            Map<String, Object> bindings = new HashMap<>();
+            if (filter != null) {
+                if (filter.facultyId() != null) {
+                    conditions.add("faculty_id = :facultyId");
+                    bindings.put("facultyId", filter.facultyId());
+                }
+                if (filter.chapterId() != null) {
+                    conditions.add("chapter_id = :chapterId");
+                    bindings.put("chapterId", filter.chapterId());
+                }
+                if (filter.status() != null) {
+                    conditions.add("status = :status");
+                    bindings.put("status", filter.status().name());
+                }
             }
-            if (filter.status() != null) {
-                criteriaList.add(Criteria.where("status").is(filter.status().name()));
+            UUID cursorId = after != null ? CursorCodec.decode(after) : null;
+            if (cursorId != null) {
+                // Seek past the cursor row; served by the (filter columns, created_at, lecture_id) indexes
+                conditions.add("(created_at, lecture_id) < (SELECT c.created_at, c.lecture_id FROM lectures c WHERE c.lecture_id = :after)");
+                bindings.put("after", cursorId);
             }
-            if (!criteriaList.isEmpty()) {
-                criteria = criteriaList.stream().reduce(Criteria.empty(), Criteria::and);
+
+            StringBuilder sql = new StringBuilder("SELECT * FROM lectures");
+            if (!conditions.isEmpty()) {
+                sql.append(" WHERE ").append(String.join(" AND ", conditions));
             }
-        }
+            // One extra row tells whether another page exists
+            sql.append(" ORDER BY created_at DESC, lecture_id DESC LIMIT :limit");
+            bindings.put("limit", first + 1);
 
-        Query query = Query.query(criteria);
-        return r2dbcEntityTemplate.count(query, Lecture.class);
+            Mono<LectureConnection> page = databaseClient.sql(sql.toString())
+                    .bindValues(bindings)
+                    .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Lecture.class, row, metadata))
+                    .all()
+                    .collectList()
+                    .map(lectures -> toConnection(lectures, filter, first, after));
+            if (cursorId == null) {
+                return page;
+            }
+            // A deleted cursor row would seek past nothing and look like the end of the data
+            return lectureRepository.existsById(cursorId)
+                    .flatMap(exists -> exists ? page : Mono.error(new IllegalArgumentException("Unknown cursor: " + after)));
+        });
     }
 
-    @Override
-    public Flux<Lecture> findLectures(LectureFilterInput filter, Pageable pageable) {
-        log.debug("Finding lectures with filter: {}, pageable: {}", filter, pageable);
-
-        Criteria criteria = buildCriteriaFromFilter(filter);
-        Query query = Query.query(criteria).with(pageable);
-        return r2dbcEntityTemplate.select(query, Lecture.class);
+    private LectureConnection toConnection(List<Lecture> lectures, LectureFilterInput filter, int first, String after) {
+        boolean hasNextPage = lectures.size() > first;
+        List<LectureEdge> edges = lectures.stream()
+                .limit(first)
+                .map(lecture -> new LectureEdge(CursorCodec.encode(lecture.getLectureId()), lecture))
+                .toList();
+        PageInfo pageInfo = new PageInfo(
+                hasNextPage,
+                after != null,
+                edges.isEmpty() ? null : edges.get(0).cursor(),
+                edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor());
+        return new LectureConnection(edges, pageInfo, filter);
     }
 
     private Criteria buildCriteriaFromFilter(LectureFilterInput filter) {
@@ -280,10 +414,64 @@ public class LectureServiceImpl implements LectureService {
     }
 
 
-    private boolean isValidStatusTransition(Lecture.LectureStatus current, Lecture.LectureStatus next) {
-        // Example: Allow moving forward, or to cancelled (but not back from completed/cancelled unless specific logic allows)
-        if (current == Lecture.LectureStatus.COMPLETED && next != Lecture.LectureStatus.COMPLETED) return false;
-        if (current == Lecture.LectureStatus.CANCELLED && next != Lecture.LectureStatus.CANCELLED) return false;
-        return true;
+    /**
+     * One round-trip: the row is only updated if its current status may move to the requested one,
+     * so of two conflicting concurrent transitions exactly the first one applies.
+     */
+    private Mono<Lecture> updateStoredStatus(UpdateLectureStatusInput input) {
+        return databaseClient.sql(UPDATE_STATUS)
+                .bind("next", input.status().name())
+                .bind("updatedAt", LocalDateTime.now())
+                .bind("id", input.lectureId())
+                .bind("allowedFrom", StatusTransitions.allowedFrom(input.status()))
+                .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Lecture.class, row, metadata))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> rejectTransition(input)))
+                .doOnNext(lecture -> log.debug("Updated lecture {} status to {}", lecture.getLectureId(), lecture.getStatus()));
+    }
+
+    private Mono<Lecture> rejectTransition(UpdateLectureStatusInput input) {
+        return lectureRepository.findById(input.lectureId())
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Lecture", input.lectureId())))
+                .flatMap(lecture -> {
+                    log.warn("Invalid status transition from {} to {} for lecture {}", lecture.getStatus(), input.status(), input.lectureId());
+                    return Mono.error(new InvalidStatusTransitionException(
+                            "Cannot transition lecture from " + lecture.getStatus() + " to " + input.status()));
+                });
+    }
+
+    private Mono<Void> syncLiveState(Lecture lecture) {
+        if (lecture.getStatus() != Lecture.LectureStatus.IN_PROGRESS) {
+            return Mono.empty();
+        }
+        return liveLectureService.load(lecture.getLectureId())
+                .doOnError(e -> log.warn("Could not load live state of lecture {}: {}", lecture.getLectureId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> syncAnswerKeys(Lecture lecture) {
+        Mono<Void> sync = switch (lecture.getStatus()) {
+            case IN_PROGRESS -> answerKeyService.preloadForLecture(lecture.getLectureId());
+            case COMPLETED, CANCELLED -> answerKeyService.evictForLecture(lecture.getLectureId());
+            default -> Mono.empty();
+        };
+        return sync
+                .doOnError(e -> log.warn("Could not sync answer keys for lecture {}: {}", lecture.getLectureId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> syncQuestionContent(Lecture lecture) {
+        if (lecture.getStatus() != Lecture.LectureStatus.COMPLETED && lecture.getStatus() != Lecture.LectureStatus.CANCELLED) {
+            return Mono.empty();
+        }
+        return questionContentService.evictForLecture(lecture.getLectureId())
+                .doOnError(e -> log.warn("Could not evict question content for lecture {}: {}", lecture.getLectureId(), e.getMessage()))
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private record CachedCount(long value, long computedAtNanos) {
+        boolean isFresh(Duration ttl) {
+            return System.nanoTime() - computedAtNanos < ttl.toNanos();
+        }
     }
 }
\ No newline at end of file
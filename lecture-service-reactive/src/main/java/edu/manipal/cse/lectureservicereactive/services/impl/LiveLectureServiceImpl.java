@@ -0,0 +1,454 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureUpdatedEvent;
+import edu.manipal.cse.lectureservicereactive.exceptions.InvalidStatusTransitionException;
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureRepository;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.SerializedEmitter;
+import edu.manipal.cse.lectureservicereactive.utils.StatusTransitions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class LiveLectureServiceImpl implements LiveLectureService {
+
+    private static final int LOAD_CONCURRENCY = 4;
+    private static final String WRITE_QUESTION_STATUS =
+            "UPDATE lecture_questions SET status = :status, closes_at = :closesAt, updated_at = :updatedAt" +
+            " WHERE lecture_question_id = :id AND status IN (:allowedFrom)";
+    private static final Comparator<LectureQuestion> CREATION_ORDER = Comparator
+            .comparing(LectureQuestion::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(LectureQuestion::getLectureQuestionId);
+
+    private final LectureRepository lectureRepository;
+    private final LectureQuestionRepository lectureQuestionRepository;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final SubscriptionService subscriptionService;
+    private final int writeRetries;
+
+    private final Map<UUID, LiveLecture> lectures = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> lectureIdByQuestion = new ConcurrentHashMap<>();
+    // Installing and evicting lectures is rare; one lock keeps a slow load from resurrecting an evicted lecture
+    private final Object lifecycleLock = new Object();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final SerializedEmitter<PendingWrite> writes;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final Counter writeFailures;
+    private Disposable writer;
+    private Disposable lifecycle;
+    private Disposable transitions;
+
+    public LiveLectureServiceImpl(LectureRepository lectureRepository,
+                                  LectureQuestionRepository lectureQuestionRepository,
+                                  R2dbcEntityTemplate r2dbcEntityTemplate,
+                                  SubscriptionService subscriptionService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${lecture.live.state.write-retries:3}") int writeRetries) {
+        this.lectureRepository = lectureRepository;
+        this.lectureQuestionRepository = lectureQuestionRepository;
+        this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+        this.subscriptionService = subscriptionService;
+        this.writeRetries = writeRetries;
+        this.writes = new SerializedEmitter<>(Sinks.unsafe().many().unicast().onBackpressureBuffer(),
+                result -> log.error("Live lecture state write could not be queued: {}", result));
+
+        this.writeFailures = Counter.builder("lecture.live.state.write.failures")
+                .description("Live lecture state writes that failed after retries")
+                .register(meterRegistry);
+        Gauge.builder("lecture.live.state.lectures", lectures, Map::size)
+                .description("IN_PROGRESS lectures held in memory")
+                .register(meterRegistry);
+        Gauge.builder("lecture.live.state.pending.writes", pendingWrites, AtomicInteger::get)
+                .description("Live lecture state changes not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startWriter() {
+        // One write at a time keeps the database in the order the transitions were applied in memory
+        writer = writes.sink().asFlux()
+                .concatMap(this::persist)
+                .subscribe();
+        // Lectures started, changed or ended on any instance
+        lifecycle = subscriptionService.lectureActivityStream()
+                .ofType(LectureUpdatedEvent.class)
+                .subscribe(event -> onLectureUpdated(event.lecture()));
+        // Question transitions applied on any instance, including those of lectures loaded later
+        transitions = subscriptionService.lectureQuestionTransitions()
+                .subscribe(this::apply);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadLiveLectures() {
+        lectureRepository.findByStatus(Lecture.LectureStatus.IN_PROGRESS)
+                .flatMap(lecture -> load(lecture.getLectureId()), LOAD_CONCURRENCY)
+                .doOnComplete(() -> log.info("Loaded {} live lectures into memory", lectures.size()))
+                .doOnError(e -> log.error("Failed to load live lectures on startup", e))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (lifecycle != null) {
+            lifecycle.dispose();
+        }
+        if (transitions != null) {
+            transitions.dispose();
+        }
+        if (pendingWrites.get() > 0) {
+            log.info("Waiting for {} pending live lecture state writes", pendingWrites.get());
+            enqueue(null, "shutdown barrier", Mono.empty()).block(Duration.ofSeconds(10));
+        }
+        if (writer != null) {
+            writer.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Void> load(UUID lectureId) {
+        return load(lectureId, false);
+    }
+
+    @Override
+    public boolean isLive(UUID lectureId) {
+        return lectures.containsKey(lectureId);
+    }
+
+    @Override
+    public Optional<Lecture> findLecture(UUID lectureId) {
+        LiveLecture live = lectures.get(lectureId);
+        return live == null ? Optional.empty() : Optional.of(live.lecture);
+    }
+
+    @Override
+    public Optional<LectureQuestion> findLectureQuestion(UUID lectureQuestionId) {
+        LiveLecture live = liveLectureOf(lectureQuestionId);
+        return live == null ? Optional.empty() : Optional.ofNullable(live.questions.get(lectureQuestionId));
+    }
+
+    @Override
+    public Optional<List<LectureQuestion>> findQuestions(UUID lectureId) {
+        LiveLecture live = lectures.get(lectureId);
+        if (live == null) {
+            return Optional.empty();
+        }
+        List<LectureQuestion> questions = new ArrayList<>(live.questions.values());
+        questions.sort(CREATION_ORDER);
+        return Optional.of(questions);
+    }
+
+    @Override
+    public Optional<UUID> findActiveQuestionId(UUID lectureId) {
+        LiveLecture live = lectures.get(lectureId);
+        return live == null ? Optional.empty() : Optional.ofNullable(live.activeQuestionId);
+    }
+
+    @Override
+    public Mono<LectureQuestion> transitionQuestion(UUID lectureQuestionId, LectureQuestion.LectureQuestionStatus status, Instant closesAt) {
+        return Mono.defer(() -> {
+            LiveLecture live = liveLectureOf(lectureQuestionId);
+            if (live == null) {
+                return Mono.empty();
+            }
+            LectureQuestion updated;
+            synchronized (live) {
+                LectureQuestion current = live.questions.get(lectureQuestionId);
+                if (live.evicted || current == null) {
+                    return Mono.empty();
+                }
+                if (!StatusTransitions.isAllowed(current.getStatus(), status)) {
+                    log.warn("Invalid status transition from {} to {} for lecture question {}", current.getStatus(), status, lectureQuestionId);
+                    return Mono.error(new InvalidStatusTransitionException(
+                            "Cannot transition lecture question from " + current.getStatus() + " to " + status));
+                }
+                log.debug("Transitioning live lecture question {} from {} to {}", lectureQuestionId, current.getStatus(), status);
+                updated = withStatus(current, status,
+                        status == LectureQuestion.LectureQuestionStatus.ACTIVE ? closesAt : current.getClosesAt());
+                live.put(updated);
+                // Enqueued under the lock so writes of one lecture reach the database in the order they were applied
+                enqueue(live.lecture.getLectureId(), "status of lecture question " + lectureQuestionId, writeStatus(updated));
+            }
+            return Mono.just(updated);
+        });
+    }
+
+    @Override
+    public Mono<Lecture> transitionLecture(UUID lectureId, Lecture.LectureStatus status) {
+        return Mono.defer(() -> {
+            LiveLecture live = lectures.get(lectureId);
+            if (live == null) {
+                return Mono.empty();
+            }
+            Lecture updated;
+            Mono<Void> written;
+            synchronized (live) {
+                Lecture current = live.lecture;
+                if (live.evicted) {
+                    return Mono.empty();
+                }
+                if (!StatusTransitions.isAllowed(current.getStatus(), status)) {
+                    log.warn("Invalid status transition from {} to {} for lecture {}", current.getStatus(), status, lectureId);
+                    return Mono.error(new InvalidStatusTransitionException(
+                            "Cannot transition lecture from " + current.getStatus() + " to " + status));
+                }
+                if (current.getStatus() == status) {
+                    return Mono.just(current);
+                }
+                updated = withStatus(current, status);
+                live.lecture = updated;
+                written = enqueue(lectureId, "status of lecture " + lectureId, writeStatus(updated));
+            }
+            // The lecture is no longer IN_PROGRESS: hand it back to the database once everything it queued has landed
+            return written
+                    .then(Mono.fromRunnable(() -> evict(lectureId)))
+                    .then(Mono.defer(() -> enqueue(lectureId, "eviction barrier", Mono.empty())))
+                    .thenReturn(updated);
+        });
+    }
+
+    private Mono<Void> load(UUID lectureId, boolean replace) {
+        return Mono.defer(() -> {
+            long seenEvictions = evictions.get();
+            return lectureRepository.findById(lectureId)
+                    .flatMap(lecture -> {
+                        if (lecture.getStatus() != Lecture.LectureStatus.IN_PROGRESS) {
+                            evict(lectureId);
+                            return Mono.empty();
+                        }
+                        return lectureQuestionRepository.findByLectureId(lectureId)
+                                .collectList()
+                                .flatMap(questions -> install(lecture, questions, replace, seenEvictions)
+                                        ? Mono.<Void>empty()
+                                        // A lecture was evicted while this one was read; read it again
+                                        : load(lectureId, replace));
+                    });
+        });
+    }
+
+    private boolean install(Lecture lecture, List<LectureQuestion> questions, boolean replace, long seenEvictions) {
+        UUID lectureId = lecture.getLectureId();
+        synchronized (lifecycleLock) {
+            LiveLecture live = lectures.get(lectureId);
+            boolean added = live == null;
+            if (added) {
+                if (evictions.get() != seenEvictions) {
+                    return false;
+                }
+                live = new LiveLecture(lecture);
+                lectures.put(lectureId, live);
+            }
+            synchronized (live) {
+                if (replace || isNewer(lecture.getUpdatedAt(), live.lecture.getUpdatedAt())) {
+                    live.lecture = lecture;
+                }
+                Set<UUID> loaded = new HashSet<>();
+                for (LectureQuestion question : questions) {
+                    UUID lectureQuestionId = question.getLectureQuestionId();
+                    loaded.add(lectureQuestionId);
+                    LectureQuestion current = live.questions.get(lectureQuestionId);
+                    if (replace || current == null || isNewer(question.getUpdatedAt(), current.getUpdatedAt())) {
+                        live.put(question);
+                    }
+                    lectureIdByQuestion.put(lectureQuestionId, lectureId);
+                }
+                for (UUID removed : new ArrayList<>(live.questions.keySet())) {
+                    if (!loaded.contains(removed)) {
+                        live.remove(removed);
+                        lectureIdByQuestion.remove(removed);
+                    }
+                }
+            }
+            if (added) {
+                log.info("Live lecture {} loaded with {} questions", lectureId, questions.size());
+            } else {
+                log.debug("Live lecture {} reloaded with {} questions", lectureId, questions.size());
+            }
+            return true;
+        }
+    }
+
+    private void evict(UUID lectureId) {
+        LiveLecture live;
+        synchronized (lifecycleLock) {
+            live = lectures.remove(lectureId);
+            if (live == null) {
+                return;
+            }
+            evictions.incrementAndGet();
+            synchronized (live) {
+                live.evicted = true;
+                live.questions.keySet().forEach(lectureIdByQuestion::remove);
+            }
+        }
+        log.info("Live lecture {} evicted from memory", lectureId);
+    }
+
+    private void onLectureUpdated(Lecture lecture) {
+        if (lecture.getStatus() == Lecture.LectureStatus.IN_PROGRESS) {
+            // Started elsewhere, or its questions changed
+            load(lecture.getLectureId())
+                    .subscribe(null, e -> log.warn("Could not load live lecture {}: {}", lecture.getLectureId(), e.getMessage()));
+        } else if (isLive(lecture.getLectureId())) {
+            // Ended on another instance, which already wrote it
+            evict(lecture.getLectureId());
+        }
+    }
+
+    private void apply(LectureQuestion incoming) {
+        LiveLecture live = liveLectureOf(incoming.getLectureQuestionId());
+        if (live == null) {
+            return;
+        }
+        synchronized (live) {
+            LectureQuestion current = live.questions.get(incoming.getLectureQuestionId());
+            if (current != null && current != incoming && isNewer(incoming.getUpdatedAt(), current.getUpdatedAt())) {
+                live.put(incoming);
+            }
+        }
+    }
+
+    private LiveLecture liveLectureOf(UUID lectureQuestionId) {
+        UUID lectureId = lectureIdByQuestion.get(lectureQuestionId);
+        return lectureId == null ? null : lectures.get(lectureId);
+    }
+
+    private Mono<Void> enqueue(UUID lectureId, String description, Mono<Void> write) {
+        PendingWrite pending = new PendingWrite(lectureId, description, write, Sinks.empty());
+        pendingWrites.incrementAndGet();
+        writes.emit(pending);
+        return pending.done().asMono();
+    }
+
+    private Mono<Void> persist(PendingWrite pending) {
+        return pending.write()
+                .retryWhen(Retry.backoff(writeRetries, Duration.ofMillis(100))
+                        // A lost race is final; the resync below adopts the winner
+                        .filter(e -> !(e instanceof InvalidStatusTransitionException)))
+                .doOnSuccess(ignored -> pending.done().tryEmitEmpty())
+                .onErrorResume(e -> {
+                    writeFailures.increment();
+                    log.error("Failed to write {} of live lecture {}, resyncing it from the database",
+                            pending.description(), pending.lectureId(), e);
+                    pending.done().tryEmitError(e);
+                    // Queued behind the writes still pending, so the reload sees everything that did land
+                    enqueue(pending.lectureId(), "resync", load(pending.lectureId(), true)
+                            .onErrorResume(reloadError -> {
+                                log.error("Failed to resync live lecture {}, evicting it", pending.lectureId(), reloadError);
+                                evict(pending.lectureId());
+                                return Mono.empty();
+                            }));
+                    return Mono.empty();
+                })
+                .doFinally(signal -> pendingWrites.decrementAndGet());
+    }
+
+    // Conditional like every other transition: a row another instance moved on in the meantime is not overwritten
+    private Mono<Void> writeStatus(LectureQuestion lq) {
+        return Mono.defer(() -> {
+            DatabaseClient.GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(WRITE_QUESTION_STATUS)
+                    .bind("status", lq.getStatus().name())
+                    .bind("updatedAt", lq.getUpdatedAt())
+                    .bind("id", lq.getLectureQuestionId())
+                    .bind("allowedFrom", StatusTransitions.allowedFrom(lq.getStatus()));
+            spec = lq.getClosesAt() != null
+                    ? spec.bind("closesAt", lq.getClosesAt())
+                    : spec.bindNull("closesAt", Instant.class);
+            return spec.fetch().rowsUpdated();
+        }).flatMap(rows -> rows > 0 ? Mono.<Void>empty() : Mono.error(new InvalidStatusTransitionException(
+                "Lecture question " + lq.getLectureQuestionId() + " was changed concurrently")));
+    }
+
+    private Mono<Void> writeStatus(Lecture lecture) {
+        return Mono.defer(() -> r2dbcEntityTemplate.update(Lecture.class)
+                .matching(Query.query(Criteria.where("lecture_id").is(lecture.getLectureId())
+                        .and("status").in(StatusTransitions.allowedFrom(lecture.getStatus()))))
+                .apply(Update.update("status", lecture.getStatus().name()).set("updated_at", lecture.getUpdatedAt()))
+                .flatMap(rows -> rows > 0 ? Mono.<Void>empty() : Mono.error(new InvalidStatusTransitionException(
+                        "Lecture " + lecture.getLectureId() + " was changed concurrently"))));
+    }
+
+    private static LectureQuestion withStatus(LectureQuestion lq, LectureQuestion.LectureQuestionStatus status, Instant closesAt) {
+        // Copies, so instances already handed out (and published) never change underneath their readers
+        return new LectureQuestion(lq.getLectureQuestionId(), lq.getLectureId(), lq.getQuestionId(), status,
+                closesAt, lq.getCreatedAt(), LocalDateTime.now());
+    }
+
+    private static Lecture withStatus(Lecture lecture, Lecture.LectureStatus status) {
+        return new Lecture(lecture.getLectureId(), lecture.getFacultyId(), lecture.getChapterId(), lecture.getTitle(),
+                status, lecture.getCreatedAt(), LocalDateTime.now());
+    }
+
+    private static boolean isNewer(LocalDateTime candidate, LocalDateTime current) {
+        return candidate != null && (current == null || !candidate.isBefore(current));
+    }
+
+    private record PendingWrite(UUID lectureId, String description, Mono<Void> write, Sinks.Empty<Void> done) {}
+
+    /**
+     * State of one live lecture; guarded by its own monitor.
+     */
+    private static final class LiveLecture {
+        private volatile Lecture lecture;
+        private final Map<UUID, LectureQuestion> questions = new ConcurrentHashMap<>();
+        private volatile UUID activeQuestionId;
+        private boolean evicted;
+
+        private LiveLecture(Lecture lecture) {
+            this.lecture = lecture;
+        }
+
+        private void put(LectureQuestion lq) {
+            questions.put(lq.getLectureQuestionId(), lq);
+            if (lq.getStatus() == LectureQuestion.LectureQuestionStatus.ACTIVE) {
+                activeQuestionId = lq.getLectureQuestionId();
+            } else if (lq.getLectureQuestionId().equals(activeQuestionId)) {
+                activeQuestionId = null;
+            }
+        }
+
+        private void remove(UUID lectureQuestionId) {
+            questions.remove(lectureQuestionId);
+            if (lectureQuestionId.equals(activeQuestionId)) {
+                activeQuestionId = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.clients.QuestionServiceClient;
+import edu.manipal.cse.lectureservicereactive.dto.client.questions.AnswerResponse;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerOption;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.QuestionContent;
+import edu.manipal.cse.lectureservicereactive.dto.response.QuestionResponse;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.services.QuestionContentService;
+import edu.manipal.cse.lectureservicereactive.utils.QuestionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class QuestionContentServiceImpl implements QuestionContentService {
+
+    private final QuestionServiceClient questionServiceClient;
+    private final LectureQuestionRepository lectureQuestionRepository;
+
+    private final QuestionCache<QuestionContent> questions;
+    // Fetches in flight, by each question they fetch
+    private final Map<UUID, Mono<Map<UUID, QuestionContent>>> fetching = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuestionContentServiceImpl(QuestionServiceClient questionServiceClient,
+                                      LectureQuestionRepository lectureQuestionRepository,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${lecture.questions.cache.max-entries:10000}") int maxEntries) {
+        this.questionServiceClient = questionServiceClient;
+        this.lectureQuestionRepository = lectureQuestionRepository;
+        this.questions = new QuestionCache<>(maxEntries);
+        this.hits = meterRegistry.counter("lecture.questions.content.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("lecture.questions.content.lookups", "result", "miss");
+        Gauge.builder("lecture.questions.content.cached", questions, QuestionCache::size)
+                .description("Questions whose content is cached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Map<UUID, QuestionContent>> findQuestions(Collection<LectureQuestion> lectureQuestions) {
+        return Mono.defer(() -> {
+            Map<UUID, Set<UUID>> lectureIdsByQuestion = new LinkedHashMap<>();
+            lectureQuestions.forEach(lq -> lectureIdsByQuestion
+                    .computeIfAbsent(lq.getQuestionId(), questionId -> new HashSet<>())
+                    .add(lq.getLectureId()));
+            Map<UUID, QuestionContent> found = new HashMap<>();
+            List<Mono<Map<UUID, QuestionContent>>> pending = new ArrayList<>();
+            List<UUID> toFetch = new ArrayList<>();
+            for (Map.Entry<UUID, Set<UUID>> entry : lectureIdsByQuestion.entrySet()) {
+                UUID questionId = entry.getKey();
+                Optional<QuestionContent> cached = questions.get(questionId);
+                if (cached.isPresent()) {
+                    hits.increment();
+                    found.put(questionId, cached.get());
+                    entry.getValue().forEach(lectureId -> questions.hold(questionId, lectureId));
+                    continue;
+                }
+                misses.increment();
+                Mono<Map<UUID, QuestionContent>> inFlight = fetching.get(questionId);
+                if (inFlight != null) {
+                    pending.add(inFlight);
+                } else {
+                    toFetch.add(questionId);
+                }
+            }
+            if (!toFetch.isEmpty()) {
+                pending.add(fetch(toFetch));
+            }
+            if (pending.isEmpty()) {
+                return Mono.just(found);
+            }
+            return Flux.merge(pending)
+                    .doOnNext(fetched -> lectureIdsByQuestion.forEach((questionId, lectureIds) -> {
+                        QuestionContent content = fetched.get(questionId);
+                        if (content != null) {
+                            found.put(questionId, content);
+                            // Held by every lecture it was looked up for, until those lectures end
+                            lectureIds.forEach(lectureId -> questions.put(questionId, content, lectureId));
+                        }
+                    }))
+                    .then(Mono.fromSupplier(() -> found));
+        });
+    }
+
+    private Mono<Map<UUID, QuestionContent>> fetch(List<UUID> questionIds) {
+        log.debug("Fetching content of {} questions", questionIds.size());
+        @SuppressWarnings("unchecked")
+        Mono<Map<UUID, QuestionContent>>[] self = new Mono[1];
+        self[0] = questionServiceClient.getQuestions(questionIds)
+                .map(responses -> {
+                    Map<UUID, QuestionContent> fetched = new HashMap<>();
+                    for (QuestionResponse response : responses) {
+                        QuestionContent content = toContent(response);
+                        fetched.put(content.questionId(), content);
+                    }
+                    return fetched;
+                })
+                .doFinally(signal -> questionIds.forEach(questionId -> fetching.remove(questionId, self[0])))
+                .cache();
+        questionIds.forEach(questionId -> fetching.putIfAbsent(questionId, self[0]));
+        return self[0];
+    }
+
+    @Override
+    public Mono<Void> evictForLecture(UUID lectureId) {
+        return lectureQuestionRepository.findByLectureId(lectureId)
+                .map(LectureQuestion::getQuestionId)
+                .collectList()
+                .doOnNext(questionIds -> {
+                    int dropped = questions.release(lectureId, questionIds);
+                    log.debug("Evicted content of {} questions for lecture ID: {}", dropped, lectureId);
+                })
+                .then();
+    }
+
+    private static QuestionContent toContent(QuestionResponse response) {
+        List<AnswerResponse> answers = response.getAnswers() != null ? response.getAnswers() : List.of();
+        return new QuestionContent(
+                response.getQuestionId(),
+                response.getTitle(),
+                response.getText(),
+                response.getQuestionType(),
+                answers.stream()
+                        .map(answer -> new AnswerOption(answer.getAnswerId(), answer.getText()))
+                        .toList());
+    }
+}
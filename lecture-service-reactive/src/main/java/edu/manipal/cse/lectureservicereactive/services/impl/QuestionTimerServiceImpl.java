@@ -0,0 +1,102 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.services.QuestionTimerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class QuestionTimerServiceImpl implements QuestionTimerService {
+
+    private final HashedWheelTimer wheel;
+    private final Map<UUID, Deadline> timeouts = new ConcurrentHashMap<>();
+    private final Counter expirations;
+
+    public QuestionTimerServiceImpl(MeterRegistry meterRegistry,
+                                    @Value("${lecture.live.question-timer.tick:100ms}") Duration tick,
+                                    @Value("${lecture.live.question-timer.wheel-size:512}") int wheelSize) {
+        // Deadlines fire up to one tick late; a question timer is measured in seconds
+        this.wheel = new HashedWheelTimer(new DefaultThreadFactory("question-timer", true),
+                tick.toMillis(), TimeUnit.MILLISECONDS, wheelSize);
+        this.expirations = Counter.builder("lecture.questions.timer.expirations")
+                .description("Timed lecture questions closed by their deadline")
+                .register(meterRegistry);
+        Gauge.builder("lecture.questions.timer.pending", timeouts, Map::size)
+                .description("Timed lecture questions waiting for their deadline")
+                .register(meterRegistry);
+        log.info("Question timer started: tick={}, wheelSize={}", tick, wheelSize);
+    }
+
+    @PreDestroy
+    void stop() {
+        // Deadlines still pending are closed by the expiry sweep of whichever instance runs it first
+        wheel.stop();
+    }
+
+    @Override
+    public void schedule(UUID lectureQuestionId, Instant closesAt, Runnable onExpiry) {
+        long delayMillis = Math.max(0, Duration.between(Instant.now(), closesAt).toMillis());
+        // Registered before it is armed, so even an immediate expiry finds its own entry
+        Deadline deadline = new Deadline();
+        Deadline previous = timeouts.put(lectureQuestionId, deadline);
+        if (previous != null) {
+            previous.cancel();
+        }
+        deadline.timeout = wheel.newTimeout(timeout -> {
+            if (!timeouts.remove(lectureQuestionId, deadline)) {
+                return;
+            }
+            expirations.increment();
+            log.debug("Deadline of lecture question {} reached", lectureQuestionId);
+            try {
+                onExpiry.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to close lecture question {} at its deadline", lectureQuestionId, e);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        log.debug("Lecture question {} closes in {} ms", lectureQuestionId, delayMillis);
+    }
+
+    @Override
+    public void cancel(UUID lectureQuestionId) {
+        Deadline deadline = timeouts.remove(lectureQuestionId);
+        if (deadline != null) {
+            deadline.cancel();
+            log.debug("Deadline of lecture question {} cancelled", lectureQuestionId);
+        }
+    }
+
+    @Override
+    public int pendingCount() {
+        return timeouts.size();
+    }
+
+    /**
+     * A deadline only fires while it is still the registered one; cancelling just releases the wheel slot early.
+     */
+    private static final class Deadline {
+        private volatile Timeout timeout;
+
+        private void cancel() {
+            Timeout armed = timeout;
+            if (armed != null) {
+                armed.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class ResponseCounterServiceImpl implements ResponseCounterService {
+
+    private final StudentResponseRepository studentResponseRepository;
+    private final LectureQuestionRepository lectureQuestionRepository;
+    private final LiveLectureService liveLectureService;
+    private final SubscriptionService subscriptionService;
+    private final Duration publishWindow;
+
+    private final Map<UUID, Counter> counters = new ConcurrentHashMap<>();
+    private Disposable publisher;
+
+    public ResponseCounterServiceImpl(StudentResponseRepository studentResponseRepository,
+                                      LectureQuestionRepository lectureQuestionRepository,
+                                      LiveLectureService liveLectureService,
+                                      SubscriptionService subscriptionService,
+                                      @Value("${lecture.live.response-count-window:200ms}") Duration publishWindow) {
+        this.studentResponseRepository = studentResponseRepository;
+        this.lectureQuestionRepository = lectureQuestionRepository;
+        this.liveLectureService = liveLectureService;
+        this.subscriptionService = subscriptionService;
+        this.publishWindow = publishWindow;
+    }
+
+    @PostConstruct
+    void startPublisher() {
+        // A single ticker for all questions: each window publishes the latest value of every changed counter
+        publisher = Flux.interval(publishWindow)
+                .onBackpressureDrop()
+                .subscribe(tick -> publishPending());
+        log.info("Response count publisher started with window {}", publishWindow);
+    }
+
+    @PreDestroy
+    void stopPublisher() {
+        if (publisher != null) {
+            publisher.dispose();
+        }
+        counters.values().forEach(counter -> counter.events.dispose());
+    }
+
+    @Override
+    public Mono<Integer> activate(UUID lectureQuestionId) {
+        Counter existing = counters.get(lectureQuestionId);
+        if (existing != null) {
+            return Mono.just(existing.value());
+        }
+        Counter counter = new Counter();
+        Counter raced = counters.putIfAbsent(lectureQuestionId, counter);
+        if (raced != null) {
+            return Mono.just(raced.value());
+        }
+        // Count every response published on any instance, and stop once the question is completed there
+        counter.events.add(subscriptionService.studentResponseStream(lectureQuestionId)
+                .subscribe(response -> counter.count(response.getResponseId())));
+        counter.events.add(subscriptionService.lectureQuestionTransitions()
+                .filter(lq -> lectureQuestionId.equals(lq.getLectureQuestionId()))
+                .filter(lq -> lq.getStatus() == LectureQuestion.LectureQuestionStatus.COMPLETED)
+                .subscribe(lq -> deactivate(lectureQuestionId)));
+
+        log.debug("Seeding response counter for lecture question {}", lectureQuestionId);
+        // Responses streamed while the seed runs may or may not be part of it; counting by id takes each once
+        return studentResponseRepository.findResponseIdsByLectureQuestionId(lectureQuestionId)
+                .doOnNext(counter::count)
+                .then(Mono.fromSupplier(() -> {
+                    counter.dirty.set(true);
+                    return counter.value();
+                }))
+                .doOnError(e -> {
+                    log.error("Failed to seed response counter for lecture question {}", lectureQuestionId, e);
+                    if (counters.remove(lectureQuestionId, counter)) {
+                        counter.events.dispose();
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Void> activateIfLive(UUID lectureQuestionId) {
+        if (counters.containsKey(lectureQuestionId)) {
+            return Mono.empty();
+        }
+        return findLectureQuestion(lectureQuestionId)
+                .filter(lq -> lq.getStatus() == LectureQuestion.LectureQuestionStatus.ACTIVE)
+                .flatMap(lq -> activate(lectureQuestionId))
+                .then();
+    }
+
+    private Mono<LectureQuestion> findLectureQuestion(UUID lectureQuestionId) {
+        return liveLectureService.findLectureQuestion(lectureQuestionId)
+                .map(Mono::just)
+                .orElseGet(() -> lectureQuestionRepository.findById(lectureQuestionId));
+    }
+
+    @Override
+    public void deactivate(UUID lectureQuestionId) {
+        Counter counter = counters.remove(lectureQuestionId);
+        if (counter != null) {
+            counter.events.dispose();
+            if (counter.dirty.getAndSet(false)) {
+                subscriptionService.publishResponseCountUpdate(new ResponseCount(lectureQuestionId, counter.value()));
+            }
+        }
+        log.debug("Stopped tracking response counter for lecture question {}", lectureQuestionId);
+    }
+
+    @Override
+    public Mono<Void> recordResponse(UUID lectureQuestionId) {
+        if (counters.containsKey(lectureQuestionId)) {
+            return Mono.empty(); // Counted from the studentResponded stream
+        }
+        // Not activated on this instance (e.g. after a restart): the seed query already includes this response
+        return activate(lectureQuestionId).then();
+    }
+
+    @Override
+    public Optional<Integer> currentCount(UUID lectureQuestionId) {
+        Counter counter = counters.get(lectureQuestionId);
+        return counter != null ? Optional.of(counter.value()) : Optional.empty();
+    }
+
+    private void publishPending() {
+        counters.forEach((lectureQuestionId, counter) -> {
+            if (counter.dirty.getAndSet(false)) {
+                subscriptionService.publishResponseCountUpdate(new ResponseCount(lectureQuestionId, counter.value()));
+            }
+        });
+    }
+
+    /**
+     * Counts distinct response ids; a live question holds at most one response per student.
+     */
+    private static final class Counter {
+        private final Set<UUID> responseIds = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private final Disposable.Composite events = Disposables.composite();
+
+        private void count(UUID responseId) {
+            if (responseIds.add(responseId)) {
+                dirty.set(true);
+            }
+        }
+
+        private int value() {
+            return responseIds.size();
+        }
+    }
+}
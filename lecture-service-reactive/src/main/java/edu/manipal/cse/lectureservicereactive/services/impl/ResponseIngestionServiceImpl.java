@@ -0,0 +1,239 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.exceptions.DuplicateResourceException;
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.services.ResponseIngestionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class ResponseIngestionServiceImpl implements ResponseIngestionService {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO student_responses (student_id, lecture_question_id, answer_id) VALUES ";
+    private static final String INSERT_SUFFIX =
+            " ON CONFLICT (student_id, lecture_question_id) DO NOTHING" +
+            " RETURNING response_id, student_id, lecture_question_id, answer_id, created_at, updated_at";
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private final BlockingQueue<PendingResponse> buffer;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private Disposable flushTicker;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+
+    public ResponseIngestionServiceImpl(DatabaseClient databaseClient,
+                                        R2dbcEntityTemplate r2dbcEntityTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${lecture.live.ingestion.buffer-capacity:10000}") int bufferCapacity,
+                                        @Value("${lecture.live.ingestion.batch-size:200}") int batchSize,
+                                        @Value("${lecture.live.ingestion.flush-interval:25ms}") Duration flushInterval) {
+        this.databaseClient = databaseClient;
+        this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        this.batchSizeSummary = DistributionSummary.builder("lecture.responses.ingestion.batch.size")
+                .description("Student responses written per batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("lecture.responses.ingestion.flush")
+                .description("Latency of batched student response inserts")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("lecture.responses.ingestion.rejected")
+                .description("Submissions rejected because the ingestion buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("lecture.responses.ingestion.buffered", buffer, BlockingQueue::size)
+                .description("Student responses waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startFlushTicker() {
+        flushTicker = Flux.interval(flushInterval)
+                .onBackpressureDrop()
+                .subscribe(tick -> flush());
+        log.info("Response ingestion started: batchSize={}, flushInterval={}, capacity={}",
+                batchSize, flushInterval, buffer.remainingCapacity());
+    }
+
+    @PreDestroy
+    void drainOnShutdown() {
+        if (flushTicker != null) {
+            flushTicker.dispose();
+        }
+        while (!buffer.isEmpty()) {
+            List<PendingResponse> batch = new ArrayList<>(batchSize);
+            buffer.drainTo(batch, batchSize);
+            writeBatch(batch).block(Duration.ofSeconds(10));
+        }
+    }
+
+    @Override
+    public Mono<StudentResponse> submit(StudentResponse response) {
+        return Mono.defer(() -> {
+            PendingResponse pending = new PendingResponse(response);
+            if (!buffer.offer(pending)) {
+                rejectedCounter.increment();
+                log.warn("Ingestion buffer full, rejecting response of student {} for lecture question {}",
+                        response.getStudentId(), response.getLectureQuestionId());
+                return Mono.error(new OperationFailedException("Too many responses are being submitted right now. Please retry."));
+            }
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+            return pending.result.asMono();
+        });
+    }
+
+    @Override
+    public Mono<List<Mono<StudentResponse>>> writeAll(List<StudentResponse> responses) {
+        return Mono.defer(() -> {
+            List<PendingResponse> batch = responses.stream().map(PendingResponse::new).toList();
+            return writeBatch(batch)
+                    .then(Mono.fromSupplier(() -> batch.stream().map(pending -> pending.result.asMono()).toList()));
+        });
+    }
+
+    /**
+     * Writes one batch at a time; a full batch left behind by a completed flush triggers the next one.
+     */
+    private void flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        List<PendingResponse> batch = new ArrayList<>(batchSize);
+        buffer.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            flushing.set(false);
+            return;
+        }
+        writeBatch(batch)
+                .doFinally(signal -> {
+                    flushing.set(false);
+                    if (buffer.size() >= batchSize) {
+                        flush();
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> writeBatch(List<PendingResponse> batch) {
+        Timer.Sample sample = Timer.start();
+        return insert(batch)
+                .collectList()
+                .doOnNext(inserted -> {
+                    sample.stop(flushTimer);
+                    batchSizeSummary.record(batch.size());
+                    log.debug("Flushed {} student responses ({} inserted)", batch.size(), inserted.size());
+                    complete(batch, inserted);
+                })
+                .onErrorResume(e -> {
+                    if (batch.size() == 1 && e instanceof DuplicateKeyException) {
+                        // A unique violation ON CONFLICT does not absorb is still a conflict, not a failure
+                        log.warn("Student response for lecture question {} conflicts with a stored row: {}",
+                                batch.get(0).response.getLectureQuestionId(), e.getMessage());
+                        batch.get(0).result.tryEmitError(new DuplicateResourceException(
+                                "Student has already submitted a response for this question."));
+                        return Mono.empty();
+                    }
+                    if (batch.size() == 1) {
+                        log.error("Failed to insert student response for lecture question {}",
+                                batch.get(0).response.getLectureQuestionId(), e);
+                        batch.get(0).result.tryEmitError(new OperationFailedException("Failed to create student response", e));
+                        return Mono.empty();
+                    }
+                    // One bad row fails the whole statement; retry row by row so the rest still land
+                    log.warn("Batch insert of {} responses failed ({}), retrying individually", batch.size(), e.getMessage());
+                    return Flux.fromIterable(batch)
+                            .concatMap(pending -> writeBatch(List.of(pending)))
+                            .then(Mono.empty());
+                })
+                .then();
+    }
+
+    private Flux<StudentResponse> insert(List<PendingResponse> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:s").append(i).append(", :q").append(i).append(", :a").append(i).append(')');
+        }
+        sql.append(INSERT_SUFFIX);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            StudentResponse response = batch.get(i).response;
+            spec = spec.bind("s" + i, response.getStudentId())
+                    .bind("q" + i, response.getLectureQuestionId())
+                    .bind("a" + i, response.getAnswerId());
+        }
+        return spec.map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(StudentResponse.class, row, metadata))
+                .all();
+    }
+
+    private void complete(List<PendingResponse> batch, List<StudentResponse> inserted) {
+        Map<ResponseKey, StudentResponse> insertedByKey = new HashMap<>();
+        inserted.forEach(saved -> insertedByKey.put(ResponseKey.of(saved), saved));
+
+        for (PendingResponse pending : batch) {
+            // remove(): a second submission for the same key within one batch is a duplicate
+            StudentResponse saved = insertedByKey.remove(ResponseKey.of(pending.response));
+            if (saved != null) {
+                pending.result.tryEmitValue(saved);
+            } else {
+                pending.result.tryEmitError(new DuplicateResourceException(
+                        "Student has already submitted a response for this question."));
+            }
+        }
+    }
+
+    private record ResponseKey(UUID studentId, UUID lectureQuestionId) {
+        static ResponseKey of(StudentResponse response) {
+            return new ResponseKey(response.getStudentId(), response.getLectureQuestionId());
+        }
+    }
+
+    private static final class PendingResponse {
+        private final StudentResponse response;
+        private final Sinks.One<StudentResponse> result = Sinks.one();
+
+        private PendingResponse(StudentResponse response) {
+            this.response = response;
+        }
+    }
+}
@@ -1,35 +1,69 @@
 package edu.manipal.cse.lectureservicereactive.services.impl;
 
-import edu.manipal.cse.lectureservicereactive.clients.AnswerServiceClient;
 import edu.manipal.cse.lectureservicereactive.dto.inputs.studentResponse.CreateStudentResponseInput;
-import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.PageInfo;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.StudentResponseConnection;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.StudentResponseEdge;
 import edu.manipal.cse.lectureservicereactive.exceptions.DuplicateResourceException;
 import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
 import edu.manipal.cse.lectureservicereactive.exceptions.ResourceNotFoundException;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
 import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
 import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService.AnswerKey;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseIngestionService;
 import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
 import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StudentResponseServiceImpl implements StudentResponseService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Keyset pages, in submission order per lecture question and newest first per student; each is served by
+    // the (owner column, created_at, response_id) index
+    private static final KeysetQuery RESPONSES_FOR_LECTURE_QUESTION =
+            new KeysetQuery("lecture_question_id", ">", "ORDER BY created_at, response_id");
+    private static final KeysetQuery RESPONSES_BY_STUDENT =
+            new KeysetQuery("student_id", "<", "ORDER BY created_at DESC, response_id DESC");
+
     private final SubscriptionService subscriptionService;
     private final StudentResponseRepository studentResponseRepository;
     private final LectureQuestionRepository lectureQuestionRepository;
-    private final AnswerServiceClient answerServiceClient;
-    private final TransactionalOperator transactionalOperator;
+    private final LiveLectureService liveLectureService;
+    private final AnswerKeyService answerKeyService;
+    private final ResponseCounterService responseCounterService;
+    private final ResponseIngestionService responseIngestionService;
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
 
     @Override
     public Mono<StudentResponse> findResponseById(UUID responseId) {
@@ -51,79 +85,295 @@ public class StudentResponseServiceImpl implements StudentResponseService {
     }
 
     @Override
-    public Mono<StudentResponse> createStudentResponse(CreateStudentResponseInput input, UUID studentId) {
-        UUID lectureQuestionId = input.lectureQuestionId();
-        UUID answerId = input.answerId();
-        log.info("Creating student response for student {} on lecture question {} with answer {}", studentId, lectureQuestionId, answerId);
+    public Mono<StudentResponseConnection> findResponseConnectionForLectureQuestion(UUID lectureQuestionId, int first, String after) {
+        log.debug("Finding student responses for lecture question ID: {}, first: {}, after: {}", lectureQuestionId, first, after);
+        return findResponseConnection(RESPONSES_FOR_LECTURE_QUESTION, lectureQuestionId, first, after,
+                cursorId -> studentResponseRepository.existsByResponseIdAndLectureQuestionId(cursorId, lectureQuestionId));
+    }
 
-        // --- Phase 1: Validation ---
-        Mono<Boolean> lectureQuestionExistsMono = lectureQuestionRepository.existsById(lectureQuestionId)
-                .doOnSuccess(exists -> { if (!exists) log.warn("Validation failed: LectureQuestion {} not found", lectureQuestionId); });
+    @Override
+    public Mono<StudentResponseConnection> findResponseConnectionByStudent(UUID studentId, int first, String after) {
+        log.debug("Finding student responses for student ID: {}, first: {}, after: {}", studentId, first, after);
+        return findResponseConnection(RESPONSES_BY_STUDENT, studentId, first, after,
+                cursorId -> studentResponseRepository.existsByResponseIdAndStudentId(cursorId, studentId));
+    }
 
-        Mono<Boolean> answerExistsMono = answerServiceClient.answerExists(answerId)
-                .doOnSuccess(exists -> { if (!exists) log.warn("Validation failed: Answer {} not found", answerId); });
+    /**
+     * @param cursorOwned whether the cursor row exists in this listing; an unknown cursor is an error
+     *                    rather than an empty page, which would look like the end of the data
+     */
+    private Mono<StudentResponseConnection> findResponseConnection(KeysetQuery query, UUID ownerId, int first, String after,
+                                                                   Function<UUID, Mono<Boolean>> cursorOwned) {
+        return Mono.defer(() -> {
+            if (first < 1 || first > MAX_PAGE_SIZE) {
+                return Mono.error(new IllegalArgumentException("'first' must be between 1 and " + MAX_PAGE_SIZE));
+            }
+            UUID cursorId = after != null ? CursorCodec.decode(after) : null;
+            StringBuilder sql = new StringBuilder("SELECT * FROM student_responses WHERE ")
+                    .append(query.ownerColumn()).append(" = :ownerId");
+            if (cursorId != null) {
+                // Seek past the cursor row
+                sql.append(" AND (created_at, response_id) ").append(query.seek())
+                        .append(" (SELECT c.created_at, c.response_id FROM student_responses c WHERE c.response_id = :after)");
+            }
+            // One extra row tells whether another page exists
+            sql.append(' ').append(query.orderBy()).append(" LIMIT :limit");
 
-        Mono<Boolean> alreadyRespondedMono = studentResponseRepository.existsByStudentIdAndLectureQuestionId(studentId, lectureQuestionId)
-                .map(exists -> !exists)
-                .doOnSuccess(canRespond -> { if (!canRespond) log.warn("Validation failed: Student {} already responded to LectureQuestion {}", studentId, lectureQuestionId); });
+            DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                    .bind("ownerId", ownerId)
+                    .bind("limit", first + 1);
+            if (cursorId != null) {
+                spec = spec.bind("after", cursorId);
+            }
+            // Rows are mapped to edges as they arrive; only the page itself is held
+            Mono<StudentResponseConnection> page = spec
+                    .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(StudentResponse.class, row, metadata))
+                    .all()
+                    .map(response -> new StudentResponseEdge(CursorCodec.encode(response.getResponseId()), response))
+                    .collectList()
+                    .map(edges -> toConnection(edges, first, after));
+            if (cursorId == null) {
+                return page;
+            }
+            return cursorOwned.apply(cursorId)
+                    .flatMap(owned -> owned ? page : Mono.error(new IllegalArgumentException("Unknown cursor: " + after)));
+        });
+    }
 
+    private StudentResponseConnection toConnection(List<StudentResponseEdge> edges, int first, String after) {
+        boolean hasNextPage = edges.size() > first;
+        List<StudentResponseEdge> page = hasNextPage ? edges.subList(0, first) : edges;
+        PageInfo pageInfo = new PageInfo(
+                hasNextPage,
+                after != null,
+                page.isEmpty() ? null : page.get(0).cursor(),
+                page.isEmpty() ? null : page.get(page.size() - 1).cursor());
+        return new StudentResponseConnection(page, pageInfo);
+    }
 
-        // Combine all validations
-        return Mono.zip(lectureQuestionExistsMono, answerExistsMono, alreadyRespondedMono)
-                .flatMap(tuple -> {
-                    boolean lqExists = tuple.getT1();
-                    boolean answerExists = tuple.getT2();
-                    boolean canRespond = tuple.getT3();
+    @Override
+    public Mono<StudentResponse> createStudentResponse(CreateStudentResponseInput input, UUID studentId) {
+        UUID lectureQuestionId = input.lectureQuestionId();
+        UUID answerId = input.answerId();
+        log.info("Creating student response for student {} on lecture question {} with answer {}", studentId, lectureQuestionId, answerId);
 
-                    // Check validation results
-                    if (!lqExists) {
-                        return Mono.error(new ResourceNotFoundException("LectureQuestion", lectureQuestionId));
+        // --- Phase 1: Validation ---
+        // Questions of live lectures are checked against the in-memory lecture state (no DB read)
+        // The answer is checked against the cached answer key of the lecture question's question (no remote call on a hit)
+        // Duplicate submissions are rejected by the batched insert (ON CONFLICT DO NOTHING)
+        return liveLectureService.findLectureQuestion(lectureQuestionId)
+                .map(Mono::just)
+                .orElseGet(() -> lectureQuestionRepository.findById(lectureQuestionId))
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("Validation failed: LectureQuestion {} not found", lectureQuestionId);
+                    return Mono.error(new ResourceNotFoundException("LectureQuestion", lectureQuestionId));
+                }))
+                .flatMap(lectureQuestion -> {
+                    if (lectureQuestion.getStatus() != LectureQuestion.LectureQuestionStatus.ACTIVE) {
+                        log.warn("Validation failed: LectureQuestion {} is {}, not accepting responses", lectureQuestionId, lectureQuestion.getStatus());
+                        return Mono.error(new OperationFailedException("Lecture question " + lectureQuestionId + " is not accepting responses"));
                     }
-                    if (!answerExists) {
-                        return Mono.error(new ResourceNotFoundException("Answer", answerId));
+                    // A timed question stops accepting responses at its deadline, not at the timer tick that closes it
+                    if (lectureQuestion.getClosesAt() != null && Instant.now().isAfter(lectureQuestion.getClosesAt())) {
+                        log.warn("Validation failed: LectureQuestion {} closed at {}", lectureQuestionId, lectureQuestion.getClosesAt());
+                        return Mono.error(new OperationFailedException("Lecture question " + lectureQuestionId + " is not accepting responses"));
                     }
-                    if (!canRespond) {
-                        return Mono.error(new DuplicateResourceException(
-                                "Student has already submitted a response for this question."));
+                    return Mono.just(lectureQuestion);
+                })
+                .flatMap(lectureQuestion -> answerKeyService.isValidAnswer(lectureQuestion.getQuestionId(), answerId))
+                .flatMap(answerValid -> {
+                    if (!answerValid) {
+                        log.warn("Validation failed: Answer {} not found for LectureQuestion {}", answerId, lectureQuestionId);
+                        return Mono.error(new ResourceNotFoundException("Answer", answerId));
                     }
 
-                    // --- Phase 2: Transactional Save ---
-                    return Mono.defer(() -> {
-                                StudentResponse response = StudentResponse.builder()
-                                        .studentId(studentId)
-                                        .lectureQuestionId(lectureQuestionId)
-                                        .answerId(answerId)
-                                        .build();
-                                log.debug("Saving new student response: {}", response);
-                                return studentResponseRepository.save(response);
-                            })
-                            .as(transactionalOperator::transactional);
+                    // --- Phase 2: Batched Save ---
+                    StudentResponse response = StudentResponse.builder()
+                            .studentId(studentId)
+                            .lectureQuestionId(lectureQuestionId)
+                            .answerId(answerId)
+                            .build();
+                    log.debug("Queueing new student response: {}", response);
+                    return responseIngestionService.submit(response);
                 })
                 // --- Phase 3: Publish Events (after successful save) ---
                 .doOnSuccess(savedResponse -> {
                     log.info("Successfully saved student response {}. Publishing individual event.", savedResponse.getResponseId());
                     subscriptionService.publishStudentResponseCreated(savedResponse);
                 })
+                // Count updates are coalesced and published by the response counter
                 .delayUntil(savedResponse ->
-                        studentResponseRepository.countByLectureQuestionId(lectureQuestionId)
-                                .doOnSuccess(count -> {
-                                    log.info("Publishing response count update for LQI {}: {}", lectureQuestionId, count);
-                                    subscriptionService.publishResponseCountUpdate(new ResponseCount(lectureQuestionId, count.intValue()));
-                                })
-                                .doOnError(e -> log.error("Failed to get count or publish count update for LQI {}", lectureQuestionId, e))
-                                .then()
+                        responseCounterService.recordResponse(lectureQuestionId)
+                                .doOnError(e -> log.error("Failed to record response count for LQI {}", lectureQuestionId, e))
+                                .onErrorResume(e -> Mono.empty())
                 )
                 // --- Overall Error Handling ---
                 .doOnError(error -> log.error("Error creating student response: {}", error.getMessage(), error))
-                .onErrorMap(e -> !(e instanceof ResourceNotFoundException || e instanceof DuplicateResourceException ),
+                .onErrorMap(e -> !(e instanceof ResourceNotFoundException || e instanceof DuplicateResourceException || e instanceof OperationFailedException),
                         e -> new OperationFailedException("Failed to create student response", e));
     }
 
+    @Override
+    public Mono<List<Submission>> submitStudentResponses(List<CreateStudentResponseInput> inputs, UUID studentId) {
+        return Mono.defer(() -> {
+            if (inputs.isEmpty() || inputs.size() > MAX_SUBMISSION_SIZE) {
+                return Mono.error(new IllegalArgumentException(INVALID_SUBMISSION_SIZE));
+            }
+            log.info("Submitting {} responses for student {}", inputs.size(), studentId);
+            Set<UUID> lectureQuestionIds = inputs.stream()
+                    .map(CreateStudentResponseInput::lectureQuestionId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            // --- Phase 1: Bulk lookups (live state first, then one query each) ---
+            return findLectureQuestions(lectureQuestionIds)
+                    .flatMap(lectureQuestions -> Mono.zip(
+                            loadAnswerKeys(lectureQuestions.values()),
+                            studentResponseRepository.findByStudentIdAndLectureQuestionIdIn(studentId, lectureQuestionIds)
+                                    .map(StudentResponse::getLectureQuestionId)
+                                    .collect(Collectors.toSet()))
+                            .flatMap(lookups -> {
+                                // --- Phase 2: Validation, then one batched insert of the accepted responses ---
+                                Submission[] results = new Submission[inputs.size()];
+                                List<StudentResponse> accepted = new ArrayList<>();
+                                List<Integer> acceptedAt = new ArrayList<>();
+                                Set<UUID> answered = new HashSet<>(lookups.getT2());
+                                for (int i = 0; i < inputs.size(); i++) {
+                                    CreateStudentResponseInput input = inputs.get(i);
+                                    Throwable rejection = validate(input, lectureQuestions.get(input.lectureQuestionId()), lookups.getT1(), answered);
+                                    if (rejection != null) {
+                                        log.warn("Rejected response of student {} for lecture question {}: {}", studentId, input.lectureQuestionId(), rejection.getMessage());
+                                        results[i] = Submission.rejected(rejection);
+                                        continue;
+                                    }
+                                    accepted.add(StudentResponse.builder()
+                                            .studentId(studentId)
+                                            .lectureQuestionId(input.lectureQuestionId())
+                                            .answerId(input.answerId())
+                                            .build());
+                                    acceptedAt.add(i);
+                                }
+                                if (accepted.isEmpty()) {
+                                    return Mono.just(List.of(results));
+                                }
+                                return responseIngestionService.writeAll(accepted)
+                                        .flatMapMany(Flux::fromIterable)
+                                        .concatMap(written -> written.map(Submission::accepted)
+                                                .onErrorResume(e -> Mono.just(Submission.rejected(e))))
+                                        .index()
+                                        .doOnNext(written -> results[acceptedAt.get(written.getT1().intValue())] = written.getT2())
+                                        .then(Mono.fromSupplier(() -> List.of(results)));
+                            }))
+                    // --- Phase 3: Publish events, and count updates once per question ---
+                    .delayUntil(this::publishSubmitted);
+        })
+                .doOnError(error -> log.error("Error submitting student responses: {}", error.getMessage(), error))
+                .onErrorMap(e -> !(e instanceof IllegalArgumentException || e instanceof OperationFailedException),
+                        e -> new OperationFailedException("Failed to submit student responses", e));
+    }
+
+    private Mono<Map<UUID, LectureQuestion>> findLectureQuestions(Set<UUID> lectureQuestionIds) {
+        Map<UUID, LectureQuestion> found = new HashMap<>();
+        List<UUID> stored = new ArrayList<>();
+        for (UUID lectureQuestionId : lectureQuestionIds) {
+            liveLectureService.findLectureQuestion(lectureQuestionId)
+                    .ifPresentOrElse(lectureQuestion -> found.put(lectureQuestionId, lectureQuestion), () -> stored.add(lectureQuestionId));
+        }
+        if (stored.isEmpty()) {
+            return Mono.just(found);
+        }
+        return lectureQuestionRepository.findAllById(stored)
+                .doOnNext(lectureQuestion -> found.put(lectureQuestion.getLectureQuestionId(), lectureQuestion))
+                .then(Mono.fromSupplier(() -> found));
+    }
+
+    /**
+     * Answer keys of the questions behind the given lecture questions; a question whose key cannot be
+     * loaded is left out, so its responses are rejected instead of failing the whole submission.
+     */
+    private Mono<Map<UUID, AnswerKey>> loadAnswerKeys(Collection<LectureQuestion> lectureQuestions) {
+        return Flux.fromIterable(lectureQuestions)
+                .map(LectureQuestion::getQuestionId)
+                .distinct()
+                .flatMap(questionId -> answerKeyService.preloadForQuestion(questionId)
+                        .onErrorResume(e -> {
+                            log.warn("Could not load answer key for question {}: {}", questionId, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .collectMap(AnswerKey::questionId);
+    }
+
+    /**
+     * Why a response cannot be accepted, or {@code null} if it can. An accepted response marks its
+     * lecture question as answered, so a later input for the same question is a duplicate.
+     */
+    private static Throwable validate(CreateStudentResponseInput input, LectureQuestion lectureQuestion,
+                                      Map<UUID, AnswerKey> answerKeys, Set<UUID> answered) {
+        UUID lectureQuestionId = input.lectureQuestionId();
+        if (lectureQuestion == null) {
+            return new ResourceNotFoundException("LectureQuestion", lectureQuestionId);
+        }
+        if (lectureQuestion.getStatus() != LectureQuestion.LectureQuestionStatus.ACTIVE
+                || (lectureQuestion.getClosesAt() != null && Instant.now().isAfter(lectureQuestion.getClosesAt()))) {
+            return new OperationFailedException(NOT_ACCEPTING_RESPONSES);
+        }
+        AnswerKey answerKey = answerKeys.get(lectureQuestion.getQuestionId());
+        if (answerKey == null) {
+            return new OperationFailedException(ANSWER_NOT_VALIDATED);
+        }
+        if (!answerKey.contains(input.answerId())) {
+            return new ResourceNotFoundException("Answer", input.answerId());
+        }
+        if (!answered.add(lectureQuestionId)) {
+            return new DuplicateResourceException(ALREADY_RESPONDED);
+        }
+        return null;
+    }
+
+    private Mono<Void> publishSubmitted(List<Submission> results) {
+        Set<UUID> answeredQuestions = new LinkedHashSet<>();
+        for (Submission result : results) {
+            if (result.response() != null) {
+                subscriptionService.publishStudentResponseCreated(result.response());
+                answeredQuestions.add(result.response().getLectureQuestionId());
+            }
+        }
+        return Flux.fromIterable(answeredQuestions)
+                .flatMap(lectureQuestionId -> responseCounterService.recordResponse(lectureQuestionId)
+                        .doOnError(e -> log.error("Failed to record response count for LQI {}", lectureQuestionId, e))
+                        .onErrorResume(e -> Mono.empty()))
+                .then();
+    }
+
     @Override
     public Mono<Integer> countResponsesForLectureQuestion(UUID lectureQuestionId) {
         log.debug("Counting student responses for lecture question ID: {}", lectureQuestionId);
+        Optional<Integer> liveCount = responseCounterService.currentCount(lectureQuestionId);
+        if (liveCount.isPresent()) {
+            return Mono.just(liveCount.get());
+        }
         return studentResponseRepository
                 .countByLectureQuestionId(lectureQuestionId)
                 .map(Long::intValue);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Mono<Map<UUID, Integer>> countResponsesForLectureQuestions(Collection<UUID> lectureQuestionIds) {
+        log.debug("Counting student responses for {} lecture questions", lectureQuestionIds.size());
+        Map<UUID, Integer> counts = new HashMap<>();
+        List<UUID> untracked = new ArrayList<>();
+        for (UUID lectureQuestionId : lectureQuestionIds) {
+            responseCounterService.currentCount(lectureQuestionId)
+                    .ifPresentOrElse(count -> counts.put(lectureQuestionId, count), () -> untracked.add(lectureQuestionId));
+        }
+        if (untracked.isEmpty()) {
+            return Mono.just(counts);
+        }
+        // Questions without responses have no row in the grouped result
+        untracked.forEach(lectureQuestionId -> counts.put(lectureQuestionId, 0));
+        return studentResponseRepository.countGroupedByLectureQuestionIdIn(untracked)
+                .doOnNext(responseCount -> counts.put(responseCount.lectureQuestionId(), responseCount.count()))
+                .then(Mono.just(counts));
+    }
+
+    private record KeysetQuery(String ownerColumn, String seek, String orderBy) {}
+}
@@ -1,44 +1,135 @@
 package edu.manipal.cse.lectureservicereactive.services.impl;
 
+import edu.manipal.cse.lectureservicereactive.configs.SubscriptionDeliveryConfig;
 import edu.manipal.cse.lectureservicereactive.dto.events.LectureEvent;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
 import edu.manipal.cse.lectureservicereactive.dto.outputs.ResponseCount;
 import edu.manipal.cse.lectureservicereactive.models.Lecture;
 import edu.manipal.cse.lectureservicereactive.models.LectureQuestion; // Import LectureQuestion
 import edu.manipal.cse.lectureservicereactive.models.StudentResponse; // Import StudentResponse
+import edu.manipal.cse.lectureservicereactive.services.EventJournalService;
 import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.transport.EventTransport;
+import edu.manipal.cse.lectureservicereactive.transport.LiveEvent;
+import edu.manipal.cse.lectureservicereactive.transport.LiveStream;
+import edu.manipal.cse.lectureservicereactive.utils.DeliveryPolicy;
+import edu.manipal.cse.lectureservicereactive.utils.KeyedSinkRegistry;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
+import edu.manipal.cse.lectureservicereactive.utils.SerializedEmitter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 
 @Service
 @Slf4j
 public class SubscriptionServiceImpl implements SubscriptionService {
 
-    private final Sinks.Many<LectureEvent> lectureActivitySink = Sinks.many().multicast().onBackpressureBuffer();
-    private final Sinks.Many<Lecture> lectureUpdateSink = Sinks.many().multicast().onBackpressureBuffer();
-    private final Sinks.Many<ResponseCount> responseCountSink = Sinks.many().multicast().onBackpressureBuffer();
-    private final Sinks.Many<LectureQuestion> lectureQuestionUpdateSink = Sinks.many().multicast().onBackpressureBuffer(); // Sink for LQ updates
-    private final Sinks.Many<StudentResponse> studentResponseSink = Sinks.many().multicast().onBackpressureBuffer(); // Sink for SR creations
+    private final EventTransport eventTransport;
+    private final EventJournalService eventJournalService;
+    private final SubscriptionDeliveryConfig deliveryConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<LiveStream, Map<Boolean, Timer>> deliveryTimers = new EnumMap<>(LiveStream.class);
+
+    private final AtomicLong lectureActivityEmitFailures = new AtomicLong();
+    private final SerializedEmitter<Sequenced<LectureEvent>> lectureActivityEmitter = new SerializedEmitter<>(
+            Sinks.unsafe().many().multicast().directBestEffort(), result -> {
+                lectureActivityEmitFailures.incrementAndGet();
+                log.debug("Failed to emit 'lectureActivity' element: {}", result);
+            });
+    private final DeliveryPolicy lectureActivityPolicy;
+
+    // Every status change, for in-process state; no delivery policy, so no transition is dropped or conflated
+    private final AtomicLong lectureQuestionTransitionEmitFailures = new AtomicLong();
+    private final SerializedEmitter<LectureQuestion> lectureQuestionTransitionEmitter = new SerializedEmitter<>(
+            Sinks.unsafe().many().multicast().directBestEffort(), result -> {
+                if (result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                    lectureQuestionTransitionEmitFailures.incrementAndGet();
+                    log.warn("Failed to emit lecture question transition: {}", result);
+                }
+            });
+
+    // Keyed by lectureId
+    private final KeyedSinkRegistry<UUID, Lecture> lectureUpdateSinks;
+    // Keyed by lectureQuestionId
+    private final KeyedSinkRegistry<UUID, LectureQuestion> lectureQuestionUpdateSinks;
+    private final KeyedSinkRegistry<UUID, StudentResponse> studentResponseSinks;
+    // Derived locally from studentResponded events, never sent over the transport
+    private final KeyedSinkRegistry<UUID, ResponseCount> responseCountSinks;
+    private final KeyedSinkRegistry<UUID, AnswerDistribution> answerDistributionSinks;
+
+    public SubscriptionServiceImpl(EventTransport eventTransport,
+                                   EventJournalService eventJournalService,
+                                   SubscriptionDeliveryConfig deliveryConfig,
+                                   MeterRegistry meterRegistry) {
+        this.eventTransport = eventTransport;
+        this.eventJournalService = eventJournalService;
+        this.deliveryConfig = deliveryConfig;
+        this.meterRegistry = meterRegistry;
+        this.lectureActivityPolicy = deliveryConfig.policyFor("lectureActivity", meterRegistry);
+        // Counts only grow while a question is answered, so they version their own state
+        this.responseCountSinks = new KeyedSinkRegistry<>("studentResponseCountUpdated",
+                deliveryConfig.policyFor("studentResponseCountUpdated", meterRegistry), ResponseCount::count);
+        this.answerDistributionSinks = new KeyedSinkRegistry<>("answerDistributionUpdated",
+                deliveryConfig.policyFor("answerDistributionUpdated", meterRegistry), AnswerDistribution::total);
+        this.lectureUpdateSinks = transported("lectureUpdated", LiveStream.LECTURE_UPDATED);
+        // Status changes reach every instance anyway, so its subscribers need no listening of their own
+        this.lectureQuestionUpdateSinks = new KeyedSinkRegistry<>("lectureQuestionStatusChanged",
+                deliveryConfig.policyFor("lectureQuestionStatusChanged", meterRegistry));
+        this.studentResponseSinks = transported("studentResponded", LiveStream.STUDENT_RESPONDED);
+
+        List.of(lectureUpdateSinks, responseCountSinks, lectureQuestionUpdateSinks, studentResponseSinks, answerDistributionSinks)
+                .forEach(registry -> registerGauges(meterRegistry, registry));
+        registerPublishMetrics(meterRegistry, "lectureActivity", this,
+                service -> service.lectureActivityEmitter.depth(), service -> service.lectureActivityEmitFailures.get());
+        registerPublishMetrics(meterRegistry, "lectureQuestionTransitions", this,
+                service -> service.lectureQuestionTransitionEmitter.depth(), service -> service.lectureQuestionTransitionEmitFailures.get());
+        for (LiveStream stream : LiveStream.values()) {
+            deliveryTimers.put(stream, Map.of(
+                    false, deliveryTimer(meterRegistry, stream, "local"),
+                    true, deliveryTimer(meterRegistry, stream, "remote")));
+        }
+
+        eventTransport.setReceiver(this::deliver);
+        // Lecture activity and question status changes are low-volume and global: always receive them
+        for (LiveStream stream : LiveStream.values()) {
+            if (!stream.isKeyed()) {
+                eventTransport.listen(stream.topic(null));
+            }
+        }
+        log.info("Subscription events use the '{}' transport", eventTransport.getName());
+    }
 
     @Override
     public void publishLectureEvent(LectureEvent event) {
         log.debug("Publishing LectureEvent: {}", event.getClass().getSimpleName());
-        lectureActivitySink.emitNext(event, Sinks.EmitFailureHandler.FAIL_FAST);
+        publish(LiveEvent.local(LiveStream.LECTURE_ACTIVITY, null, event));
     }
 
     @Override
     public void publishLectureUpdate(Lecture lecture) {
         log.debug("Publishing Lecture update for ID: {}", lecture.getLectureId());
-        lectureUpdateSink.emitNext(lecture, Sinks.EmitFailureHandler.FAIL_FAST);
+        publish(LiveEvent.local(LiveStream.LECTURE_UPDATED, lecture.getLectureId(), lecture));
     }
 
     @Override
     public void publishResponseCountUpdate(ResponseCount responseCount) {
         log.debug("Publishing ResponseCount update: {}", responseCount);
-        responseCountSink.emitNext(responseCount, Sinks.EmitFailureHandler.FAIL_FAST);
+        responseCountSinks.emit(responseCount.lectureQuestionId(), responseCount, responseCount.count());
     }
 
     @Override
@@ -48,10 +139,8 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             return;
         }
         log.debug("Publishing LectureQuestion update for ID: {}", lectureQuestion.getLectureQuestionId());
-        Sinks.EmitResult result = lectureQuestionUpdateSink.tryEmitNext(lectureQuestion);
-        if (result.isFailure()) {
-            log.warn("Failed to emit LectureQuestion update for ID {}: {}", lectureQuestion.getLectureQuestionId(), result);
-        }
+        publish(LiveEvent.local(LiveStream.LECTURE_QUESTION_STATUS_CHANGED,
+                lectureQuestion.getLectureQuestionId(), lectureQuestion));
     }
 
     @Override
@@ -61,7 +150,34 @@ public class SubscriptionServiceImpl implements SubscriptionService {
             return;
         }
         log.debug("Publishing StudentResponse creation for ID: {}", response.getResponseId());
-        studentResponseSink.emitNext(response, Sinks.EmitFailureHandler.FAIL_FAST);
+        publish(LiveEvent.local(LiveStream.STUDENT_RESPONDED, response.getLectureQuestionId(), response));
+    }
+
+    @Override
+    public void publishAnswerDistributionUpdate(AnswerDistribution distribution) {
+        log.debug("Publishing AnswerDistribution update for lecture question ID: {}", distribution.lectureQuestionId());
+        answerDistributionSinks.emit(distribution.lectureQuestionId(), distribution, distribution.total());
+    }
+
+    /**
+     * Hands an event from the transport (published here or on another instance) to the journal and
+     * to local subscribers.
+     */
+    private void deliver(LiveEvent event) {
+        eventJournalService.append(event);
+        long offset = event.offset();
+        switch (event.stream()) {
+            case LECTURE_ACTIVITY -> lectureActivityEmitter.emit(new Sequenced<>(offset, (LectureEvent) event.payload()));
+            case LECTURE_UPDATED -> lectureUpdateSinks.emit(event.key(), (Lecture) event.payload(), offset);
+            case LECTURE_QUESTION_STATUS_CHANGED -> {
+                // In-process state first, so subscribers reading it after the event see the change
+                lectureQuestionTransitionEmitter.emit((LectureQuestion) event.payload());
+                lectureQuestionUpdateSinks.emit(event.key(), (LectureQuestion) event.payload(), offset);
+            }
+            case STUDENT_RESPONDED -> studentResponseSinks.emit(event.key(), (StudentResponse) event.payload(), offset);
+        }
+        long latencyMicros = Math.max(0, LiveEvent.nowMicros() - event.publishedAtMicros());
+        deliveryTimers.get(event.stream()).get(event.remote()).record(Duration.ofNanos(latencyMicros * 1_000));
     }
 
 
@@ -69,34 +185,154 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     @Override
     public Flux<LectureEvent> lectureActivityStream() {
         log.info("New subscriber for lectureActivityStream");
-        return lectureActivitySink.asFlux();
+        return lectureActivityPolicy.apply(lectureActivityEmitter.sink().asFlux().map(Sequenced::value));
+    }
+
+    @Override
+    public Flux<Sequenced<LectureEvent>> lectureActivityStream(UUID lectureId, Long afterOffset) {
+        log.info("New subscriber for lectureActivityStream (lectureId: {}, afterOffset: {})", lectureId, afterOffset);
+        if (afterOffset != null && lectureId == null) {
+            return Flux.error(new IllegalArgumentException("Resuming lecture activity after an offset requires a lectureId"));
+        }
+        Flux<Sequenced<LectureEvent>> live = lectureActivityPolicy.apply(lectureActivityEmitter.sink().asFlux());
+        if (lectureId == null) {
+            return live;
+        }
+        live = live.filter(element -> lectureId.equals(element.value().lectureId()));
+        return afterOffset == null ? live
+                : resume(live, lectureId, afterOffset, event -> event.stream() == LiveStream.LECTURE_ACTIVITY);
     }
 
     @Override
     public Flux<Lecture> lectureUpdateStream(UUID lectureId) {
         log.info("New subscriber for lectureUpdateStream (lectureId: {})", lectureId);
-        return lectureUpdateSink.asFlux()
-                .filter(lecture -> lecture != null && lecture.getLectureId().equals(lectureId));
+        return lectureUpdateSinks.stream(lectureId);
     }
 
     @Override
     public Flux<ResponseCount> responseCountStream(UUID lectureQuestionId) {
         log.info("New subscriber for responseCountStream (lectureQuestionId: {})", lectureQuestionId);
-        return responseCountSink.asFlux()
-                .filter(count -> count != null && count.lectureQuestionId().equals(lectureQuestionId));
+        return responseCountSinks.stream(lectureQuestionId);
+    }
+
+    @Override
+    public Flux<Sequenced<Lecture>> lectureUpdateStream(UUID lectureId, boolean snapshot, Long afterSequence, Mono<Lecture> current) {
+        log.info("New subscriber for lectureUpdateStream (lectureId: {}, snapshot: {}, afterSequence: {})", lectureId, snapshot, afterSequence);
+        return lectureUpdateSinks.stream(lectureId, snapshot, afterSequence, current);
+    }
+
+    @Override
+    public Flux<Sequenced<ResponseCount>> responseCountStream(UUID lectureQuestionId, boolean snapshot, Long afterSequence, Mono<ResponseCount> current) {
+        log.info("New subscriber for responseCountStream (lectureQuestionId: {}, snapshot: {}, afterSequence: {})", lectureQuestionId, snapshot, afterSequence);
+        return responseCountSinks.stream(lectureQuestionId, snapshot, afterSequence, current);
+    }
+
+    @Override
+    public Flux<Sequenced<LectureQuestion>> lectureQuestionUpdateStream(UUID lectureQuestionId, boolean snapshot, Long afterSequence, Mono<LectureQuestion> current) {
+        log.info("New subscriber for lectureQuestionUpdateStream (lectureQuestionId: {}, snapshot: {}, afterSequence: {})", lectureQuestionId, snapshot, afterSequence);
+        return lectureQuestionUpdateSinks.stream(lectureQuestionId, snapshot, afterSequence, current);
     }
 
     @Override
     public Flux<LectureQuestion> lectureQuestionUpdateStream(UUID lectureQuestionId) {
         log.info("New subscriber for lectureQuestionUpdateStream (lectureQuestionId: {})", lectureQuestionId);
-        return lectureQuestionUpdateSink.asFlux()
-                .filter(lq -> lq != null && lq.getLectureQuestionId().equals(lectureQuestionId));
+        return lectureQuestionUpdateSinks.stream(lectureQuestionId);
+    }
+
+    @Override
+    public Flux<LectureQuestion> lectureQuestionTransitions() {
+        return lectureQuestionTransitionEmitter.sink().asFlux();
     }
 
     @Override
     public Flux<StudentResponse> studentResponseStream(UUID lectureQuestionId) {
         log.info("New subscriber for studentResponseStream (lectureQuestionId: {})", lectureQuestionId);
-        return studentResponseSink.asFlux()
-                .filter(response -> response != null && response.getLectureQuestionId().equals(lectureQuestionId));
+        return studentResponseSinks.stream(lectureQuestionId);
+    }
+
+    @Override
+    public Flux<Sequenced<StudentResponse>> studentResponseStream(UUID lectureQuestionId, UUID lectureId, Long afterOffset) {
+        log.info("New subscriber for studentResponseStream (lectureQuestionId: {}, afterOffset: {})", lectureQuestionId, afterOffset);
+        Flux<Sequenced<StudentResponse>> live = studentResponseSinks.stream(lectureQuestionId, false, null, Mono.empty());
+        return afterOffset == null ? live
+                : resume(live, lectureId, afterOffset, event -> event.stream() == LiveStream.STUDENT_RESPONDED
+                        && lectureQuestionId.equals(event.key()));
+    }
+
+    @Override
+    public Flux<AnswerDistribution> answerDistributionStream(UUID lectureQuestionId) {
+        log.info("New subscriber for answerDistributionStream (lectureQuestionId: {})", lectureQuestionId);
+        return answerDistributionSinks.stream(lectureQuestionId);
+    }
+
+    /**
+     * Replays the journaled events missed after an offset, then continues with the live ones. The live
+     * stream is subscribed first and held back during the replay, so nothing published in between is
+     * lost; whatever arrives through both is dropped by offset.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Flux<Sequenced<T>> resume(Flux<Sequenced<T>> live, UUID lectureId, long afterOffset, Predicate<LiveEvent> selects) {
+        return live.publish(tail -> {
+            Flux<Sequenced<T>> missed = eventJournalService.replay(lectureId, afterOffset)
+                    .filter(entry -> selects.test(entry.value()))
+                    .map(entry -> new Sequenced<>(entry.sequence(), (T) entry.value().payload()));
+            AtomicLong lastOffset = new AtomicLong(afterOffset);
+            return Flux.concat(missed, tail)
+                    .filter(element -> !element.isSequenced()
+                            || lastOffset.getAndAccumulate(element.sequence(), Math::max) < element.sequence());
+        });
+    }
+
+    /**
+     * Publishing runs inside mutation pipelines: a transport failure is logged, never propagated.
+     */
+    private void publish(LiveEvent event) {
+        try {
+            eventTransport.publish(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} event for key {}: {}", event.stream(), event.key(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registry whose keys are listened to on the transport while they have local subscribers.
+     */
+    private <T> KeyedSinkRegistry<UUID, T> transported(String name, LiveStream stream) {
+        return new KeyedSinkRegistry<>(name, deliveryConfig.policyFor(name, meterRegistry),
+                key -> eventTransport.listen(stream.topic(key)),
+                key -> eventTransport.unlisten(stream.topic(key)));
+    }
+
+    private static Timer deliveryTimer(MeterRegistry meterRegistry, LiveStream stream, String origin) {
+        return Timer.builder("lecture.events.delivery.latency")
+                .description("Time from publishing a subscription event to handing it to local subscribers")
+                .tag("stream", stream.name())
+                .tag("origin", origin)
+                .register(meterRegistry);
+    }
+
+    private static void registerGauges(MeterRegistry meterRegistry, KeyedSinkRegistry<?, ?> registry) {
+        Gauge.builder("lecture.subscriptions.keys", registry, KeyedSinkRegistry::keyCount)
+                .description("Keys with at least one live subscriber")
+                .tag("stream", registry.getName())
+                .register(meterRegistry);
+        Gauge.builder("lecture.subscriptions.subscribers", registry, KeyedSinkRegistry::subscriberCount)
+                .description("Live subscribers")
+                .tag("stream", registry.getName())
+                .register(meterRegistry);
+        registerPublishMetrics(meterRegistry, registry.getName(), registry,
+                KeyedSinkRegistry::queuedCount, KeyedSinkRegistry::emitFailureCount);
+    }
+
+    private static <S> void registerPublishMetrics(MeterRegistry meterRegistry, String stream, S source,
+                                                   ToDoubleFunction<S> queueDepth, ToDoubleFunction<S> emitFailures) {
+        Gauge.builder("lecture.subscriptions.publish.queue.depth", source, queueDepth)
+                .description("Events handed over for emission but not yet emitted")
+                .tag("stream", stream)
+                .register(meterRegistry);
+        FunctionCounter.builder("lecture.subscriptions.publish.failures", source, emitFailures)
+                .description("Events a sink rejected although it had subscribers")
+                .tag("stream", stream)
+                .register(meterRegistry);
     }
 }
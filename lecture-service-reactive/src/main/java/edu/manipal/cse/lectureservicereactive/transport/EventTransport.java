@@ -0,0 +1,38 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries subscription events between lecture-service instances.
+ * <p>
+ * Events published on an instance are always delivered to that instance's receiver; events from
+ * other instances are delivered only for topics the instance listens to.
+ * <p>
+ * The transport is the single authority for event offsets: every event is assigned its
+ * {@link LiveEvent#offset() offset} once, before it is delivered anywhere, so all instances journal
+ * and sequence it alike. Offsets increase in publish order and across restarts.
+ */
+public interface EventTransport {
+
+    /**
+     * Assigns the event its offset and publishes it. Never throws: transport failures are logged and counted.
+     */
+    void publish(LiveEvent event);
+
+    /**
+     * Registers the single receiver of delivered events.
+     */
+    void setReceiver(Consumer<LiveEvent> receiver);
+
+    /**
+     * Starts receiving remote events of a topic. Calls are reference-counted per topic.
+     */
+    void listen(String topic);
+
+    /**
+     * Releases one {@link #listen} of a topic; remote delivery stops when the last one is released.
+     */
+    void unlisten(String topic);
+
+    String getName();
+}
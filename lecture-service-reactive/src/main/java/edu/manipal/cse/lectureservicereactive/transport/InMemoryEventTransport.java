@@ -0,0 +1,54 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-instance transport: events are handed straight to the local receiver.
+ * <p>
+ * The only instance is the only offset authority. Offsets follow the clock in microseconds, so they
+ * keep increasing across restarts.
+ */
+@Component
+@ConditionalOnProperty(prefix = "lecture.live.transport", name = "type", havingValue = "in-memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryEventTransport implements EventTransport {
+
+    private volatile Consumer<LiveEvent> receiver = event -> {};
+    private long lastOffset;
+
+    @Override
+    public synchronized void publish(LiveEvent event) {
+        // Delivered under the same lock the offset is taken in, so the receiver sees offsets in order
+        lastOffset = Math.max(lastOffset + 1, LiveEvent.nowMicros());
+        event = event.withOffset(lastOffset);
+        try {
+            receiver.accept(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver {} event for key {}: {}", event.stream(), event.key(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void setReceiver(Consumer<LiveEvent> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void listen(String topic) {
+        // Every event is local
+    }
+
+    @Override
+    public void unlisten(String topic) {
+        // Every event is local
+    }
+
+    @Override
+    public String getName() {
+        return "in-memory";
+    }
+}
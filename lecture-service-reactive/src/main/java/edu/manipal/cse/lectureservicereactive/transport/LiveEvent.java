@@ -0,0 +1,65 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureCreatedEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureDeletedEvent;
+import edu.manipal.cse.lectureservicereactive.dto.events.LectureUpdatedEvent;
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An event published to a subscription stream.
+ *
+ * @param key               lecture or lecture question ID the stream is keyed by ({@code null} for lecture activity)
+ * @param publishedAtMicros wall-clock publish time in epoch microseconds, for delivery latency
+ * @param offset            position among all events, assigned once by the transport before the event is
+ *                          delivered anywhere, so every instance knows the event by the same offset
+ * @param remote            whether the event was published by another instance
+ */
+public record LiveEvent(
+        LiveStream stream,
+        UUID key,
+        Object payload,
+        long publishedAtMicros,
+        long offset,
+        boolean remote
+) {
+
+    private static final Map<String, Class<?>> PAYLOAD_TYPES = Stream.of(
+                    Lecture.class, LectureQuestion.class, StudentResponse.class,
+                    LectureCreatedEvent.class, LectureUpdatedEvent.class, LectureDeletedEvent.class)
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, type -> type));
+
+    // Offset of an event the transport has not sequenced yet
+    public static final long UNASSIGNED = 0;
+
+    public static LiveEvent local(LiveStream stream, UUID key, Object payload) {
+        return new LiveEvent(stream, key, payload, nowMicros(), UNASSIGNED, false);
+    }
+
+    public LiveEvent withOffset(long offset) {
+        return new LiveEvent(stream, key, payload, publishedAtMicros, offset, remote);
+    }
+
+    public String topic() {
+        return stream.topic(key);
+    }
+
+    /**
+     * Payload class of a serialized event by its simple name, or {@code null} if unknown.
+     */
+    public static Class<?> payloadType(String name) {
+        return PAYLOAD_TYPES.get(name);
+    }
+
+    public static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
@@ -0,0 +1,43 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import java.util.UUID;
+
+/**
+ * Subscription streams carried between instances. Response counts are not listed: every instance
+ * derives them from {@link #STUDENT_RESPONDED}.
+ */
+public enum LiveStream {
+
+    LECTURE_ACTIVITY("live_activity", false),
+    LECTURE_UPDATED("live_l_", true),
+    // Every instance keeps the status of live questions in memory, so status changes go to all of them
+    LECTURE_QUESTION_STATUS_CHANGED("live_lq_status", false),
+    STUDENT_RESPONDED("live_lq_", true);
+
+    private final String topic;
+    private final boolean keyed;
+
+    LiveStream(String topic, boolean keyed) {
+        this.topic = topic;
+        this.keyed = keyed;
+    }
+
+    /**
+     * Whether the stream has one topic per key, listened to only while the key has local
+     * subscribers, rather than a single topic every instance always listens to.
+     */
+    public boolean isKeyed() {
+        return keyed;
+    }
+
+    /**
+     * Topic of the stream's events for a key. Keyed topics are valid Postgres channel names
+     * (lowercase, under 63 characters).
+     */
+    public String topic(UUID key) {
+        if (!keyed) {
+            return topic;
+        }
+        return topic + key.toString().replace("-", "");
+    }
+}
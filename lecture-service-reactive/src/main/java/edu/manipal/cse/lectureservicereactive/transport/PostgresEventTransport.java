@@ -0,0 +1,426 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Transport over Postgres {@code LISTEN/NOTIFY}.
+ * <p>
+ * Local events take their offset from the {@code live_event_offsets} sequence, are then delivered
+ * locally and sent as notifications on their topic channel; other instances receive them only while
+ * they {@code LISTEN} on that channel: always for the global streams, and for keyed streams while
+ * they have local subscribers for the lecture or lecture question. Events too large for a
+ * notification are stored in {@code live_event_payloads} and notified by offset. Listening uses one
+ * dedicated connection taken from the pool for the lifetime of the instance. Notifications sent
+ * while that connection is being re-established are lost, which subscribers see as a gap until the
+ * next event. While no offset can be taken, local events are delivered locally only and without
+ * an offset, which subscribers see as a gap they cannot resume across.
+ */
+@Component
+@ConditionalOnProperty(prefix = "lecture.live.transport", name = "type", havingValue = "postgres")
+@Slf4j
+public class PostgresEventTransport implements EventTransport {
+
+    // NOTIFY rejects payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+    private static final int MAX_NOTIFICATIONS_PER_STATEMENT = 64;
+    private static final String NEXT_OFFSETS =
+            "SELECT nextval('live_event_offsets') AS event_offset FROM generate_series(1, :count) ORDER BY event_offset";
+    // Receivers fetch a stored payload right after its notification; older ones are cleared on the way
+    private static final String STORE_PAYLOAD =
+            "WITH expired AS (DELETE FROM live_event_payloads WHERE created_at < now() - interval '5 minutes')" +
+            " INSERT INTO live_event_payloads (event_offset, envelope) VALUES (:offset, :envelope)";
+    private static final String LOAD_PAYLOAD = "SELECT envelope FROM live_event_payloads WHERE event_offset = :offset";
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, Integer> topicReferences = new ConcurrentHashMap<>();
+    private final Set<String> listening = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+    private volatile PostgresqlConnection listenerConnection;
+
+    private final Queue<LiveEvent> outbound = Queues.<LiveEvent>unboundedMultiproducer().get();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private volatile Consumer<LiveEvent> receiver = event -> {};
+    private Disposable session;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter receivedCounter;
+
+    public PostgresEventTransport(ConnectionFactory connectionFactory,
+                                  DatabaseClient databaseClient,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.connectionFactory = connectionFactory;
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.sentCounter = meterRegistry.counter("lecture.events.transport.notifications", "transport", getName(), "direction", "sent");
+        this.failedCounter = meterRegistry.counter("lecture.events.transport.notifications", "transport", getName(), "direction", "failed");
+        this.receivedCounter = meterRegistry.counter("lecture.events.transport.notifications", "transport", getName(), "direction", "received");
+    }
+
+    @PostConstruct
+    void start() {
+        session = Flux.defer(this::listenSession)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .transientErrors(true)
+                        .doBeforeRetry(signal -> log.warn("Live event listener connection lost, reconnecting: {}",
+                                signal.failure().getMessage())))
+                // One at a time, so a stored payload being fetched does not let later events overtake it
+                .concatMap(this::onNotification)
+                .subscribe();
+        log.info("Postgres live event transport started (instance {})", instanceId);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (session != null) {
+            session.dispose();
+        }
+    }
+
+    @Override
+    public void publish(LiveEvent event) {
+        outbound.offer(event);
+        drainOutbound();
+    }
+
+    @Override
+    public void setReceiver(Consumer<LiveEvent> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void listen(String topic) {
+        if (topicReferences.merge(topic, 1, Integer::sum) == 1) {
+            requestReconcile();
+        }
+    }
+
+    @Override
+    public void unlisten(String topic) {
+        if (topicReferences.computeIfPresent(topic, (t, references) -> references > 1 ? references - 1 : null) == null) {
+            requestReconcile();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "postgres";
+    }
+
+    // --- Outbound ---
+
+    /**
+     * Sequences, delivers and sends queued events one batch at a time, preserving publish order per instance.
+     */
+    private void drainOutbound() {
+        if (!sending.compareAndSet(false, true)) {
+            return;
+        }
+        List<LiveEvent> batch = new ArrayList<>();
+        LiveEvent next;
+        while (batch.size() < MAX_NOTIFICATIONS_PER_STATEMENT && (next = outbound.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            sending.set(false);
+            if (!outbound.isEmpty()) {
+                drainOutbound();
+            }
+            return;
+        }
+        nextOffsets(batch.size())
+                .map(offsets -> {
+                    List<LiveEvent> sequenced = new ArrayList<>(batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        sequenced.add(batch.get(i).withOffset(offsets.get(i)));
+                    }
+                    return sequenced;
+                })
+                .onErrorResume(e -> {
+                    // Without the database no other instance hears of the events either; keep serving the local
+                    // subscribers. Offsets invented here would collide with other instances', so the events go
+                    // unsequenced: they are not journaled and subscribers re-fetch rather than resume after them
+                    failedCounter.increment(batch.size());
+                    log.warn("Could not assign offsets to {} live events, delivering them locally and unsequenced: {}",
+                            batch.size(), e.getMessage());
+                    batch.forEach(this::deliver);
+                    return Mono.empty();
+                })
+                .doOnNext(sequenced -> sequenced.forEach(this::deliver))
+                .flatMap(this::send)
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> {
+                    sending.set(false);
+                    if (!outbound.isEmpty()) {
+                        drainOutbound();
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<List<Long>> nextOffsets(int count) {
+        return databaseClient.sql(NEXT_OFFSETS)
+                .bind("count", count)
+                .map((row, metadata) -> row.get("event_offset", Long.class))
+                .all()
+                .collectList();
+    }
+
+    private void deliver(LiveEvent event) {
+        try {
+            receiver.accept(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver {} event for key {}: {}", event.stream(), event.key(), e.getMessage());
+        }
+    }
+
+    private Mono<Void> send(List<LiveEvent> batch) {
+        List<String[]> notifications = new ArrayList<>(batch.size());
+        List<LiveEvent> stored = new ArrayList<>();
+        for (LiveEvent event : batch) {
+            String payload = encode(event);
+            if (payload == null) {
+                continue;
+            }
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                stored.add(event);
+                payload = reference(event);
+            }
+            notifications.add(new String[]{event.topic(), payload});
+        }
+        if (notifications.isEmpty()) {
+            return Mono.empty();
+        }
+        // Stored before they are notified, so receivers always find them
+        return Flux.fromIterable(stored)
+                .concatMap(event -> databaseClient.sql(STORE_PAYLOAD)
+                        .bind("offset", event.offset())
+                        .bind("envelope", encode(event))
+                        .then())
+                .then(notify(notifications))
+                .doOnSuccess(ignored -> sentCounter.increment(notifications.size()))
+                .doOnError(e -> {
+                    failedCounter.increment(notifications.size());
+                    log.warn("Failed to send {} live event notifications: {}", notifications.size(), e.getMessage());
+                });
+    }
+
+    private Mono<Void> notify(List<String[]> batch) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("pg_notify(:c").append(i).append(", :p").append(i).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < batch.size(); i++) {
+            spec = spec.bind("c" + i, batch.get(i)[0]).bind("p" + i, batch.get(i)[1]);
+        }
+        return spec.then();
+    }
+
+    private String encode(LiveEvent event) {
+        ObjectNode envelope = objectMapper.createObjectNode()
+                .put("origin", instanceId)
+                .put("stream", event.stream().name())
+                .put("key", event.key() != null ? event.key().toString() : null)
+                .put("type", event.payload().getClass().getSimpleName())
+                .put("publishedAt", event.publishedAtMicros())
+                .put("offset", event.offset());
+        envelope.set("payload", objectMapper.valueToTree(event.payload()));
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            failedCounter.increment();
+            log.warn("Could not encode {} event for key {}: {}", event.stream(), event.key(), e.getMessage());
+            return null;
+        }
+    }
+
+    private String reference(LiveEvent event) {
+        return objectMapper.createObjectNode()
+                .put("origin", instanceId)
+                .put("stored", event.offset())
+                .toString();
+    }
+
+    // --- Inbound ---
+
+    private Flux<Notification> listenSession() {
+        return Mono.from(connectionFactory.create())
+                .flatMapMany(connection -> {
+                    PostgresqlConnection postgresConnection = unwrap(connection);
+                    listening.clear();
+                    listenerConnection = postgresConnection;
+                    requestReconcile();
+                    log.info("Live event listener connected");
+                    return postgresConnection.getNotifications()
+                            .doFinally(signal -> {
+                                listenerConnection = null;
+                                Mono.from(connection.close()).onErrorResume(e -> Mono.empty()).subscribe();
+                            });
+                })
+                // A closed connection completes the notification stream; treat it as a failure to reconnect
+                .concatWith(Mono.error(() -> new IllegalStateException("Listener connection closed")));
+    }
+
+    private Mono<Void> onNotification(Notification notification) {
+        String payload = notification.getParameter();
+        if (payload == null) {
+            return Mono.empty();
+        }
+        try {
+            JsonNode envelope = objectMapper.readTree(payload);
+            if (instanceId.equals(envelope.path("origin").asText())) {
+                return Mono.empty(); // Already delivered locally when published
+            }
+            if (envelope.has("stored")) {
+                long offset = envelope.path("stored").asLong();
+                return databaseClient.sql(LOAD_PAYLOAD)
+                        .bind("offset", offset)
+                        .map((row, metadata) -> row.get("envelope", String.class))
+                        .one()
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("stored event " + offset + " not found")))
+                        .flatMap(stored -> Mono.fromRunnable(() -> receive(notification, stored)))
+                        .onErrorResume(e -> {
+                            log.warn("Dropping stored live event on {}: {}", notification.getName(), e.getMessage());
+                            return Mono.empty();
+                        })
+                        .then();
+            }
+            receive(notification, envelope);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Dropping undecodable live event on {}: {}", notification.getName(), e.getMessage());
+        }
+        return Mono.empty();
+    }
+
+    private void receive(Notification notification, String envelope) {
+        try {
+            receive(notification, objectMapper.readTree(envelope));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Dropping undecodable live event on {}: {}", notification.getName(), e.getMessage());
+        }
+    }
+
+    private void receive(Notification notification, JsonNode envelope) throws JsonProcessingException {
+        Class<?> type = LiveEvent.payloadType(envelope.path("type").asText());
+        if (type == null) {
+            log.warn("Ignoring live event of unknown type '{}' on {}", envelope.path("type").asText(), notification.getName());
+            return;
+        }
+        JsonNode key = envelope.get("key");
+        LiveEvent event = new LiveEvent(
+                LiveStream.valueOf(envelope.path("stream").asText()),
+                key == null || key.isNull() ? null : UUID.fromString(key.asText()),
+                objectMapper.treeToValue(envelope.get("payload"), type),
+                envelope.path("publishedAt").asLong(),
+                envelope.path("offset").asLong(),
+                true);
+        receivedCounter.increment();
+        receiver.accept(event);
+    }
+
+    /**
+     * Brings the listener connection's channels in line with {@link #topicReferences}. Runs one
+     * reconciliation at a time; requests arriving meanwhile trigger another pass.
+     */
+    private void requestReconcile() {
+        reconcileRequested.set(true);
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        reconcileRequested.set(false);
+        reconcile()
+                .doOnError(e -> log.warn("Failed to update live event channels: {}", e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> {
+                    reconciling.set(false);
+                    if (reconcileRequested.get()) {
+                        requestReconcile();
+                    }
+                })
+                .subscribe();
+    }
+
+    private Mono<Void> reconcile() {
+        PostgresqlConnection connection = listenerConnection;
+        if (connection == null) {
+            return Mono.empty(); // The next session re-listens to everything
+        }
+        List<String> toListen = topicReferences.keySet().stream().filter(topic -> !listening.contains(topic)).toList();
+        List<String> toUnlisten = listening.stream().filter(topic -> !topicReferences.containsKey(topic)).toList();
+        return Flux.concat(
+                        Flux.fromIterable(toListen).concatMap(topic -> execute(connection, "LISTEN \"" + topic + "\"")
+                                .doOnSuccess(ignored -> listening.add(topic))),
+                        Flux.fromIterable(toUnlisten).concatMap(topic -> execute(connection, "UNLISTEN \"" + topic + "\"")
+                                .doOnSuccess(ignored -> listening.remove(topic))))
+                .then()
+                .doOnSuccess(ignored -> {
+                    if (!toListen.isEmpty() || !toUnlisten.isEmpty()) {
+                        log.debug("Live event channels updated: +{} -{} (listening to {})",
+                                toListen.size(), toUnlisten.size(), listening.size());
+                    }
+                });
+    }
+
+    private static Mono<Void> execute(PostgresqlConnection connection, String sql) {
+        return connection.createStatement(sql).execute()
+                .flatMap(result -> result.getRowsUpdated())
+                .then();
+    }
+
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?> wrapped) {
+            current = wrapped.unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgresConnection) {
+            return postgresConnection;
+        }
+        throw new IllegalStateException("LISTEN/NOTIFY transport requires a Postgres R2DBC connection, got "
+                + connection.getClass().getName());
+    }
+}
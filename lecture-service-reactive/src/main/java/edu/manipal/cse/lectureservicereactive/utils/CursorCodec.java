@@ -0,0 +1,35 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque Relay cursors for keyset pagination. A cursor wraps the ID of the last row of a page;
+ * the query resolves the row's sort key {@code (created_at, id)} from it, so timestamps never
+ * round-trip through the client.
+ */
+public final class CursorCodec {
+
+    private static final String PREFIX = "cursor:";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UUID decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return UUID.fromString(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How elements are handed to one subscriber that consumes slower than they are published.
+ * <p>
+ * Each subscriber gets its own buffer, so a slow connection never holds back the others:
+ * <ul>
+ *     <li>{@code buffered}: up to {@code capacity} elements, dropping the oldest on overflow;</li>
+ *     <li>{@code latest}: only the most recent element, older undelivered ones are conflated.</li>
+ * </ul>
+ * A subscriber whose buffer overflows after it has received nothing for {@code slowConsumerTimeout}
+ * is disconnected with an error.
+ */
+@Slf4j
+public final class DeliveryPolicy {
+
+    private final String stream;
+    private final int capacity;
+    private final long slowConsumerTimeoutNanos;
+    private final Counter lostCounter;
+    private final Counter disconnectedCounter;
+
+    private DeliveryPolicy(String stream, int capacity, Duration slowConsumerTimeout, String lossOutcome,
+                           MeterRegistry meterRegistry) {
+        this.stream = stream;
+        this.capacity = capacity;
+        this.slowConsumerTimeoutNanos = slowConsumerTimeout.toNanos();
+        this.lostCounter = deliveryCounter(meterRegistry, stream, lossOutcome);
+        this.disconnectedCounter = deliveryCounter(meterRegistry, stream, "disconnected");
+    }
+
+    public static DeliveryPolicy buffered(String stream, int capacity, Duration slowConsumerTimeout, MeterRegistry meterRegistry) {
+        return new DeliveryPolicy(stream, capacity, slowConsumerTimeout, "dropped", meterRegistry);
+    }
+
+    public static DeliveryPolicy latest(String stream, Duration slowConsumerTimeout, MeterRegistry meterRegistry) {
+        return new DeliveryPolicy(stream, 1, slowConsumerTimeout, "conflated", meterRegistry);
+    }
+
+    /**
+     * Applies the policy to one subscriber's view of a hot source.
+     */
+    public <T> Flux<T> apply(Flux<T> source) {
+        return Flux.defer(() -> {
+            AtomicLong lastDelivery = new AtomicLong(System.nanoTime());
+            AtomicBoolean disconnected = new AtomicBoolean();
+            Sinks.One<Boolean> disconnect = Sinks.one();
+
+            return source
+                    .onBackpressureBuffer(capacity, lost -> {
+                        lostCounter.increment();
+                        if (System.nanoTime() - lastDelivery.get() >= slowConsumerTimeoutNanos
+                                && disconnected.compareAndSet(false, true)) {
+                            disconnectedCounter.increment();
+                            log.warn("Disconnecting slow subscriber of '{}': nothing consumed for {} ms while over its limit",
+                                    stream, Duration.ofNanos(slowConsumerTimeoutNanos).toMillis());
+                            disconnect.tryEmitValue(true);
+                        }
+                    }, BufferOverflowStrategy.DROP_OLDEST)
+                    .doOnNext(delivered -> lastDelivery.set(System.nanoTime()))
+                    .takeUntilOther(disconnect.asMono())
+                    .concatWith(Mono.defer(() -> disconnected.get()
+                            ? Mono.error(new OperationFailedException("Subscription closed: the client is not keeping up with '" + stream + "' events"))
+                            : Mono.empty()));
+        });
+    }
+
+    private static Counter deliveryCounter(MeterRegistry meterRegistry, String stream, String outcome) {
+        return Counter.builder("lecture.subscriptions.deliveries")
+                .description("Subscription elements not delivered as published, and subscribers disconnected for being too slow")
+                .tag("stream", stream)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
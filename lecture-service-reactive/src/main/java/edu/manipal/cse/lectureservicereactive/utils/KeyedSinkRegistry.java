@@ -0,0 +1,255 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Registry of multicast sinks keyed by an identifier (e.g. lecture or lecture question ID).
+ * <p>
+ * A sink is created when the first subscriber for a key arrives and removed once its last
+ * subscriber cancels, so publishing an event only touches the subscribers of that key
+ * instead of filtering one global stream per connection.
+ * <p>
+ * While a key has subscribers, its latest element is retained with its sequence number, so
+ * subscribers can start from a snapshot of the current state or resume after the last sequence
+ * they saw. Sequences are based on the offsets of the transported events carrying the elements, or,
+ * for state derived locally, on a version the state carries itself (e.g. a count); a loaded snapshot
+ * is sequenced in the same domain. The retained element goes away with the last subscriber: without subscribers, remote
+ * events for the key are no longer received and it could go stale.
+ *
+ * @param <K> key type
+ * @param <T> element type
+ */
+@Slf4j
+public class KeyedSinkRegistry<K, T> {
+
+    private final String name;
+    private final DeliveryPolicy deliveryPolicy;
+    private final Consumer<K> onFirstSubscriber;
+    private final Consumer<K> onLastSubscriber;
+    private final ToLongFunction<T> versionOf;
+    // Highest offset emitted so far: a state loaded now reflects at least the events up to it
+    private final AtomicLong lastOffset = new AtomicLong();
+    private final Map<K, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong emitFailures = new AtomicLong();
+
+    public KeyedSinkRegistry(String name, DeliveryPolicy deliveryPolicy) {
+        this(name, deliveryPolicy, key -> {}, key -> {}, null);
+    }
+
+    /**
+     * For state derived locally rather than transported, sequenced by a version that only grows
+     * with the state, so every instance derives the same sequence for the same state.
+     *
+     * @param versionOf version of an element, the base of its sequence number and of a loaded snapshot's
+     */
+    public KeyedSinkRegistry(String name, DeliveryPolicy deliveryPolicy, ToLongFunction<T> versionOf) {
+        this(name, deliveryPolicy, key -> {}, key -> {}, versionOf);
+    }
+
+    /**
+     * @param deliveryPolicy    buffering applied to each subscriber
+     * @param onFirstSubscriber called when a key gets its first subscriber
+     * @param onLastSubscriber  called when the last subscriber of a key is gone
+     */
+    public KeyedSinkRegistry(String name, DeliveryPolicy deliveryPolicy,
+                             Consumer<K> onFirstSubscriber, Consumer<K> onLastSubscriber) {
+        this(name, deliveryPolicy, onFirstSubscriber, onLastSubscriber, null);
+    }
+
+    private KeyedSinkRegistry(String name, DeliveryPolicy deliveryPolicy,
+                              Consumer<K> onFirstSubscriber, Consumer<K> onLastSubscriber, ToLongFunction<T> versionOf) {
+        this.name = name;
+        this.deliveryPolicy = deliveryPolicy;
+        this.onFirstSubscriber = onFirstSubscriber;
+        this.onLastSubscriber = onLastSubscriber;
+        this.versionOf = versionOf;
+    }
+
+    /**
+     * Returns a stream of the elements emitted for the given key. The underlying sink is
+     * reference-counted per subscription and released when the subscription terminates.
+     */
+    public Flux<T> stream(K key) {
+        return Flux.defer(() -> {
+            Entry<T> entry = acquire(key);
+            return deliveryPolicy.apply(entry.emitter.sink().asFlux().map(Sequenced::value))
+                    .doFinally(signal -> release(key, entry));
+        });
+    }
+
+    /**
+     * Returns the elements emitted for the given key with their sequence numbers, optionally
+     * starting with the current state.
+     *
+     * @param snapshot      start with the latest element, or with {@code current} if none was emitted yet
+     * @param afterSequence sequence of the last element the subscriber saw; the current state is only
+     *                      sent if it is a different one. Implies a snapshot.
+     * @param current       loads the current state when no element is retained; concurrent
+     *                      subscribers of the same key share one load
+     */
+    public Flux<Sequenced<T>> stream(K key, boolean snapshot, Long afterSequence, Mono<T> current) {
+        return Flux.defer(() -> {
+            Entry<T> entry = acquire(key);
+            Flux<Sequenced<T>> deltas = entry.emitter.sink().asFlux();
+            if (!snapshot && afterSequence == null) {
+                return deliveryPolicy.apply(deltas)
+                        .doFinally(signal -> release(key, entry));
+            }
+            Mono<Sequenced<T>> state = Mono.defer(() -> {
+                        Sequenced<T> latest = entry.latest.get();
+                        return latest != null ? Mono.just(latest) : entry.load(current, this::snapshotSequence);
+                    })
+                    .filter(latest -> afterSequence == null || latest.sequence() != afterSequence)
+                    .onErrorResume(e -> {
+                        // Deltas still flow; the client can fall back to a query
+                        log.warn("Could not load the current state of '{}' for key {}: {}", name, key, e.getMessage());
+                        return Mono.empty();
+                    });
+            // Deltas are subscribed before the state is read, so nothing emitted in between is lost;
+            // whatever arrives twice or out of order is dropped by sequence
+            AtomicLong lastSequence = new AtomicLong(Long.MIN_VALUE);
+            return deliveryPolicy.apply(Flux.merge(deltas, state)
+                            .filter(element -> !element.isSequenced()
+                                    || lastSequence.getAndAccumulate(element.sequence(), Math::max) < element.sequence()))
+                    .doFinally(signal -> release(key, entry));
+        });
+    }
+
+    /**
+     * Emits an element to the subscribers of the given key. Keys without subscribers are a no-op.
+     * Safe to call from any thread; never blocks and never throws.
+     *
+     * @param offset offset of the transported event carrying the element, or the element's version for
+     *               locally derived state; the base of its sequence number. An element without one is
+     *               retained {@link Sequenced#UNSEQUENCED} until the next sequenced element.
+     */
+    public void emit(K key, T value, long offset) {
+        lastOffset.accumulateAndGet(offset, Math::max);
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            log.trace("No subscribers on '{}' for key {}, dropping element", name, key);
+            return;
+        }
+        try {
+            entry.emitter.emit(entry.retain(value, offset));
+        } catch (RuntimeException e) {
+            emitFailures.incrementAndGet();
+            log.warn("Subscriber of '{}' failed while receiving an element for key {}", name, key, e);
+        }
+    }
+
+    public int keyCount() {
+        return entries.size();
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Elements handed to {@link #emit} but not yet emitted, across all keys.
+     */
+    public int queuedCount() {
+        int queued = 0;
+        for (Entry<T> entry : entries.values()) {
+            queued += entry.emitter.depth();
+        }
+        return queued;
+    }
+
+    public long emitFailureCount() {
+        return emitFailures.get();
+    }
+
+    private void onEmitFailure(Sinks.EmitResult result) {
+        emitFailures.incrementAndGet();
+        log.debug("Failed to emit '{}' element: {}", name, result);
+    }
+
+    private Entry<T> acquire(K key) {
+        Entry<T> entry = entries.compute(key, (k, existing) -> {
+            Entry<T> target = existing != null ? existing : new Entry<>(this::onEmitFailure);
+            target.references++;
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+        if (entry.firstSubscriberNotified.compareAndSet(false, true)) {
+            onFirstSubscriber.accept(key);
+        }
+        return entry;
+    }
+
+    private void release(K key, Entry<T> entry) {
+        subscriberCount.decrementAndGet();
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current != entry || --current.references > 0) {
+                return current;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            onLastSubscriber.accept(key);
+        }
+    }
+
+    private long snapshotSequence(T value) {
+        return versionOf != null ? versionOf.applyAsLong(value) : lastOffset.get();
+    }
+
+    private static final class Entry<T> {
+        private final SerializedEmitter<Sequenced<T>> emitter;
+        private final AtomicReference<Sequenced<T>> latest = new AtomicReference<>();
+        private int references;
+        private final AtomicBoolean firstSubscriberNotified = new AtomicBoolean();
+        private Mono<Sequenced<T>> loading;
+
+        private Entry(Consumer<Sinks.EmitResult> onEmitFailure) {
+            // No shared buffer: each subscriber buffers on its own according to the delivery policy.
+            // Emission is serialized by the emitter, so the sink needs no serialization of its own.
+            this.emitter = new SerializedEmitter<>(Sinks.unsafe().many().multicast().directBestEffort(), onEmitFailure);
+        }
+
+        private Sequenced<T> retain(T value, long base) {
+            if (base == Sequenced.UNSEQUENCED) {
+                return latest.updateAndGet(previous -> new Sequenced<>(Sequenced.UNSEQUENCED, value));
+            }
+            return latest.updateAndGet(previous -> new Sequenced<>(
+                    previous == null ? base : Math.max(previous.sequence() + 1, base), value));
+        }
+
+        private synchronized Mono<Sequenced<T>> load(Mono<T> current, ToLongFunction<T> sequenceOf) {
+            if (loading == null) {
+                loading = current
+                        // An element emitted while loading is newer than the loaded state
+                        .map(value -> latest.updateAndGet(previous ->
+                                previous != null ? previous : new Sequenced<>(sequenceOf.applyAsLong(value), value)))
+                        .doFinally(signal -> clearLoading())
+                        .cache();
+            }
+            return loading;
+        }
+
+        private synchronized void clearLoading() {
+            loading = null;
+        }
+    }
+}
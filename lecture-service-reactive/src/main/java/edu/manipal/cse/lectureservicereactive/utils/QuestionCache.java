@@ -0,0 +1,123 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded cache of per-question values (answer keys, question content) shared by the lectures
+ * using the questions.
+ * <p>
+ * A lecture holds the entries it loaded while it is live; releasing a lecture drops only the
+ * entries no other live lecture holds, so a question shared by two lectures stays cached until
+ * both end. Beyond {@code maxEntries}, the least recently used entry is evicted, preferring
+ * entries no lecture holds; an evicted value is simply loaded again on its next use.
+ *
+ * @param <V> value type
+ */
+public class QuestionCache<V> {
+
+    private final int maxEntries;
+    // Access order: iteration starts at the least recently used entry
+    private final LinkedHashMap<UUID, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    public QuestionCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public synchronized Optional<V> get(UUID questionId) {
+        Entry<V> entry = entries.get(questionId);
+        return entry != null ? Optional.of(entry.value) : Optional.empty();
+    }
+
+    /**
+     * Caches a value, held by the lecture if one is given.
+     */
+    public synchronized void put(UUID questionId, V value, UUID lectureId) {
+        Entry<V> entry = entries.get(questionId);
+        if (entry == null) {
+            entry = new Entry<>(value);
+            entries.put(questionId, entry);
+        } else {
+            entry.value = value;
+        }
+        if (lectureId != null) {
+            entry.holders.add(lectureId);
+        }
+        evictOverCapacity();
+    }
+
+    /**
+     * Marks a cached value as held by the lecture. Returns false if the question is not cached.
+     */
+    public synchronized boolean hold(UUID questionId, UUID lectureId) {
+        Entry<V> entry = entries.get(questionId);
+        if (entry == null) {
+            return false;
+        }
+        entry.holders.add(lectureId);
+        return true;
+    }
+
+    /**
+     * Releases the lecture's hold on its questions and drops those no other lecture holds.
+     *
+     * @return the number of entries dropped
+     */
+    public synchronized int release(UUID lectureId, Collection<UUID> questionIds) {
+        int dropped = 0;
+        for (UUID questionId : questionIds) {
+            Entry<V> entry = entries.get(questionId);
+            if (entry == null) {
+                continue;
+            }
+            entry.holders.remove(lectureId);
+            if (entry.holders.isEmpty()) {
+                entries.remove(questionId);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictOverCapacity() {
+        while (entries.size() > maxEntries) {
+            if (!evictLeastRecentlyUsed(true)) {
+                evictLeastRecentlyUsed(false);
+            }
+        }
+    }
+
+    private boolean evictLeastRecentlyUsed(boolean unheldOnly) {
+        Iterator<Map.Entry<UUID, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<V> entry = iterator.next().getValue();
+            if (!unheldOnly || entry.holders.isEmpty()) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Entry<V> {
+        private V value;
+        private final Set<UUID> holders = new HashSet<>();
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
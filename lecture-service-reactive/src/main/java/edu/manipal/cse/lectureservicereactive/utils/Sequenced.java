@@ -0,0 +1,18 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+/**
+ * An element of a keyed stream with its sequence number. Sequences strictly increase per key and
+ * are based on the offset the transport assigned to the event, so instances that delivered the same
+ * transported event assign it the same sequence.
+ * <p>
+ * An event the transport could not assign an offset to is delivered {@link #UNSEQUENCED}: it is
+ * never dropped as a duplicate, and no subscriber can resume after it.
+ */
+public record Sequenced<T>(long sequence, T value) {
+
+    public static final long UNSEQUENCED = 0;
+
+    public boolean isSequenced() {
+        return sequence != UNSEQUENCED;
+    }
+}
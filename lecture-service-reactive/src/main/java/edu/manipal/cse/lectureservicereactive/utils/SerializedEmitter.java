@@ -0,0 +1,78 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lets any number of threads emit into one sink without locks.
+ * <p>
+ * Producers append to an MPSC queue; the producer that finds the emitter idle drains the queue
+ * into the sink, and producers arriving meanwhile only enqueue. The sink therefore only ever sees
+ * one emitting thread, emission cannot fail with {@code FAIL_NON_SERIALIZED}, and callers never
+ * block. A subscriber throwing from {@code onNext} fails the emitting call, but never leaves the
+ * emitter stuck: elements still queued go out with the next emit.
+ *
+ * @param <T> element type
+ */
+public final class SerializedEmitter<T> {
+
+    private final Sinks.Many<T> sink;
+    private final Consumer<Sinks.EmitResult> onFailure;
+    private final Queue<T> queue = Queues.<T>unboundedMultiproducer().get();
+    private final AtomicInteger wip = new AtomicInteger();
+    // The MPSC queue's size() walks the queue, so depth is tracked separately for metrics
+    private final AtomicInteger depth = new AtomicInteger();
+
+    /**
+     * @param onFailure called from the draining thread for every element the sink rejected
+     */
+    public SerializedEmitter(Sinks.Many<T> sink, Consumer<Sinks.EmitResult> onFailure) {
+        this.sink = sink;
+        this.onFailure = onFailure;
+    }
+
+    public void emit(T value) {
+        queue.offer(value);
+        depth.incrementAndGet();
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        boolean drained = false;
+        try {
+            do {
+                T next;
+                while ((next = queue.poll()) != null) {
+                    depth.decrementAndGet();
+                    Sinks.EmitResult result = sink.tryEmitNext(next);
+                    // Nobody subscribed is not a failure: the element simply has no audience
+                    if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+                        onFailure.accept(result);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+            drained = true;
+        } finally {
+            if (!drained) {
+                // Leave the drain so the next producer takes over instead of only enqueueing forever
+                wip.set(0);
+            }
+        }
+    }
+
+    /**
+     * Elements handed over but not yet emitted.
+     */
+    public int depth() {
+        return depth.get();
+    }
+
+    public Sinks.Many<T> sink() {
+        return sink;
+    }
+}
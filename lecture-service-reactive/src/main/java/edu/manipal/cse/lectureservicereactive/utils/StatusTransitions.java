@@ -0,0 +1,62 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import edu.manipal.cse.lectureservicereactive.models.Lecture.LectureStatus;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion.LectureQuestionStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed status transitions of lectures and lecture questions, keyed by target status.
+ * <p>
+ * The allowed-from set of a target status is what conditional {@code UPDATE ... WHERE status IN (...)}
+ * statements bind, so the database and the in-memory live state enforce the same table.
+ * Re-applying the current status is allowed and leaves the row unchanged apart from its timestamp.
+ */
+public final class StatusTransitions {
+
+    // Lectures move freely until they are COMPLETED or CANCELLED
+    private static final Map<LectureStatus, Set<LectureStatus>> LECTURE = new EnumMap<>(Map.of(
+            LectureStatus.SCHEDULED, EnumSet.of(LectureStatus.SCHEDULED, LectureStatus.IN_PROGRESS),
+            LectureStatus.IN_PROGRESS, EnumSet.of(LectureStatus.SCHEDULED, LectureStatus.IN_PROGRESS),
+            LectureStatus.COMPLETED, EnumSet.of(LectureStatus.SCHEDULED, LectureStatus.IN_PROGRESS, LectureStatus.COMPLETED),
+            LectureStatus.CANCELLED, EnumSet.of(LectureStatus.SCHEDULED, LectureStatus.IN_PROGRESS, LectureStatus.CANCELLED)
+    ));
+
+    // Questions only move forward: PENDING -> ACTIVE -> COMPLETED, PENDING -> COMPLETED
+    private static final Map<LectureQuestionStatus, Set<LectureQuestionStatus>> LECTURE_QUESTION = new EnumMap<>(Map.of(
+            LectureQuestionStatus.PENDING, EnumSet.of(LectureQuestionStatus.PENDING),
+            LectureQuestionStatus.ACTIVE, EnumSet.of(LectureQuestionStatus.PENDING, LectureQuestionStatus.ACTIVE),
+            LectureQuestionStatus.COMPLETED, EnumSet.of(LectureQuestionStatus.PENDING, LectureQuestionStatus.ACTIVE, LectureQuestionStatus.COMPLETED)
+    ));
+
+    private StatusTransitions() {
+    }
+
+    public static boolean isAllowed(LectureStatus current, LectureStatus next) {
+        return LECTURE.get(next).contains(current);
+    }
+
+    public static boolean isAllowed(LectureQuestionStatus current, LectureQuestionStatus next) {
+        return LECTURE_QUESTION.get(next).contains(current);
+    }
+
+    /**
+     * Names of the statuses a lecture may be in to move to {@code next}, for binding as {@code IN (:allowedFrom)}.
+     */
+    public static List<String> allowedFrom(LectureStatus next) {
+        return names(LECTURE.get(next));
+    }
+
+    public static List<String> allowedFrom(LectureQuestionStatus next) {
+        return names(LECTURE_QUESTION.get(next));
+    }
+
+    private static List<String> names(Set<? extends Enum<?>> statuses) {
+        return Collections.unmodifiableList(statuses.stream().map(Enum::name).toList());
+    }
+}
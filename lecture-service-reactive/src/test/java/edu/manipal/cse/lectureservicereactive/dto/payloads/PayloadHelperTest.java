@@ -0,0 +1,50 @@
+package edu.manipal.cse.lectureservicereactive.dto.payloads;
+
+import edu.manipal.cse.lectureservicereactive.exceptions.DuplicateResourceException;
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import edu.manipal.cse.lectureservicereactive.services.StudentResponseService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadHelperTest {
+
+    private static final String UNEXPECTED_ERROR = "Operation failed due to an unexpected error.";
+
+    @Test
+    void submissionRejectionsKeepTheirFixedMessages() {
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(
+                new OperationFailedException(StudentResponseService.NOT_ACCEPTING_RESPONSES)))
+                .extracting(UserError::message)
+                .containsExactly(StudentResponseService.NOT_ACCEPTING_RESPONSES);
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(
+                new IllegalArgumentException(StudentResponseService.INVALID_SUBMISSION_SIZE)))
+                .extracting(UserError::message)
+                .containsExactly(StudentResponseService.INVALID_SUBMISSION_SIZE);
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(
+                new DuplicateResourceException("Response conflicts with (student_id, lecture_question_id)")))
+                .extracting(UserError::message)
+                .containsExactly(StudentResponseService.ALREADY_RESPONDED);
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(
+                new IllegalArgumentException(StudentResponseService.SUBMISSION_STUDENTS_ONLY)))
+                .extracting(UserError::message)
+                .containsExactly(StudentResponseService.SUBMISSION_STUDENTS_ONLY);
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(
+                new IllegalArgumentException(StudentResponseService.MISSING_USER_CONTEXT)))
+                .extracting(UserError::message)
+                .containsExactly(StudentResponseService.MISSING_USER_CONTEXT);
+    }
+
+    @Test
+    void otherFailuresStayGeneric() {
+        OperationFailedException downstream = new OperationFailedException("Question service returned 500: {\"trace\":\"...\"}");
+
+        assertThat(PayloadHelper.mapSubmissionErrorToUserErrors(downstream))
+                .extracting(UserError::message)
+                .containsExactly(UNEXPECTED_ERROR);
+        assertThat(PayloadHelper.mapExceptionToUserErrors(
+                new OperationFailedException(StudentResponseService.NOT_ACCEPTING_RESPONSES)))
+                .extracting(UserError::message)
+                .containsExactly(UNEXPECTED_ERROR);
+    }
+}
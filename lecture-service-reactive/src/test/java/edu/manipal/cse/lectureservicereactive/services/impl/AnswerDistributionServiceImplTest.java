@@ -0,0 +1,122 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerCount;
+import edu.manipal.cse.lectureservicereactive.dto.outputs.AnswerDistribution;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnswerDistributionServiceImplTest {
+
+    private final UUID lectureQuestionId = UUID.randomUUID();
+    private final UUID questionId = UUID.randomUUID();
+    private final UUID correctAnswer = UUID.randomUUID();
+    private final UUID wrongAnswer = UUID.randomUUID();
+    private final UUID removedAnswer = UUID.randomUUID();
+
+    private final StudentResponseRepository studentResponseRepository = mock(StudentResponseRepository.class);
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final Sinks.Many<StudentResponse> responses = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<StudentResponse> seed = Sinks.many().unicast().onBackpressureBuffer();
+
+    private AnswerDistributionServiceImpl distributionService;
+
+    @BeforeEach
+    void setUp() {
+        LectureQuestion lectureQuestion = new LectureQuestion();
+        lectureQuestion.setLectureQuestionId(lectureQuestionId);
+        lectureQuestion.setQuestionId(questionId);
+        lectureQuestion.setStatus(LectureQuestion.LectureQuestionStatus.ACTIVE);
+        LiveLectureService liveLectureService = mock(LiveLectureService.class);
+        when(liveLectureService.findLectureQuestion(lectureQuestionId)).thenReturn(Optional.of(lectureQuestion));
+
+        AnswerKeyService answerKeyService = mock(AnswerKeyService.class);
+        when(answerKeyService.preloadForQuestion(questionId)).thenReturn(Mono.just(
+                new AnswerKeyService.AnswerKey(questionId, Map.of(correctAnswer, true, wrongAnswer, false))));
+
+        when(subscriptionService.studentResponseStream(lectureQuestionId)).thenReturn(responses.asFlux());
+        when(subscriptionService.lectureQuestionTransitions()).thenReturn(Flux.<LectureQuestion>never());
+        when(studentResponseRepository.findByLectureQuestionId(lectureQuestionId)).thenReturn(seed.asFlux());
+
+        distributionService = new AnswerDistributionServiceImpl(mock(LectureQuestionRepository.class), liveLectureService,
+                studentResponseRepository, answerKeyService, subscriptionService, Duration.ofMillis(500));
+    }
+
+    @Test
+    void responsesSeenInTheSeedAndTheStreamAreCountedOnce() {
+        StudentResponse correct = response(correctAnswer);
+        StudentResponse wrong = response(wrongAnswer);
+        StudentResponse unknown = response(removedAnswer);
+        StudentResponse streamedOnly = response(correctAnswer);
+
+        StepVerifier.create(distributionService.activate(lectureQuestionId))
+                .then(() -> {
+                    // Stored before the seed query, but delivered on the stream while it runs
+                    responses.tryEmitNext(correct);
+                    responses.tryEmitNext(unknown);
+                    seed.tryEmitNext(correct);
+                    seed.tryEmitNext(wrong);
+                    seed.tryEmitNext(unknown);
+                    responses.tryEmitNext(streamedOnly);
+                    seed.tryEmitComplete();
+                })
+                .verifyComplete();
+
+        StepVerifier.create(distributionService.getDistribution(lectureQuestionId))
+                .assertNext(distribution -> {
+                    assertThat(distribution.total()).isEqualTo(4);
+                    assertThat(distribution.correctCount()).isEqualTo(2);
+                    assertThat(countOf(distribution, correctAnswer)).isEqualTo(2);
+                    assertThat(countOf(distribution, wrongAnswer)).isEqualTo(1);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void distributionOfAQuestionThatIsNotLiveComesFromGroupedCounts() {
+        when(studentResponseRepository.countGroupedByAnswerId(lectureQuestionId)).thenReturn(Flux.just(
+                new AnswerCount(correctAnswer, 3), new AnswerCount(wrongAnswer, 2), new AnswerCount(removedAnswer, 1)));
+
+        StepVerifier.create(distributionService.getDistribution(lectureQuestionId))
+                .assertNext(distribution -> {
+                    assertThat(distribution.total()).isEqualTo(6);
+                    assertThat(distribution.correctCount()).isEqualTo(3);
+                })
+                .verifyComplete();
+    }
+
+    private StudentResponse response(UUID answerId) {
+        return StudentResponse.builder()
+                .responseId(UUID.randomUUID())
+                .lectureQuestionId(lectureQuestionId)
+                .answerId(answerId)
+                .build();
+    }
+
+    private static int countOf(AnswerDistribution distribution, UUID answerId) {
+        return distribution.answers().stream()
+                .filter(answer -> answer.answerId().equals(answerId))
+                .mapToInt(AnswerCount::count)
+                .findFirst()
+                .orElseThrow();
+    }
+}
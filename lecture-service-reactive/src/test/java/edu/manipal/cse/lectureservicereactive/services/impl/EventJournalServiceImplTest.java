@@ -0,0 +1,145 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.transport.LiveEvent;
+import edu.manipal.cse.lectureservicereactive.transport.LiveStream;
+import edu.manipal.cse.lectureservicereactive.utils.Sequenced;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EventJournalServiceImplTest {
+
+    private static final int CAPACITY = 4;
+
+    private final UUID lectureId = UUID.randomUUID();
+    private final LiveLectureService liveLectureService = mock(LiveLectureService.class);
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+    @SuppressWarnings("rawtypes")
+    private final RowsFetchSpec rows = mock(RowsFetchSpec.class);
+
+    private EventJournalServiceImpl journal;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<LiveLectureService> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(liveLectureService);
+        when(liveLectureService.isLive(lectureId)).thenReturn(true);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        when(spec.map(any(BiFunction.class))).thenReturn(rows);
+        journal = new EventJournalServiceImpl(databaseClient, new ObjectMapper(), provider, new SimpleMeterRegistry(), CAPACITY);
+    }
+
+    @Test
+    void replaysTheEventsAfterAnOffsetInOffsetOrder() {
+        append(100);
+        append(102);
+        // Published earlier on another instance, delivered here after 102
+        append(101);
+        append(103);
+
+        StepVerifier.create(journal.replay(lectureId, 100).map(Sequenced::sequence))
+                .expectNext(101L, 102L, 103L)
+                .verifyComplete();
+        StepVerifier.create(journal.replay(lectureId, 103).map(Sequenced::sequence))
+                .verifyComplete();
+    }
+
+    @Test
+    void offsetsOverwrittenInTheRingAreAGap() {
+        for (long offset = 100; offset < 100 + CAPACITY + 2; offset++) {
+            append(offset);
+        }
+
+        StepVerifier.create(journal.replay(lectureId, 100))
+                .expectError(OperationFailedException.class)
+                .verify();
+        StepVerifier.create(journal.replay(lectureId, 101).map(Sequenced::sequence))
+                .expectNext(102L, 103L, 104L, 105L)
+                .verifyComplete();
+    }
+
+    @Test
+    void offsetsBeyondTheLastJournaledEventAreAGap() {
+        append(100);
+
+        StepVerifier.create(journal.replay(lectureId, 5_000))
+                .expectError(OperationFailedException.class)
+                .verify();
+    }
+
+    @Test
+    void offsetsBeforeAnUnsequencedEventAreAGap() {
+        append(100);
+        append(101);
+        append(LiveEvent.UNASSIGNED);
+
+        StepVerifier.create(journal.replay(lectureId, 101))
+                .expectError(OperationFailedException.class)
+                .verify();
+        append(102);
+        StepVerifier.create(journal.replay(lectureId, 100))
+                .expectError(OperationFailedException.class)
+                .verify();
+        StepVerifier.create(journal.replay(lectureId, 102).map(Sequenced::sequence))
+                .verifyComplete();
+    }
+
+    @Test
+    void liveLectureWithNothingJournaledHereIsAGap() {
+        StepVerifier.create(journal.replay(lectureId, 100))
+                .expectError(OperationFailedException.class)
+                .verify();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endedLectureWithoutAWrittenJournalIsAGap() {
+        when(liveLectureService.isLive(lectureId)).thenReturn(false);
+        when(rows.one()).thenReturn(Mono.empty());
+
+        StepVerifier.create(journal.replay(lectureId, 100))
+                .expectError(OperationFailedException.class)
+                .verify();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void endedLectureOffsetsOutsideTheWrittenJournalAreAGap() {
+        when(liveLectureService.isLive(lectureId)).thenReturn(false);
+        when(rows.one()).thenReturn(Mono.just(new long[]{100, 110}));
+
+        StepVerifier.create(journal.replay(lectureId, 99))
+                .expectError(OperationFailedException.class)
+                .verify();
+        StepVerifier.create(journal.replay(lectureId, 111))
+                .expectError(OperationFailedException.class)
+                .verify();
+    }
+
+    private void append(long offset) {
+        Lecture lecture = new Lecture();
+        lecture.setLectureId(lectureId);
+        lecture.setStatus(Lecture.LectureStatus.IN_PROGRESS);
+        journal.append(new LiveEvent(LiveStream.LECTURE_UPDATED, lectureId, lecture, 0, offset, false));
+    }
+}
@@ -0,0 +1,129 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerDistributionService;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.QuestionTimerService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LectureQuestionServiceImplTest {
+
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final ResponseCounterService responseCounterService = mock(ResponseCounterService.class);
+    private final AnswerDistributionService answerDistributionService = mock(AnswerDistributionService.class);
+    private final LectureQuestionRepository lectureQuestionRepository = mock(LectureQuestionRepository.class);
+    private final LiveLectureService liveLectureService = mock(LiveLectureService.class);
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+    private final RowsFetchSpec<LectureQuestion> rows = mock();
+
+    private LectureQuestionServiceImpl lectureQuestionService;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        when(spec.map(ArgumentMatchers.<BiFunction<Row, RowMetadata, LectureQuestion>>any())).thenReturn(rows);
+        lectureQuestionService = new LectureQuestionServiceImpl(lectureQuestionRepository, subscriptionService,
+                responseCounterService, mock(AnswerKeyService.class), answerDistributionService,
+                liveLectureService, mock(QuestionTimerService.class), databaseClient,
+                mock(R2dbcEntityTemplate.class));
+        ReflectionTestUtils.setField(lectureQuestionService, "sweepInterval", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        lectureQuestionService.stopExpirySweep();
+    }
+
+    @Test
+    void sweepPublishesEachClaimedQuestionOnce() {
+        LectureQuestion claimed = completed();
+        when(rows.all()).thenReturn(Flux.just(claimed)).thenReturn(Flux.empty());
+
+        lectureQuestionService.startExpirySweep();
+
+        verify(subscriptionService, timeout(1000)).publishLectureQuestionUpdate(claimed);
+        verify(subscriptionService, after(100).times(1)).publishLectureQuestionUpdate(any());
+        verify(responseCounterService).deactivate(claimed.getLectureQuestionId());
+        verify(answerDistributionService).deactivate(claimed.getLectureQuestionId());
+    }
+
+    @Test
+    void sweepPublishesNothingWhenAnotherInstanceClaimedFirst() {
+        when(rows.all()).thenReturn(Flux.empty());
+
+        lectureQuestionService.startExpirySweep();
+
+        verify(rows, timeout(1000).atLeast(2)).all();
+        verify(subscriptionService, never()).publishLectureQuestionUpdate(any());
+    }
+
+    @Test
+    void sweepKeepsRunningAfterAFailedClaim() {
+        LectureQuestion claimed = completed();
+        when(rows.all()).thenReturn(Flux.error(new IllegalStateException("connection reset")))
+                .thenReturn(Flux.just(claimed))
+                .thenReturn(Flux.empty());
+
+        lectureQuestionService.startExpirySweep();
+
+        verify(subscriptionService, timeout(1000).times(1)).publishLectureQuestionUpdate(claimed);
+    }
+
+    @Test
+    void questionsOfLiveLecturesAreNotQueried() {
+        LectureQuestion live = completed();
+        LectureQuestion stored = completed();
+        when(liveLectureService.findQuestions(any())).thenReturn(Optional.empty());
+        when(liveLectureService.findQuestions(live.getLectureId())).thenReturn(Optional.of(List.of(live)));
+        when(lectureQuestionRepository.findByLectureIdIn(List.of(stored.getLectureId()))).thenReturn(Flux.just(stored));
+
+        StepVerifier.create(lectureQuestionService.findQuestionsForLectures(List.of(live.getLectureId(), stored.getLectureId())))
+                .expectNext(live, stored)
+                .verifyComplete();
+        StepVerifier.create(lectureQuestionService.findQuestionsForLectures(List.of(live.getLectureId())))
+                .expectNext(live)
+                .verifyComplete();
+        verify(lectureQuestionRepository, times(1)).findByLectureIdIn(any());
+    }
+
+    private static LectureQuestion completed() {
+        return new LectureQuestion(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                LectureQuestion.LectureQuestionStatus.COMPLETED, Instant.now().minusSeconds(1),
+                LocalDateTime.now().minusMinutes(1), LocalDateTime.now());
+    }
+}
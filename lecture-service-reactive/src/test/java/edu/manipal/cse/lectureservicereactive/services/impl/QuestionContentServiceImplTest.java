@@ -0,0 +1,98 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.clients.QuestionServiceClient;
+import edu.manipal.cse.lectureservicereactive.dto.response.QuestionResponse;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionContentServiceImplTest {
+
+    private static final int MAX_ENTRIES = 2;
+
+    private final QuestionServiceClient questionServiceClient = mock(QuestionServiceClient.class);
+    private final LectureQuestionRepository lectureQuestionRepository = mock(LectureQuestionRepository.class);
+
+    private QuestionContentServiceImpl questionContentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(questionServiceClient.getQuestions(anyList())).thenAnswer(invocation -> Mono.just(
+                ((List<UUID>) invocation.getArgument(0)).stream()
+                        .map(questionId -> QuestionResponse.builder().questionId(questionId).title("Q").build())
+                        .toList()));
+        questionContentService = new QuestionContentServiceImpl(questionServiceClient, lectureQuestionRepository,
+                new SimpleMeterRegistry(), MAX_ENTRIES);
+    }
+
+    @Test
+    void contentSharedWithALiveLectureStaysCachedWhenAnotherEnds() {
+        UUID questionId = UUID.randomUUID();
+        LectureQuestion ended = lectureQuestion(UUID.randomUUID(), questionId);
+        LectureQuestion live = lectureQuestion(UUID.randomUUID(), questionId);
+        when(lectureQuestionRepository.findByLectureId(ended.getLectureId())).thenReturn(Flux.just(ended));
+
+        find(ended);
+        find(live);
+        StepVerifier.create(questionContentService.evictForLecture(ended.getLectureId())).verifyComplete();
+        find(live);
+
+        verify(questionServiceClient, times(1)).getQuestions(anyList());
+    }
+
+    @Test
+    void contentNoLectureHoldsIsDroppedWhenItsLectureEnds() {
+        LectureQuestion ended = lectureQuestion(UUID.randomUUID(), UUID.randomUUID());
+        when(lectureQuestionRepository.findByLectureId(ended.getLectureId())).thenReturn(Flux.just(ended));
+
+        find(ended);
+        StepVerifier.create(questionContentService.evictForLecture(ended.getLectureId())).verifyComplete();
+        find(ended);
+
+        verify(questionServiceClient, times(2)).getQuestions(anyList());
+    }
+
+    @Test
+    void fullCacheEvictsTheLeastRecentlyUsedQuestion() {
+        UUID lectureId = UUID.randomUUID();
+        LectureQuestion first = lectureQuestion(lectureId, UUID.randomUUID());
+        LectureQuestion second = lectureQuestion(lectureId, UUID.randomUUID());
+        LectureQuestion third = lectureQuestion(lectureId, UUID.randomUUID());
+
+        find(first);
+        find(second);
+        find(first);
+        find(third);
+        // second was evicted to make room, first was used more recently and stayed
+        find(first);
+        verify(questionServiceClient, times(3)).getQuestions(anyList());
+        find(second);
+        verify(questionServiceClient, times(4)).getQuestions(anyList());
+    }
+
+    private void find(LectureQuestion lectureQuestion) {
+        StepVerifier.create(questionContentService.findQuestions(List.of(lectureQuestion)))
+                .expectNextMatches(found -> found.containsKey(lectureQuestion.getQuestionId()))
+                .verifyComplete();
+    }
+
+    private static LectureQuestion lectureQuestion(UUID lectureId, UUID questionId) {
+        return new LectureQuestion(UUID.randomUUID(), lectureId, questionId,
+                LectureQuestion.LectureQuestionStatus.PENDING, null, null, null);
+    }
+}
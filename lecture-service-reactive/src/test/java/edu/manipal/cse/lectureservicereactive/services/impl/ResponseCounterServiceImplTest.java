@@ -0,0 +1,96 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ResponseCounterServiceImplTest {
+
+    private final UUID lectureQuestionId = UUID.randomUUID();
+    private final StudentResponseRepository studentResponseRepository = mock(StudentResponseRepository.class);
+    private final SubscriptionService subscriptionService = mock(SubscriptionService.class);
+    private final Sinks.Many<StudentResponse> responses = Sinks.many().multicast().directBestEffort();
+    private final Sinks.Many<UUID> seed = Sinks.many().unicast().onBackpressureBuffer();
+
+    private ResponseCounterServiceImpl counterService;
+
+    @BeforeEach
+    void setUp() {
+        when(subscriptionService.studentResponseStream(lectureQuestionId)).thenReturn(responses.asFlux());
+        when(subscriptionService.lectureQuestionTransitions()).thenReturn(Flux.<LectureQuestion>never());
+        when(studentResponseRepository.findResponseIdsByLectureQuestionId(lectureQuestionId)).thenReturn(seed.asFlux());
+        counterService = new ResponseCounterServiceImpl(studentResponseRepository, mock(LectureQuestionRepository.class),
+                mock(LiveLectureService.class), subscriptionService, Duration.ofMillis(200));
+    }
+
+    @Test
+    void countsResponsesStreamedDuringTheSeedOnce() {
+        List<UUID> stored = IntStream.range(0, 10).mapToObj(i -> UUID.randomUUID()).toList();
+        UUID streamedAfterSnapshot1 = UUID.randomUUID();
+        UUID streamedAfterSnapshot2 = UUID.randomUUID();
+
+        StepVerifier.create(counterService.activate(lectureQuestionId))
+                .then(() -> {
+                    // The last stored response is both in the snapshot and delivered on the stream
+                    responses.tryEmitNext(response(stored.get(9)));
+                    responses.tryEmitNext(response(streamedAfterSnapshot1));
+                    stored.forEach(seed::tryEmitNext);
+                    responses.tryEmitNext(response(streamedAfterSnapshot2));
+                    seed.tryEmitComplete();
+                })
+                .expectNext(12)
+                .verifyComplete();
+
+        assertThat(counterService.currentCount(lectureQuestionId)).contains(12);
+    }
+
+    @Test
+    void countsResponsesStreamedAfterTheSeed() {
+        StepVerifier.create(counterService.activate(lectureQuestionId))
+                .then(() -> {
+                    seed.tryEmitNext(UUID.randomUUID());
+                    seed.tryEmitComplete();
+                })
+                .expectNext(1)
+                .verifyComplete();
+
+        UUID late = UUID.randomUUID();
+        responses.tryEmitNext(response(late));
+        responses.tryEmitNext(response(late));
+
+        assertThat(counterService.currentCount(lectureQuestionId)).contains(2);
+    }
+
+    @Test
+    void forgetsTheCounterWhenTheSeedFails() {
+        StepVerifier.create(counterService.activate(lectureQuestionId))
+                .then(() -> seed.tryEmitError(new IllegalStateException("connection lost")))
+                .verifyError(IllegalStateException.class);
+
+        assertThat(counterService.currentCount(lectureQuestionId)).isEmpty();
+    }
+
+    private StudentResponse response(UUID responseId) {
+        return StudentResponse.builder()
+                .responseId(responseId)
+                .lectureQuestionId(lectureQuestionId)
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package edu.manipal.cse.lectureservicereactive.services.impl;
+
+import edu.manipal.cse.lectureservicereactive.dto.outputs.StudentResponseEdge;
+import edu.manipal.cse.lectureservicereactive.models.StudentResponse;
+import edu.manipal.cse.lectureservicereactive.repositories.LectureQuestionRepository;
+import edu.manipal.cse.lectureservicereactive.repositories.StudentResponseRepository;
+import edu.manipal.cse.lectureservicereactive.services.AnswerKeyService;
+import edu.manipal.cse.lectureservicereactive.services.LiveLectureService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseCounterService;
+import edu.manipal.cse.lectureservicereactive.services.ResponseIngestionService;
+import edu.manipal.cse.lectureservicereactive.services.SubscriptionService;
+import edu.manipal.cse.lectureservicereactive.utils.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentResponseServiceImplTest {
+
+    private final UUID lectureQuestionId = UUID.randomUUID();
+    private final StudentResponseRepository studentResponseRepository = mock(StudentResponseRepository.class);
+    private final DatabaseClient databaseClient = mock(DatabaseClient.class);
+    private final DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+    @SuppressWarnings("unchecked")
+    private final RowsFetchSpec<StudentResponse> rows = mock(RowsFetchSpec.class);
+
+    private StudentResponseServiceImpl studentResponseService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        when(spec.map(any(BiFunction.class))).thenReturn(rows);
+        studentResponseService = new StudentResponseServiceImpl(mock(SubscriptionService.class), studentResponseRepository,
+                mock(LectureQuestionRepository.class), mock(LiveLectureService.class), mock(AnswerKeyService.class),
+                mock(ResponseCounterService.class), mock(ResponseIngestionService.class), databaseClient,
+                mock(R2dbcEntityTemplate.class));
+    }
+
+    @Test
+    void firstPageFetchesOneExtraRowToDetectTheNextPage() {
+        List<StudentResponse> stored = responses(3);
+        when(rows.all()).thenReturn(Flux.fromIterable(stored));
+
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 2, null))
+                .assertNext(connection -> {
+                    assertThat(connection.edges()).extracting(StudentResponseEdge::node)
+                            .containsExactly(stored.get(0), stored.get(1));
+                    assertThat(connection.pageInfo().hasNextPage()).isTrue();
+                    assertThat(connection.pageInfo().hasPreviousPage()).isFalse();
+                    assertThat(connection.pageInfo().startCursor()).isEqualTo(CursorCodec.encode(stored.get(0).getResponseId()));
+                    assertThat(connection.pageInfo().endCursor()).isEqualTo(CursorCodec.encode(stored.get(1).getResponseId()));
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertThat(sql.getValue()).doesNotContain(":after").endsWith("ORDER BY created_at, response_id LIMIT :limit");
+        verify(spec).bind("limit", 3);
+    }
+
+    @Test
+    void lastPageHasNoNextPage() {
+        UUID cursorId = UUID.randomUUID();
+        List<StudentResponse> stored = responses(1);
+        when(rows.all()).thenReturn(Flux.fromIterable(stored));
+        when(studentResponseRepository.existsByResponseIdAndLectureQuestionId(cursorId, lectureQuestionId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 2, CursorCodec.encode(cursorId)))
+                .assertNext(connection -> {
+                    assertThat(connection.edges()).hasSize(1);
+                    assertThat(connection.pageInfo().hasNextPage()).isFalse();
+                    assertThat(connection.pageInfo().hasPreviousPage()).isTrue();
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertThat(sql.getValue()).contains("(created_at, response_id) > (SELECT c.created_at, c.response_id");
+        verify(spec).bind("after", cursorId);
+    }
+
+    @Test
+    void studentPagesSeekBackwards() {
+        UUID studentId = UUID.randomUUID();
+        UUID cursorId = UUID.randomUUID();
+        when(rows.all()).thenReturn(Flux.empty());
+        when(studentResponseRepository.existsByResponseIdAndStudentId(cursorId, studentId)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(studentResponseService.findResponseConnectionByStudent(studentId, 10, CursorCodec.encode(cursorId)))
+                .assertNext(connection -> assertThat(connection.pageInfo().endCursor()).isNull())
+                .verifyComplete();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertThat(sql.getValue())
+                .contains("student_id = :ownerId")
+                .contains("(created_at, response_id) < (SELECT")
+                .endsWith("ORDER BY created_at DESC, response_id DESC LIMIT :limit");
+    }
+
+    @Test
+    void unknownCursorIsAnErrorRatherThanAnEmptyPage() {
+        UUID cursorId = UUID.randomUUID();
+        when(rows.all()).thenReturn(Flux.empty());
+        when(studentResponseRepository.existsByResponseIdAndLectureQuestionId(cursorId, lectureQuestionId)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 10, CursorCodec.encode(cursorId)))
+                .verifyErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(IllegalArgumentException.class)
+                        .hasMessageStartingWith("Unknown cursor"));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 10, "not-a-cursor"))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pageSizeIsBounded() {
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 101, null))
+                .verifyError(IllegalArgumentException.class);
+        StepVerifier.create(studentResponseService.findResponseConnectionForLectureQuestion(lectureQuestionId, 0, null))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    private List<StudentResponse> responses(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> StudentResponse.builder()
+                        .responseId(UUID.randomUUID())
+                        .studentId(UUID.randomUUID())
+                        .lectureQuestionId(lectureQuestionId)
+                        .answerId(UUID.randomUUID())
+                        .build())
+                .toList();
+    }
+}
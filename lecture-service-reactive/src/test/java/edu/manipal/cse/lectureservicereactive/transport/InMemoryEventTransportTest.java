@@ -0,0 +1,33 @@
+package edu.manipal.cse.lectureservicereactive.transport;
+
+import edu.manipal.cse.lectureservicereactive.models.Lecture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryEventTransportTest {
+
+    @Test
+    void deliversEventsWithIncreasingOffsets() {
+        InMemoryEventTransport transport = new InMemoryEventTransport();
+        List<LiveEvent> delivered = new ArrayList<>();
+        transport.setReceiver(delivered::add);
+
+        LiveEvent event = LiveEvent.local(LiveStream.LECTURE_UPDATED, UUID.randomUUID(), new Lecture());
+        for (int i = 0; i < 3; i++) {
+            transport.publish(event);
+        }
+
+        assertThat(event.offset()).isEqualTo(LiveEvent.UNASSIGNED);
+        assertThat(delivered).extracting(LiveEvent::offset)
+                .doesNotContain(LiveEvent.UNASSIGNED)
+                .isSorted()
+                .doesNotHaveDuplicates();
+        // Clock-based, so offsets handed out before a restart stay behind the new ones
+        assertThat(delivered.get(0).offset()).isGreaterThanOrEqualTo(event.publishedAtMicros());
+    }
+}
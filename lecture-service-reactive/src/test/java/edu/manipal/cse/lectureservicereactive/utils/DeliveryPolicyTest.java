@@ -0,0 +1,120 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import edu.manipal.cse.lectureservicereactive.exceptions.OperationFailedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryPolicyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Sinks.Many<Integer> source = Sinks.many().multicast().directBestEffort();
+
+    @Test
+    void latestConflatesUndeliveredElements() {
+        DeliveryPolicy policy = DeliveryPolicy.latest("lectureUpdated", Duration.ofMinutes(1), meterRegistry);
+
+        StepVerifier.create(policy.apply(source.asFlux()), 0)
+                .then(() -> {
+                    source.tryEmitNext(1);
+                    source.tryEmitNext(2);
+                    source.tryEmitNext(3);
+                })
+                .thenRequest(1)
+                .expectNext(3)
+                .then(() -> source.tryEmitNext(4))
+                .thenRequest(1)
+                .expectNext(4)
+                .thenCancel()
+                .verify();
+
+        assertThat(deliveries("lectureUpdated", "conflated")).isEqualTo(2);
+    }
+
+    @Test
+    void bufferedDropsTheOldestElementsOnOverflow() {
+        DeliveryPolicy policy = DeliveryPolicy.buffered("studentResponded", 2, Duration.ofMinutes(1), meterRegistry);
+
+        StepVerifier.create(policy.apply(source.asFlux()), 0)
+                .then(() -> {
+                    for (int i = 1; i <= 4; i++) {
+                        source.tryEmitNext(i);
+                    }
+                })
+                .thenRequest(2)
+                .expectNext(3, 4)
+                .thenCancel()
+                .verify();
+
+        assertThat(deliveries("studentResponded", "dropped")).isEqualTo(2);
+        assertThat(deliveries("studentResponded", "disconnected")).isZero();
+    }
+
+    @Test
+    void keepingUpIsNeverPenalized() {
+        DeliveryPolicy policy = DeliveryPolicy.buffered("studentResponded", 1, Duration.ZERO, meterRegistry);
+
+        StepVerifier.create(policy.apply(source.asFlux()))
+                .then(() -> source.tryEmitNext(1))
+                .expectNext(1)
+                .then(() -> source.tryEmitNext(2))
+                .expectNext(2)
+                .then(source::tryEmitComplete)
+                .verifyComplete();
+
+        assertThat(deliveries("studentResponded", "dropped")).isZero();
+    }
+
+    @Test
+    void disconnectsSubscribersThatStopConsumingWhileOverTheirLimit() {
+        DeliveryPolicy policy = DeliveryPolicy.buffered("lectureActivity", 1, Duration.ZERO, meterRegistry);
+
+        StepVerifier.create(policy.apply(source.asFlux()), 0)
+                .then(() -> {
+                    source.tryEmitNext(1);
+                    source.tryEmitNext(2);
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isInstanceOf(OperationFailedException.class)
+                        .hasMessageContaining("lectureActivity"))
+                .verify();
+
+        assertThat(deliveries("lectureActivity", "disconnected")).isEqualTo(1);
+    }
+
+    @Test
+    void eachSubscriberBuffersOnItsOwn() {
+        DeliveryPolicy policy = DeliveryPolicy.buffered("studentResponded", 1, Duration.ofMinutes(1), meterRegistry);
+        List<Integer> fast = new ArrayList<>();
+        policy.apply(source.asFlux()).subscribe(fast::add);
+
+        StepVerifier.create(policy.apply(source.asFlux()), 0)
+                .then(() -> {
+                    source.tryEmitNext(1);
+                    source.tryEmitNext(2);
+                })
+                .thenRequest(1)
+                .expectNext(2)
+                .thenCancel()
+                .verify();
+
+        assertThat(fast).containsExactly(1, 2);
+    }
+
+    private double deliveries(String stream, String outcome) {
+        return meterRegistry.get("lecture.subscriptions.deliveries")
+                .tag("stream", stream)
+                .tag("outcome", outcome)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,193 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyedSinkRegistryTest {
+
+    private final List<String> firstSubscribers = new ArrayList<>();
+    private final List<String> lastSubscribers = new ArrayList<>();
+    private final KeyedSinkRegistry<String, String> registry = new KeyedSinkRegistry<>("lectureUpdated",
+            DeliveryPolicy.buffered("lectureUpdated", 16, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+            firstSubscribers::add, lastSubscribers::add);
+
+    @Test
+    void keysAreRetainedWhileTheyHaveSubscribers() {
+        List<String> received = new ArrayList<>();
+        Disposable first = registry.stream("a").subscribe(received::add);
+        Disposable second = registry.stream("a").subscribe(received::add);
+
+        assertThat(registry.keyCount()).isEqualTo(1);
+        assertThat(registry.subscriberCount()).isEqualTo(2);
+        assertThat(firstSubscribers).containsExactly("a");
+
+        registry.emit("a", "x", 1);
+        first.dispose();
+        assertThat(registry.keyCount()).isEqualTo(1);
+        assertThat(lastSubscribers).isEmpty();
+
+        registry.emit("a", "y", 2);
+        second.dispose();
+        assertThat(registry.keyCount()).isZero();
+        assertThat(registry.subscriberCount()).isZero();
+        assertThat(lastSubscribers).containsExactly("a");
+        assertThat(received).containsExactly("x", "x", "y");
+    }
+
+    @Test
+    void elementsOnlyReachTheSubscribersOfTheirKey() {
+        List<String> received = new ArrayList<>();
+        Disposable subscription = registry.stream("a").subscribe(received::add);
+
+        registry.emit("b", "other key", 1);
+        registry.emit("a", "own key", 2);
+        subscription.dispose();
+
+        assertThat(received).containsExactly("own key");
+    }
+
+    @Test
+    void elementsWithoutSubscribersAreDropped() {
+        registry.emit("a", "nobody listening", 1);
+
+        assertThat(registry.keyCount()).isZero();
+        StepVerifier.create(registry.stream("a", true, null, Mono.just("loaded")))
+                .assertNext(element -> assertThat(element.value()).isEqualTo("loaded"))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void snapshotStartsWithTheRetainedElement() {
+        Disposable holder = registry.stream("a").subscribe();
+        registry.emit("a", "v1", 1_000);
+        registry.emit("a", "v2", 1_000);
+
+        StepVerifier.create(registry.stream("a", true, null, Mono.error(new AssertionError("must not load"))))
+                .assertNext(element -> {
+                    assertThat(element.value()).isEqualTo("v2");
+                    // Sequences strictly increase even for the same publish time
+                    assertThat(element.sequence()).isEqualTo(1_001);
+                })
+                .then(() -> registry.emit("a", "v3", 5_000))
+                .assertNext(element -> assertThat(element).isEqualTo(new Sequenced<>(5_000, "v3")))
+                .thenCancel()
+                .verify();
+        holder.dispose();
+    }
+
+    @Test
+    void sequencesFollowEventOffsetsAndNeverGoBack() {
+        Disposable holder = registry.stream("a").subscribe();
+
+        StepVerifier.create(registry.stream("a", false, null, Mono.empty()))
+                .then(() -> {
+                    registry.emit("a", "v1", 10);
+                    registry.emit("a", "v2", 20);
+                    // Arrived late from another instance: sequenced after what this key already has
+                    registry.emit("a", "v3", 15);
+                })
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(10))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(20))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(21))
+                .thenCancel()
+                .verify();
+        holder.dispose();
+    }
+
+    @Test
+    void unsequencedElementsAreNeverDroppedAsDuplicates() {
+        Disposable holder = registry.stream("a").subscribe();
+        registry.emit("a", "v1", 10);
+
+        StepVerifier.create(registry.stream("a", true, null, Mono.empty()))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(10))
+                .then(() -> {
+                    registry.emit("a", "v2", Sequenced.UNSEQUENCED);
+                    registry.emit("a", "v3", 11);
+                })
+                .assertNext(element -> assertThat(element.isSequenced()).isFalse())
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(11))
+                .thenCancel()
+                .verify();
+        holder.dispose();
+    }
+
+    @Test
+    void resumingSubscribersSkipAnUnchangedSnapshot() {
+        Disposable holder = registry.stream("a").subscribe();
+        registry.emit("a", "v1", 1_000);
+
+        StepVerifier.create(registry.stream("a", false, 1_000L, Mono.empty()))
+                .then(() -> registry.emit("a", "v2", 2_000))
+                .assertNext(element -> assertThat(element.value()).isEqualTo("v2"))
+                .thenCancel()
+                .verify();
+        StepVerifier.create(registry.stream("a", false, 999L, Mono.empty()))
+                .assertNext(element -> assertThat(element.value()).isEqualTo("v2"))
+                .thenCancel()
+                .verify();
+        holder.dispose();
+    }
+
+    @Test
+    void concurrentSnapshotsShareOneLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        Mono<String> current = Mono.fromSupplier(() -> "loaded #" + loads.incrementAndGet())
+                .delayElement(Duration.ofMillis(50));
+
+        StepVerifier.create(registry.stream("a", true, null, current)
+                        .mergeWith(registry.stream("a", true, null, current))
+                        .take(2)
+                        .map(Sequenced::value))
+                .expectNext("loaded #1", "loaded #1")
+                .verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void snapshotsAreSequencedByTheLastOffsetEmitted() {
+        registry.emit("b", "other key", 500);
+
+        StepVerifier.create(registry.stream("a", true, null, Mono.just("loaded")))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(500))
+                .then(() -> registry.emit("a", "delta", 501))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(501))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void locallyDerivedStateIsSequencedByItsVersion() {
+        KeyedSinkRegistry<String, Integer> counts = new KeyedSinkRegistry<>("studentResponseCountUpdated",
+                DeliveryPolicy.buffered("studentResponseCountUpdated", 16, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                Integer::longValue);
+
+        StepVerifier.create(counts.stream("a", true, null, Mono.just(7)))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(7))
+                .then(() -> counts.emit("a", 8, 8))
+                .assertNext(element -> assertThat(element.sequence()).isEqualTo(8))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void failedLoadsStillDeliverDeltas() {
+        StepVerifier.create(registry.stream("a", true, null, Mono.error(new IllegalStateException("db down"))))
+                .then(() -> registry.emit("a", "delta", 1_000))
+                .assertNext(element -> assertThat(element.value()).isEqualTo("delta"))
+                .thenCancel()
+                .verify();
+        assertThat(registry.keyCount()).isZero();
+    }
+}
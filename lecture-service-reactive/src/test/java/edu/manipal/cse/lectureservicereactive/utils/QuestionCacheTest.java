@@ -0,0 +1,79 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionCacheTest {
+
+    private final UUID lectureA = UUID.randomUUID();
+    private final UUID lectureB = UUID.randomUUID();
+    private final UUID question1 = UUID.randomUUID();
+    private final UUID question2 = UUID.randomUUID();
+    private final UUID question3 = UUID.randomUUID();
+
+    @Test
+    void releaseKeepsEntriesHeldByAnotherLecture() {
+        QuestionCache<String> cache = new QuestionCache<>(10);
+        cache.put(question1, "shared", lectureA);
+        cache.hold(question1, lectureB);
+        cache.put(question2, "only A", lectureA);
+
+        assertThat(cache.release(lectureA, List.of(question1, question2))).isEqualTo(1);
+
+        assertThat(cache.get(question1)).contains("shared");
+        assertThat(cache.get(question2)).isEmpty();
+
+        cache.release(lectureB, List.of(question1));
+        assertThat(cache.get(question1)).isEmpty();
+    }
+
+    @Test
+    void releaseDropsUnheldEntriesOfTheLecture() {
+        QuestionCache<String> cache = new QuestionCache<>(10);
+        cache.put(question1, "loaded on demand", null);
+
+        cache.release(lectureA, List.of(question1));
+
+        assertThat(cache.get(question1)).isEmpty();
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedUnheldEntryFirst() {
+        QuestionCache<String> cache = new QuestionCache<>(2);
+        cache.put(question1, "held", lectureA);
+        cache.put(question2, "unheld", null);
+        cache.get(question1);
+        cache.get(question2);
+
+        cache.put(question3, "new", null);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(question1)).contains("held");
+        assertThat(cache.get(question2)).isEmpty();
+        assertThat(cache.get(question3)).contains("new");
+    }
+
+    @Test
+    void evictsHeldEntriesWhenEveryEntryIsHeld() {
+        QuestionCache<String> cache = new QuestionCache<>(2);
+        cache.put(question1, "oldest", lectureA);
+        cache.put(question2, "second", lectureA);
+
+        cache.put(question3, "third", lectureB);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(question1)).isEmpty();
+        assertThat(cache.get(question3)).contains("third");
+    }
+
+    @Test
+    void holdIsRejectedForMissingEntries() {
+        QuestionCache<String> cache = new QuestionCache<>(2);
+
+        assertThat(cache.hold(question1, lectureA)).isFalse();
+    }
+}
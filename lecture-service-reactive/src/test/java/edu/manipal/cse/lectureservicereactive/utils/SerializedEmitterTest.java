@@ -0,0 +1,104 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerializedEmitterTest {
+
+    private final List<Sinks.EmitResult> failures = new ArrayList<>();
+
+    @Test
+    void throwingSubscriberDoesNotStallLaterEmits() {
+        SerializedEmitter<String> emitter = new SerializedEmitter<>(Sinks.many().multicast().directBestEffort(), failures::add);
+        List<String> received = new ArrayList<>();
+        emitter.sink().asFlux().subscribe(new ThrowingSubscriber("boom", received));
+
+        assertThatThrownBy(() -> emitter.emit("boom")).isInstanceOf(IllegalStateException.class);
+        emitter.emit("after");
+
+        assertThat(received).containsExactly("after");
+        assertThat(emitter.depth()).isZero();
+    }
+
+    @Test
+    void emitsWithoutSubscribersAreNotFailures() {
+        SerializedEmitter<String> emitter = new SerializedEmitter<>(Sinks.many().multicast().directBestEffort(), failures::add);
+
+        emitter.emit("nobody listening");
+
+        assertThat(failures).isEmpty();
+        assertThat(emitter.depth()).isZero();
+    }
+
+    @Test
+    void concurrentProducersAreSerializedWithoutLoss() throws InterruptedException {
+        // The unsafe sink would report FAIL_NON_SERIALIZED or corrupt state if two threads emitted at once
+        SerializedEmitter<Integer> emitter = new SerializedEmitter<>(Sinks.unsafe().many().multicast().directBestEffort(), failures::add);
+        List<Integer> received = new ArrayList<>();
+        emitter.sink().asFlux().subscribe(received::add);
+
+        int producers = 8;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    emitter.emit(i);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(failures).isEmpty();
+        assertThat(emitter.depth()).isZero();
+    }
+
+    /**
+     * Raw subscriber whose {@code onNext} throws for one element, as a misbehaving downstream would.
+     */
+    private record ThrowingSubscriber(String poison, List<String> received) implements CoreSubscriber<String> {
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String value) {
+            if (poison.equals(value)) {
+                throw new IllegalStateException("subscriber failed on " + value);
+            }
+            received.add(value);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
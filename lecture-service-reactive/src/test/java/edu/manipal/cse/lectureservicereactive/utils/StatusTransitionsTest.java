@@ -0,0 +1,79 @@
+package edu.manipal.cse.lectureservicereactive.utils;
+
+import edu.manipal.cse.lectureservicereactive.models.Lecture.LectureStatus;
+import edu.manipal.cse.lectureservicereactive.models.LectureQuestion.LectureQuestionStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatusTransitionsTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "PENDING,   PENDING,   true",
+            "PENDING,   ACTIVE,    true",
+            "PENDING,   COMPLETED, true",
+            "ACTIVE,    PENDING,   false",
+            "ACTIVE,    ACTIVE,    true",
+            "ACTIVE,    COMPLETED, true",
+            "COMPLETED, PENDING,   false",
+            "COMPLETED, ACTIVE,    false",
+            "COMPLETED, COMPLETED, true"
+    })
+    void lectureQuestionsOnlyMoveForward(LectureQuestionStatus current, LectureQuestionStatus next, boolean allowed) {
+        assertThat(StatusTransitions.isAllowed(current, next)).isEqualTo(allowed);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "SCHEDULED,   SCHEDULED,   true",
+            "SCHEDULED,   IN_PROGRESS, true",
+            "SCHEDULED,   COMPLETED,   true",
+            "SCHEDULED,   CANCELLED,   true",
+            "IN_PROGRESS, SCHEDULED,   true",
+            "IN_PROGRESS, IN_PROGRESS, true",
+            "IN_PROGRESS, COMPLETED,   true",
+            "IN_PROGRESS, CANCELLED,   true",
+            "COMPLETED,   SCHEDULED,   false",
+            "COMPLETED,   IN_PROGRESS, false",
+            "COMPLETED,   COMPLETED,   true",
+            "COMPLETED,   CANCELLED,   false",
+            "CANCELLED,   SCHEDULED,   false",
+            "CANCELLED,   IN_PROGRESS, false",
+            "CANCELLED,   COMPLETED,   false",
+            "CANCELLED,   CANCELLED,   true"
+    })
+    void lecturesMoveFreelyUntilTheyEnd(LectureStatus current, LectureStatus next, boolean allowed) {
+        assertThat(StatusTransitions.isAllowed(current, next)).isEqualTo(allowed);
+    }
+
+    @ParameterizedTest
+    @EnumSource(LectureQuestionStatus.class)
+    void lectureQuestionAllowedFromMatchesIsAllowed(LectureQuestionStatus next) {
+        for (LectureQuestionStatus current : LectureQuestionStatus.values()) {
+            assertThat(StatusTransitions.allowedFrom(next).contains(current.name()))
+                    .as("%s -> %s", current, next)
+                    .isEqualTo(StatusTransitions.isAllowed(current, next));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(LectureStatus.class)
+    void lectureAllowedFromMatchesIsAllowed(LectureStatus next) {
+        for (LectureStatus current : LectureStatus.values()) {
+            assertThat(StatusTransitions.allowedFrom(next).contains(current.name()))
+                    .as("%s -> %s", current, next)
+                    .isEqualTo(StatusTransitions.isAllowed(current, next));
+        }
+    }
+
+    @Test
+    void allowedFromIsUnmodifiable() {
+        assertThat(StatusTransitions.allowedFrom(LectureQuestionStatus.COMPLETED))
+                .containsExactlyInAnyOrder("PENDING", "ACTIVE", "COMPLETED")
+                .isUnmodifiable();
+    }
+}
@@ -0,0 +1,13 @@
+package edu.manipal.cse.userservice.services;
+
+import java.util.UUID;
+
+public interface TokenRevocationService {
+    /**
+     * Revokes every access token issued to the user so far, e.g. after a password change.
+     * The gateway rejects tokens issued before the user's revocation epoch, which is shared
+     * with auth-service through Redis.
+     * @param userId Student or faculty ID
+     */
+    void revokeUserTokens(UUID userId);
+}
@@ -7,6 +7,7 @@ import edu.manipal.cse.userservice.entities.Faculty;
 import edu.manipal.cse.userservice.mappers.FacultyMapper;
 import edu.manipal.cse.userservice.repositories.FacultyRepository;
 import edu.manipal.cse.userservice.services.FacultyService;
+import edu.manipal.cse.userservice.services.TokenRevocationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +30,7 @@ public class FacultyServiceImpl implements FacultyService {
     private final FacultyRepository facultyRepository;
     private final FacultyMapper facultyMapper;
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     @Caching(evict = {
@@ -96,11 +98,16 @@ public class FacultyServiceImpl implements FacultyService {
         facultyMapper.updateEntity(request, faculty);
 
         // Update password if provided
-        if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().trim().isEmpty();
+        if (passwordChanged) {
             faculty.setPassword(bCryptPasswordEncoder.encode(request.getPassword()));
         }
 
         faculty = facultyRepository.save(faculty);
+        if (passwordChanged) {
+            // Sessions signed in with the old password must not outlive it
+            tokenRevocationService.revokeUserTokens(id);
+        }
         return facultyMapper.toResponse(faculty);
     }
 
@@ -7,6 +7,7 @@ import edu.manipal.cse.userservice.entities.Student;
 import edu.manipal.cse.userservice.mappers.StudentMapper;
 import edu.manipal.cse.userservice.repositories.StudentRepository;
 import edu.manipal.cse.userservice.services.StudentService;
+import edu.manipal.cse.userservice.services.TokenRevocationService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
@@ -27,6 +28,7 @@ public class StudentServiceImpl implements StudentService {
     private final StudentRepository studentRepository;
     private final StudentMapper studentMapper;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     @Caching(evict = {
@@ -107,11 +109,16 @@ public class StudentServiceImpl implements StudentService {
         studentMapper.updateEntity(request, student);
 
         // Update password if provided
-        if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().trim().isEmpty();
+        if (passwordChanged) {
             student.setPassword(passwordEncoder.encode(request.getPassword()));
         }
 
         student = studentRepository.save(student);
+        if (passwordChanged) {
+            // Sessions signed in with the old password must not outlive it
+            tokenRevocationService.revokeUserTokens(id);
+        }
         return studentMapper.toResponse(student);
     }
 
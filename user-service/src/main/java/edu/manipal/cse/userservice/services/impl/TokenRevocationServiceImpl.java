@@ -0,0 +1,28 @@
+package edu.manipal.cse.userservice.services.impl;
+
+import edu.manipal.cse.userservice.services.TokenRevocationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    // Same hash and channel as auth-service's TokenRevocationService
+    private static final String EPOCHS_KEY = "auth:revocation:epochs";
+    private static final String EPOCHS_CHANNEL = "auth:revocation";
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void revokeUserTokens(UUID userId) {
+        String epoch = String.valueOf(System.currentTimeMillis());
+        redisTemplate.opsForHash().put(EPOCHS_KEY, userId.toString(), epoch);
+        redisTemplate.convertAndSend(EPOCHS_CHANNEL, userId + ":" + epoch);
+        log.info("Access tokens revoked for user {} after a password change", userId);
+    }
+}